@@ -0,0 +1,144 @@
+package com.ecommerce.userservice.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-ins for Spring Data repositories, so benchmarks can exercise services without a database.
+ * Supports the CRUD methods the services use plus derived {@code findByXxx} lookups, including
+ * {@code And}-joined properties and nested {@code Xxx_Yyy} paths.
+ *
+ * @author mahip.bhatt
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    /**
+     * Creates an in-memory implementation of the given repository interface.
+     *
+     * @param repositoryType the repository interface
+     * @param idExtractor    extracts the ID of an entity
+     * @param <R>            the repository type
+     * @param <T>            the entity type
+     * @param <ID>           the ID type
+     * @return the repository proxy
+     */
+    public static <R, T, ID> R create(Class<R> repositoryType, Function<T, ID> idExtractor) {
+        Map<Object, T> store = new ConcurrentHashMap<>();
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (self, method, args) -> invoke(store, idExtractor, method, args));
+        return repositoryType.cast(proxy);
+    }
+
+    /**
+     * Dispatches a repository call against the backing map.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T, ID> Object invoke(Map<Object, T> store, Function<T, ID> idExtractor, Method method, Object[] args)
+            throws ReflectiveOperationException {
+        String name = method.getName();
+        switch (name) {
+            case "save", "saveAndFlush" -> {
+                T entity = (T) args[0];
+                store.put(idExtractor.apply(entity), entity);
+                return entity;
+            }
+            case "saveAll", "saveAllAndFlush" -> {
+                List<T> saved = new ArrayList<>();
+                for (T entity : (Iterable<T>) args[0]) {
+                    store.put(idExtractor.apply(entity), entity);
+                    saved.add(entity);
+                }
+                return saved;
+            }
+            case "findById" -> {
+                return Optional.ofNullable(store.get(args[0]));
+            }
+            case "existsById" -> {
+                return store.containsKey(args[0]);
+            }
+            case "findAll" -> {
+                return new ArrayList<>(store.values());
+            }
+            case "count" -> {
+                return (long) store.size();
+            }
+            case "deleteById" -> {
+                store.remove(args[0]);
+                return null;
+            }
+            case "delete" -> {
+                store.remove(idExtractor.apply((T) args[0]));
+                return null;
+            }
+            case "deleteAll" -> {
+                store.clear();
+                return null;
+            }
+            case "hashCode" -> {
+                return System.identityHashCode(store);
+            }
+            case "equals" -> {
+                return false;
+            }
+            case "toString" -> {
+                return "InMemoryRepository" + store.keySet();
+            }
+            default -> {
+                if (name.startsWith("findBy") && args != null) {
+                    String[] properties = name.substring("findBy".length()).split("And");
+                    if (properties.length == args.length) {
+                        return findByProperties(store, properties, args);
+                    }
+                }
+                throw new UnsupportedOperationException(name + " is not supported by the in-memory repository");
+            }
+        }
+    }
+
+    /**
+     * Finds the first entity whose properties all match the given values.
+     */
+    private static <T> Optional<T> findByProperties(Map<Object, T> store, String[] properties, Object[] values)
+            throws ReflectiveOperationException {
+        for (T entity : store.values()) {
+            boolean matches = true;
+            for (int i = 0; i < properties.length && matches; i++) {
+                matches = Objects.deepEquals(readPath(entity, properties[i]), values[i]);
+            }
+            if (matches) {
+                return Optional.of(entity);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reads a property path such as {@code User_Id} through the matching getters.
+     */
+    private static Object readPath(Object target, String path) throws ReflectiveOperationException {
+        Object value = target;
+        for (String property : path.split("_")) {
+            if (value == null) {
+                return null;
+            }
+            Method getter = value.getClass().getMethod("get" + property);
+            try {
+                value = getter.invoke(value);
+            } catch (InvocationTargetException ex) {
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+        return value;
+    }
+}
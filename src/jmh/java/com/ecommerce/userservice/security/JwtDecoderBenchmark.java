@@ -0,0 +1,77 @@
+package com.ecommerce.userservice.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for decoding an access token with the in-process {@link JwkSetVerifiers} decoder, compared with
+ * the authorization server's decoder over a {@code JWKSource}, which matches the key set and creates a verifier
+ * for every token.
+ * The key set holds three keys, as it does while a key is being rotated in or out.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class JwtDecoderBenchmark {
+
+    @Param({"cached", "jwkSource"})
+    public String decoder;
+
+    private JwtDecoder jwtDecoder;
+    private String token;
+
+    /**
+     * Creates the keys, the decoder and one token signed with the last key.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        List<RSAKey> keys = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            keys.add(new RSAKeyGenerator(2048).keyID("key-" + i).generate());
+        }
+        JWKSet jwkSet = new JWKSet(new ArrayList<>(keys));
+        jwtDecoder = "cached".equals(decoder)
+                ? JwkSetVerifiers.jwtDecoder(jwkSet.toPublicJWKSet())
+                : OAuth2AuthorizationServerConfiguration.jwtDecoder(new ImmutableJWKSet<>(jwkSet.toPublicJWKSet()));
+
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("benchmark@example.com")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3_600))
+                .build();
+        token = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(keys.get(2))))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+                .getTokenValue();
+    }
+
+    /**
+     * Decodes and verifies the token.
+     *
+     * @return the decoded token
+     */
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+}
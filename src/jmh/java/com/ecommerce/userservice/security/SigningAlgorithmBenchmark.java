@@ -0,0 +1,88 @@
+package com.ecommerce.userservice.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for issuing and verifying access tokens with each supported signing algorithm.
+ * The key is generated by {@link SigningKeys} as on first boot, so each algorithm uses the key type and size the
+ * service would use in production.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"RS256", "PS256", "ES256"})
+    public String algorithm;
+
+    private JwtEncoder jwtEncoder;
+    private JwtDecoder jwtDecoder;
+    private JwtEncoderParameters parameters;
+    private String token;
+
+    /**
+     * Generates the key, builds the encoder and decoder, and issues one token to verify.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Path directory = Files.createTempDirectory("jwks");
+        JwkProperties jwkProperties = new JwkProperties();
+        jwkProperties.setLocation(directory.resolve("jwks.json").toString());
+        jwkProperties.setAlgorithm(SignatureAlgorithm.from(algorithm));
+        SigningKeys signingKeys = SigningKeys.load(jwkProperties);
+
+        jwtEncoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKeys.getActiveKey())));
+        jwtDecoder = JwkSetVerifiers.jwtDecoder(signingKeys.getPublicJwkSet());
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("http://localhost:9000")
+                .subject("benchmark@example.com")
+                .audience(List.of("benchmark-client"))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3_600))
+                .claim("roles", List.of("USER"))
+                .build();
+        parameters = JwtEncoderParameters.from(JwsHeader.with(signingKeys.getSignatureAlgorithm()).build(), claims);
+        token = issue().getTokenValue();
+    }
+
+    /**
+     * Signs a token, as the token endpoint does for every issued access token.
+     *
+     * @return the issued token
+     */
+    @Benchmark
+    public Jwt issue() {
+        return jwtEncoder.encode(parameters);
+    }
+
+    /**
+     * Verifies a token, as the resource server does for every bearer request.
+     *
+     * @return the decoded token
+     */
+    @Benchmark
+    public Jwt verify() {
+        return jwtDecoder.decode(token);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.userservice.security.service;
+
+import com.ecommerce.userservice.benchmark.InMemoryRepositories;
+import com.ecommerce.userservice.security.AuthorizationBatchProperties;
+import com.ecommerce.userservice.security.models.Authorization;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for converting between {@link OAuth2Authorization} and its stored {@link Authorization} row,
+ * which serializes or parses the attribute and token metadata JSON on every save and lookup.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    private JpaOAuth2AuthorizationService authorizationService;
+    private OAuth2Authorization authorization;
+    private Authorization entity;
+
+    /**
+     * Builds an authorization with an access and a refresh token, as issued by the authorization code flow.
+     */
+    @Setup
+    public void setUp() {
+        RegisteredClient registeredClient = RegisteredClient.withId("benchmark-client")
+                .clientId("oidc-client")
+                .clientSecret("{noop}secret")
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
+                .redirectUri("http://127.0.0.1:8080/login/oauth2/code/oidc-client")
+                .scope("openid")
+                .scope("profile")
+                .build();
+        AuthorizationRepository authorizationRepository =
+                InMemoryRepositories.create(AuthorizationRepository.class, Authorization::getId);
+        authorizationService = new JpaOAuth2AuthorizationService(authorizationRepository,
+                new InMemoryRegisteredClientRepository(registeredClient),
+                new AuthorizationSaveBatcher(authorizationRepository, new TransactionTemplate(),
+                        new AuthorizationBatchProperties(), new SimpleMeterRegistry()));
+
+        Instant issuedAt = Instant.now();
+        authorization = OAuth2Authorization.withRegisteredClient(registeredClient)
+                .id("benchmark-authorization")
+                .principalName("benchmark@example.com")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .authorizedScopes(Set.of("openid", "profile"))
+                .token(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-token-value",
+                        issuedAt, issuedAt.plusSeconds(300), Set.of("openid", "profile")))
+                .refreshToken(new OAuth2RefreshToken("refresh-token-value", issuedAt, issuedAt.plusSeconds(3600)))
+                .build();
+        entity = authorizationService.toEntity(authorization);
+    }
+
+    /**
+     * Converts the authorization into its stored row.
+     *
+     * @return the row
+     */
+    @Benchmark
+    public Authorization toEntity() {
+        return authorizationService.toEntity(authorization);
+    }
+
+    /**
+     * Rebuilds the authorization from its stored row.
+     *
+     * @return the authorization
+     */
+    @Benchmark
+    public OAuth2Authorization toObject() {
+        return authorizationService.toObject(entity);
+    }
+}
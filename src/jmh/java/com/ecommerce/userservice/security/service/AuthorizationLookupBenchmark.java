@@ -0,0 +1,151 @@
+package com.ecommerce.userservice.security.service;
+
+import com.ecommerce.userservice.benchmark.InMemoryRepositories;
+import com.ecommerce.userservice.security.AuthorizationBatchProperties;
+import com.ecommerce.userservice.security.AuthorizationStoreProperties;
+import com.ecommerce.userservice.security.TokenDigests;
+import com.ecommerce.userservice.security.models.Authorization;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for looking up a client-credentials authorization by its access token, as token introspection does,
+ * in the database-backed service against the off-heap store. The database side runs over an in-memory repository
+ * holding a single row, so it measures only the row conversion and leaves out the query itself; the off-heap store
+ * holds {@value #AUTHORIZATIONS} authorizations. {@code tokenStore} reads the raw record of the same lookups from an
+ * {@link OffHeapTokenStore} without rebuilding the authorization.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationLookupBenchmark {
+
+    private static final int AUTHORIZATIONS = 10_000;
+
+    private Path directory;
+    private JpaOAuth2AuthorizationService jpaAuthorizationService;
+    private OffHeapOAuth2AuthorizationService offHeapAuthorizationService;
+    private OffHeapTokenStore tokenStore;
+    private int next;
+
+    /**
+     * Saves one client-credentials authorization to the database-backed service and many to the off-heap store.
+     *
+     * @throws IOException if the store file cannot be created
+     */
+    @Setup
+    public void setUp() throws IOException {
+        RegisteredClient registeredClient = RegisteredClient.withId("benchmark-client")
+                .clientId("service-client")
+                .clientSecret("{noop}secret")
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .scope("read")
+                .build();
+        InMemoryRegisteredClientRepository registeredClientRepository =
+                new InMemoryRegisteredClientRepository(registeredClient);
+        AuthorizationRepository authorizationRepository =
+                InMemoryRepositories.create(AuthorizationRepository.class, Authorization::getId);
+        AuthorizationSaveBatcher authorizationSaveBatcher = new AuthorizationSaveBatcher(authorizationRepository,
+                new TransactionTemplate(), new AuthorizationBatchProperties(), new SimpleMeterRegistry());
+        jpaAuthorizationService = new JpaOAuth2AuthorizationService(authorizationRepository,
+                registeredClientRepository, authorizationSaveBatcher);
+
+        directory = Files.createTempDirectory("authorization-lookup");
+        AuthorizationStoreProperties authorizationStoreProperties = new AuthorizationStoreProperties();
+        authorizationStoreProperties.setLocation(directory.resolve("authorizations.bin").toString());
+        authorizationStoreProperties.setCapacity(4 * AUTHORIZATIONS);
+        offHeapAuthorizationService = new OffHeapOAuth2AuthorizationService(authorizationRepository,
+                registeredClientRepository, authorizationSaveBatcher, authorizationStoreProperties);
+        tokenStore = new OffHeapTokenStore(directory.resolve("records.bin"), 2 * AUTHORIZATIONS,
+                authorizationStoreProperties.getSlotSize(), authorizationStoreProperties.getStripes());
+
+        Instant issuedAt = Instant.now();
+        for (int i = 0; i < AUTHORIZATIONS; i++) {
+            OAuth2Authorization authorization = OAuth2Authorization.withRegisteredClient(registeredClient)
+                    .id("authorization-" + i)
+                    .principalName("service-client")
+                    .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                    .authorizedScopes(Set.of("read"))
+                    .token(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-token-" + i,
+                            issuedAt, issuedAt.plusSeconds(3600), Set.of("read")))
+                    .build();
+            if (i == 0) {
+                jpaAuthorizationService.save(authorization);
+            }
+            offHeapAuthorizationService.save(authorization);
+            tokenStore.put(TokenDigests.sha256("access-token-" + i), Long.MAX_VALUE,
+                    OffHeapOAuth2AuthorizationService.encode(authorization, tokenStore.maxValueLength()));
+        }
+    }
+
+    /**
+     * Closes the stores and deletes their files.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        offHeapAuthorizationService.close();
+        tokenStore.close();
+        Files.deleteIfExists(directory.resolve("authorizations.bin"));
+        Files.deleteIfExists(directory.resolve("records.bin"));
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Looks up the authorization in the database-backed service.
+     *
+     * @return the authorization
+     */
+    @Benchmark
+    public OAuth2Authorization jpa() {
+        return jpaAuthorizationService.findByToken("access-token-0", OAuth2TokenType.ACCESS_TOKEN);
+    }
+
+    /**
+     * Looks up an authorization in the off-heap store.
+     *
+     * @return the authorization
+     */
+    @Benchmark
+    public OAuth2Authorization offHeap() {
+        return offHeapAuthorizationService.findByToken(nextToken(), OAuth2TokenType.ACCESS_TOKEN);
+    }
+
+    /**
+     * Digests a token and reads its record from the store.
+     *
+     * @return the record
+     */
+    @Benchmark
+    public byte[] tokenStore() {
+        return tokenStore.get(TokenDigests.sha256(nextToken()), System.currentTimeMillis());
+    }
+
+    private String nextToken() {
+        next = (next + 1) % AUTHORIZATIONS;
+        return "access-token-" + next;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.userservice.security.service;
+
+import com.ecommerce.userservice.security.AuthorizationBatchProperties;
+import com.ecommerce.userservice.security.models.Authorization;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for saving new authorizations from many concurrent token requests, one transaction per save against
+ * batches written by the {@link AuthorizationSaveBatcher}.
+ * Runs against an in-memory H2 database, where a commit costs no fsync, so the gain from batching is understated
+ * compared with MySQL on disk.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(16)
+@Fork(1)
+public class AuthorizationSaveBenchmark {
+
+    @Param({"false", "true"})
+    public boolean batched;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private JdbcConnectionPool connectionPool;
+    private AuthorizationSaveBatcher authorizationSaveBatcher;
+
+    /**
+     * Creates the database and the batcher.
+     */
+    @Setup
+    public void setUp() {
+        EntityManagerFactory entityManagerFactory = createEntityManagerFactory();
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        // Make the repository methods transactional, as the Spring Data proxies in the application are
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        repositoryFactory.addRepositoryProxyPostProcessor((factory, repositoryInformation) -> factory.addAdvice(
+                new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource())));
+        AuthorizationRepository authorizationRepository = repositoryFactory.getRepository(AuthorizationRepository.class);
+
+        AuthorizationBatchProperties authorizationBatchProperties = new AuthorizationBatchProperties();
+        authorizationBatchProperties.setEnabled(batched);
+        authorizationBatchProperties.setWindow(Duration.ofMillis(2));
+        authorizationSaveBatcher = new AuthorizationSaveBatcher(authorizationRepository,
+                new TransactionTemplate(transactionManager),
+                authorizationBatchProperties, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(authorizationSaveBatcher, "entityManager", entityManager);
+    }
+
+    /**
+     * Stops the batcher and closes the database.
+     */
+    @TearDown
+    public void tearDown() {
+        authorizationSaveBatcher.shutdown();
+        entityManagerFactoryBean.destroy();
+        connectionPool.dispose();
+    }
+
+    /**
+     * Saves a new client-credentials authorization, as the token endpoint does for every issued token.
+     */
+    @Benchmark
+    public void save() {
+        String id = UUID.randomUUID().toString();
+        Instant issuedAt = Instant.now();
+        Authorization authorization = new Authorization();
+        authorization.setId(id);
+        authorization.setRegisteredClientId("benchmark-client");
+        authorization.setPrincipalName("benchmark-client");
+        authorization.setAuthorizationGrantType("client_credentials");
+        authorization.setAuthorizedScopes("read");
+        authorization.setAttributes("{}");
+        authorization.setAccessTokenValue("access-token-" + id);
+        authorization.setAccessTokenIssuedAt(issuedAt);
+        authorization.setAccessTokenExpiresAt(issuedAt.plusSeconds(300));
+        authorization.setAccessTokenMetadata("{}");
+        authorization.setAccessTokenScopes("read");
+        authorizationSaveBatcher.save(authorization);
+    }
+
+    /**
+     * Bootstraps Hibernate for the authorization server entities on H2, with JDBC batching as configured in
+     * {@code application.properties}.
+     *
+     * @return the entity manager factory
+     */
+    private EntityManagerFactory createEntityManagerFactory() {
+        connectionPool = JdbcConnectionPool.create(
+                "jdbc:h2:mem:authorizations;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1", "sa", "");
+        connectionPool.setMaxConnections(32);
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(connectionPool);
+        entityManagerFactoryBean.setPackagesToScan("com.ecommerce.userservice.security.models");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", new CamelCaseToUnderscoresNamingStrategy(),
+                "hibernate.jdbc.batch_size", "50",
+                "hibernate.order_inserts", "true"));
+        entityManagerFactoryBean.afterPropertiesSet();
+        return entityManagerFactoryBean.getObject();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.userservice.security.service;
+
+import com.ecommerce.userservice.benchmark.InMemoryRepositories;
+import com.ecommerce.userservice.security.RegisteredClientCacheProperties;
+import com.ecommerce.userservice.security.models.Client;
+import com.ecommerce.userservice.security.repositories.ClientRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.jackson2.OAuth2AuthorizationServerJackson2Module;
+import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
+import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for building a {@link RegisteredClient} from its stored {@link Client} row,
+ * which is dominated by parsing the client and token settings JSON.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegisteredClientBenchmark {
+
+    private JpaRegisteredClientService registeredClientService;
+    private Client client;
+
+    /**
+     * Builds a client row with settings serialized the same way {@link JpaRegisteredClientService#save} stores them.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        ClientRepository clientRepository = InMemoryRepositories.create(ClientRepository.class, Client::getId);
+        RegisteredClientCacheProperties cacheProperties = new RegisteredClientCacheProperties();
+        cacheProperties.setMaximumSize(0);
+        registeredClientService = new JpaRegisteredClientService(clientRepository, cacheProperties, new SimpleMeterRegistry());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModules(SecurityJackson2Modules.getModules(getClass().getClassLoader()));
+        objectMapper.registerModule(new OAuth2AuthorizationServerJackson2Module());
+
+        client = new Client();
+        client.setId("benchmark-client");
+        client.setClientId("oidc-client");
+        client.setClientIdIssuedAt(Instant.now());
+        client.setClientName("benchmark-client");
+        client.setClientAuthenticationMethods("client_secret_basic");
+        client.setAuthorizationGrantTypes("authorization_code,refresh_token,client_credentials");
+        client.setRedirectUris("http://127.0.0.1:8080/login/oauth2/code/oidc-client");
+        client.setPostLogoutRedirectUris("http://127.0.0.1:8080/");
+        client.setScopes("openid,profile");
+        client.setClientSettings(objectMapper.writeValueAsString(
+                ClientSettings.builder().requireAuthorizationConsent(true).build().getSettings()));
+        client.setTokenSettings(objectMapper.writeValueAsString(TokenSettings.builder().build().getSettings()));
+    }
+
+    /**
+     * Converts the stored row into a {@link RegisteredClient}, bypassing the client cache.
+     *
+     * @return the built client
+     */
+    @Benchmark
+    public RegisteredClient toObject() {
+        return registeredClientService.toObject(client);
+    }
+}
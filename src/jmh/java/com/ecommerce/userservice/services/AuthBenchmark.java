@@ -0,0 +1,106 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.benchmark.InMemoryRepositories;
+import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.models.SessionStatus;
+import com.ecommerce.userservice.models.User;
+import com.ecommerce.userservice.repositories.SessionRepository;
+import com.ecommerce.userservice.repositories.UserRepository;
+import com.ecommerce.userservice.security.JwtProperties;
+import com.ecommerce.userservice.security.LoginExecutorProperties;
+import com.ecommerce.userservice.security.RevocationProperties;
+import com.ecommerce.userservice.security.SessionPersistenceProperties;
+import com.ecommerce.userservice.security.TokenDigests;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for issuing and validating session tokens in {@link AuthService}.
+ * With {@code statelessValidation=false} every validation also performs the session lookup,
+ * which here hits an in-memory repository instead of MySQL.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthBenchmark {
+
+    @Param({"true", "false"})
+    public boolean statelessValidation;
+
+    private AuthService authService;
+    private PasswordVerificationExecutor passwordVerificationExecutor;
+    private User user;
+    private Date expiringAt;
+    private String token;
+
+    /**
+     * Creates the service against in-memory repositories and issues one active session token.
+     */
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = InMemoryRepositories.create(UserRepository.class, User::getId);
+        SessionRepository sessionRepository = InMemoryRepositories.create(SessionRepository.class,
+                (Session session) -> ByteBuffer.wrap(session.getTokenHash()));
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setStatelessValidation(statelessValidation);
+        LoginExecutorProperties loginExecutorProperties = new LoginExecutorProperties();
+        passwordVerificationExecutor = new PasswordVerificationExecutor(loginExecutorProperties, new SimpleMeterRegistry());
+        SessionWriteBuffer sessionWriteBuffer = new SessionWriteBuffer(sessionRepository,
+                new SessionPersistenceProperties(), new SimpleMeterRegistry());
+        SessionStore sessionStore = new JpaSessionStore(sessionRepository, sessionWriteBuffer);
+        authService = new AuthService(userRepository, sessionStore,
+                new BCryptPasswordEncoder(), Jwts.SIG.HS256.key().build(), jwtProperties,
+                new RevokedTokenFilter(sessionStore, new RevocationProperties()),
+                passwordVerificationExecutor, loginExecutorProperties, event -> {
+                });
+
+        user = new User();
+        user.setId(42L);
+        user.setEmail("benchmark@example.com");
+        userRepository.save(user);
+        expiringAt = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        token = authService.generateToken(user, expiringAt);
+
+        Session session = new Session(TokenDigests.sha256(token), expiringAt, user, SessionStatus.ACTIVE);
+        sessionRepository.save(session);
+    }
+
+    /**
+     * Releases the verification pool.
+     */
+    @TearDown
+    public void tearDown() {
+        passwordVerificationExecutor.shutdown();
+    }
+
+    /**
+     * Signs a new session token.
+     *
+     * @return the token
+     */
+    @Benchmark
+    public String generateToken() {
+        return authService.generateToken(user, expiringAt);
+    }
+
+    /**
+     * Validates an active session token.
+     *
+     * @return the session status
+     */
+    @Benchmark
+    public SessionStatus validate() {
+        return authService.validate(token, user.getId());
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.userservice.services;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for BCrypt password verification at the strengths the calibration may choose from.
+ * Each additional round doubles the cost, which is what a login pays per attempt.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @Param({"10", "12", "14"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String encodedPassword;
+
+    /**
+     * Encodes the benchmark password at the configured strength.
+     */
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        encodedPassword = encoder.encode("correct horse battery staple");
+    }
+
+    /**
+     * Verifies the correct password against the stored hash.
+     *
+     * @return whether the password matched
+     */
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("correct horse battery staple", encodedPassword);
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.models.SessionStatus;
+import com.ecommerce.userservice.models.SnowflakeIdAllocator;
+import com.ecommerce.userservice.models.User;
+import com.ecommerce.userservice.repositories.SessionRepository;
+import com.ecommerce.userservice.security.SessionPersistenceProperties;
+import com.ecommerce.userservice.security.TokenDigests;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark comparing the JPA and in-memory {@link SessionStore} implementations.
+ * The JPA store runs against an in-memory H2 database in MySQL mode, each call in its own transaction as it
+ * would be through the Spring Data proxies, so the gap to production MySQL is if anything understated.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SessionStoreBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"jpa", "memory"})
+    public String store;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private SessionStore sessionStore;
+    private List<User> users;
+    private List<byte[]> tokenHashes;
+
+    /**
+     * Creates the store and one active session per user.
+     */
+    @Setup
+    public void setUp() {
+        SessionPersistenceProperties sessionPersistenceProperties = new SessionPersistenceProperties();
+        if ("jpa".equals(store)) {
+            EntityManagerFactory entityManagerFactory = createEntityManagerFactory();
+            transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+            entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+            JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+            SessionRepository sessionRepository = repositoryFactory.getRepository(SessionRepository.class);
+            sessionStore = new JpaSessionStore(sessionRepository, new SessionWriteBuffer(sessionRepository,
+                    sessionPersistenceProperties, new SimpleMeterRegistry()));
+        } else {
+            sessionStore = new InMemorySessionStore(sessionPersistenceProperties);
+        }
+
+        users = new ArrayList<>(USERS);
+        tokenHashes = new ArrayList<>(USERS);
+        inTransaction(() -> {
+            for (int i = 0; i < USERS; i++) {
+                User user = new User();
+                user.setEmail("user" + i + "@example.com");
+                user.setPassword("password");
+                if (entityManager != null) {
+                    entityManager.persist(user);
+                } else {
+                    user.setId((long) i);
+                }
+                users.add(user);
+            }
+            return null;
+        });
+        for (User user : users) {
+            byte[] tokenHash = TokenDigests.sha256("token-" + user.getId());
+            create(user, tokenHash);
+            tokenHashes.add(tokenHash);
+        }
+    }
+
+    /**
+     * Closes the database.
+     */
+    @TearDown
+    public void tearDown() {
+        if (entityManagerFactoryBean != null) {
+            entityManagerFactoryBean.destroy();
+        }
+    }
+
+    /**
+     * Measures storing a new session, as done by every login.
+     */
+    @Benchmark
+    public void create() {
+        User user = users.get(ThreadLocalRandom.current().nextInt(USERS));
+        create(user, TokenDigests.sha256("token-" + System.nanoTime()));
+    }
+
+    /**
+     * Measures looking up an existing session, as done by every stateful token validation.
+     *
+     * @return the session found
+     */
+    @Benchmark
+    public Session find() {
+        int index = ThreadLocalRandom.current().nextInt(USERS);
+        long userId = users.get(index).getId();
+        byte[] tokenHash = tokenHashes.get(index);
+        return inTransaction(() -> sessionStore.find(tokenHash, userId).orElseThrow());
+    }
+
+    private void create(User user, byte[] tokenHash) {
+        Session session = new Session(tokenHash, new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)), user,
+                SessionStatus.ACTIVE);
+        inTransaction(() -> {
+            sessionStore.create(session);
+            return null;
+        });
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate == null ? action.get() : transactionTemplate.execute(status -> action.get());
+    }
+
+    /**
+     * Bootstraps Hibernate for the application entities on H2, with the Spring bean container that the
+     * Snowflake ID generator needs.
+     *
+     * @return the entity manager factory
+     */
+    private EntityManagerFactory createEntityManagerFactory() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:sessions;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1", true);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("snowflakeIdAllocator", new SnowflakeIdAllocator(0));
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.ecommerce.userservice.models");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.physical_naming_strategy", new CamelCaseToUnderscoresNamingStrategy(),
+                "hibernate.resource.beans.container", new SpringBeanContainer(beanFactory)));
+        entityManagerFactoryBean.afterPropertiesSet();
+        return entityManagerFactoryBean.getObject();
+    }
+}
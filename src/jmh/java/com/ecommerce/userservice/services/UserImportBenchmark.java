@@ -0,0 +1,100 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.models.SnowflakeIdAllocator;
+import com.ecommerce.userservice.security.UserImportProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the bulk user import against an in-memory H2 database in MySQL mode.
+ * Scores are records per second. With {@code preHashed} the passwords are BCrypt hashes that are stored as they
+ * are, which measures parsing and the batched inserts; otherwise plain-text passwords are hashed at strength 4,
+ * so the result shows the pipeline overhead rather than the BCrypt cost of the production strength.
+ *
+ * @author mahip.bhatt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(UserImportBenchmark.RECORDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class UserImportBenchmark {
+
+    static final int RECORDS = 10_000;
+
+    @Param({"true", "false"})
+    public boolean preHashed;
+
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private UserImportService userImportService;
+    private byte[] input;
+
+    /**
+     * Creates the schema and the NDJSON input.
+     */
+    @Setup
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:import;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1", true);
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        jdbcTemplate.getJdbcOperations().execute("create table if not exists user "
+                + "(id bigint primary key, email varchar(255), password varchar(255))");
+        jdbcTemplate.getJdbcOperations().execute("create unique index if not exists uk_user_email on user (email)");
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+        userImportService = new UserImportService(encoder, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), new SnowflakeIdAllocator(0),
+                new ObjectMapper(), new UserImportProperties());
+
+        String hash = encoder.encode("secret");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < RECORDS; i++) {
+            ndjson.append("{\"email\":\"user").append(i).append("@example.com\",")
+                    .append(preHashed ? "\"passwordHash\":\"" + hash + "\"}" : "\"password\":\"secret\"}")
+                    .append('\n');
+        }
+        input = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Empties the table so that every invocation inserts all records.
+     */
+    @Setup(Level.Invocation)
+    public void truncate() {
+        jdbcTemplate.getJdbcOperations().execute("truncate table user");
+    }
+
+    /**
+     * Stops the hashing pool and drops the database.
+     */
+    @TearDown
+    public void tearDown() {
+        userImportService.shutdown();
+        jdbcTemplate.getJdbcOperations().execute("drop all objects");
+        dataSource.destroy();
+    }
+
+    /**
+     * Imports all records.
+     *
+     * @return the number of imported users
+     */
+    @Benchmark
+    public long importUsers() throws IOException {
+        return userImportService.importUsers(new ByteArrayInputStream(input), UserImportService.Format.NDJSON)
+                .getImported();
+    }
+}
@@ -2,6 +2,7 @@ package com.ecommerce.userservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Entry point for the User Service application.
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author mahip.bhatt
  */
 @SpringBootApplication
+@EnableScheduling
 public class UserServiceApplication {
 
     /**
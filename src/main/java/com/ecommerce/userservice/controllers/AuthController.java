@@ -4,15 +4,23 @@ import com.ecommerce.userservice.dtos.*;
 import com.ecommerce.userservice.models.SessionStatus;
 import com.ecommerce.userservice.services.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller for handling authentication-related operations.
- * Provides endpoints for login, logout, signup, and token validation.
+ * Provides endpoints for login, logout, signup, token validation and session management.
  *
  * @author mahip.bhatt
  */
@@ -35,11 +43,13 @@ public class AuthController {
     /**
      * Endpoint for user login.
      *
+     * The request thread is released while the password is verified.
+     *
      * @param request The login request containing email and password.
-     * @return ResponseEntity containing the user details and authentication token.
+     * @return future ResponseEntity containing the user details and authentication token.
      */
     @PostMapping("/login")
-    public ResponseEntity<UserDto> login(@RequestBody LoginRequestDto request) {
+    public CompletableFuture<ResponseEntity<UserDto>> login(@RequestBody LoginRequestDto request) {
         return authService.login(request.getEmail(), request.getPassword());
     }
 
@@ -54,6 +64,39 @@ public class AuthController {
         return authService.logout(request.getToken(), request.getUserId());
     }
 
+    /**
+     * Endpoint for listing a user's active sessions. Only the user themselves and administrators may call it.
+     *
+     * @param userId         The ID of the user.
+     * @param authentication The authenticated caller.
+     * @return ResponseEntity containing the user's active sessions, or 403 if the caller may not see them.
+     */
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionDto>> getSessions(@RequestParam("userId") Long userId,
+                                                        Authentication authentication) {
+        if (!authService.canManageSessions(authentication, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(authService.getActiveSessions(userId));
+    }
+
+    /**
+     * Endpoint for ending every active session of a user ("log out everywhere"). Only the user themselves and
+     * administrators may call it.
+     *
+     * @param userId         The ID of the user.
+     * @param authentication The authenticated caller.
+     * @return ResponseEntity containing the number of revoked session tokens, or 403 if the caller may not end them.
+     */
+    @DeleteMapping("/sessions")
+    public ResponseEntity<Integer> endAllSessions(@RequestParam("userId") Long userId,
+                                                  Authentication authentication) {
+        if (!authService.canManageSessions(authentication, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(authService.endAllSessions(userId));
+    }
+
     /**
      * Endpoint for user signup.
      *
@@ -1,14 +1,31 @@
 package com.ecommerce.userservice.controllers;
 
+import com.ecommerce.userservice.dtos.BulkSetUserRolesRequestDto;
 import com.ecommerce.userservice.dtos.SetUserRolesRequestDto;
 import com.ecommerce.userservice.dtos.UserDto;
+import com.ecommerce.userservice.dtos.UserImportResultDto;
+import com.ecommerce.userservice.dtos.UserLookupRequestDto;
+import com.ecommerce.userservice.dtos.UserRolesResultDto;
+import com.ecommerce.userservice.services.BulkUserRoleService;
+import com.ecommerce.userservice.services.UserImportService;
 import com.ecommerce.userservice.services.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
  * Controller for managing user-related operations.
- * Provides endpoints for retrieving user details and setting user roles.
+ * Provides endpoints for retrieving user details (singly or in bulk), setting user roles and importing users.
  *
  * @author mahip.bhatt
  */
@@ -16,16 +33,64 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/users")
 public class UserController {
 
+    /**
+     * Maximum number of IDs accepted by the bulk lookup and bulk role endpoints.
+     */
+    static final int MAX_BULK_IDS = 5_000;
+
     private final UserService userService;
+    private final BulkUserRoleService bulkUserRoleService;
+    private final UserImportService userImportService;
+    private final ObjectWriter userWriter;
 
     /**
      * Constructor for UserController.
      * Initializes the UserService dependency.
      *
-     * @param userService The service for user-related operations.
+     * @param userService         The service for user-related operations.
+     * @param bulkUserRoleService The service for bulk role assignments.
+     * @param userImportService   The service for bulk user imports.
+     * @param objectMapper        The mapper used to stream bulk lookup results.
      */
-    public UserController(UserService userService) {
+    public UserController(UserService userService, BulkUserRoleService bulkUserRoleService,
+                          UserImportService userImportService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.bulkUserRoleService = bulkUserRoleService;
+        this.userImportService = userImportService;
+        // Let the servlet response buffer decide when to flush instead of flushing after every user
+        this.userWriter = objectMapper.writerFor(UserDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Endpoint to retrieve the details of many users at once.
+     * Users are loaded in a few batched queries and written to the response as a JSON array while they are
+     * loaded, so the full result is never held in memory. Unknown IDs are skipped.
+     * The IDs are taken from the request body because {@value #MAX_BULK_IDS} of them would not fit in a query string.
+     *
+     * @param request The IDs of the users, at most {@value #MAX_BULK_IDS}.
+     * @return ResponseEntity streaming the user details, or 400 if no or too many IDs are requested.
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<StreamingResponseBody> getUsers(@RequestBody UserLookupRequestDto request) {
+        List<Long> userIds = request.getIds();
+        if (userIds == null || userIds.size() > MAX_BULK_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = userWriter.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                userService.forEachUserDetails(userIds, userDto -> {
+                    try {
+                        userWriter.writeValue(generator, userDto);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
@@ -52,4 +117,54 @@ public class UserController {
         UserDto userDto = userService.setUserRoles(userId, request.getRoleIds());
         return ResponseEntity.ok(userDto);
     }
-}
\ No newline at end of file
+
+    /**
+     * Endpoint to replace the roles of many users at once.
+     *
+     * @param request The request mapping each user ID to the role IDs that user should have, for at most
+     *                {@value #MAX_BULK_IDS} users.
+     * @return ResponseEntity containing one result per user, or 400 if the map is missing or too large.
+     */
+    @PostMapping("/roles")
+    public ResponseEntity<List<UserRolesResultDto>> setUserRoles(@RequestBody BulkSetUserRolesRequestDto request) {
+        if (request.getRoleIdsByUserId() == null || request.getRoleIdsByUserId().size() > MAX_BULK_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bulkUserRoleService.setUserRoles(request.getRoleIdsByUserId()));
+    }
+
+    /**
+     * Endpoint to import users from a CSV file with a header row ({@code email,password} or
+     * {@code email,password_hash}). The request body is streamed, so files of any size can be sent.
+     *
+     * @param body The CSV request body.
+     * @return ResponseEntity containing the import counts and throughput, or 400 if the header row is unusable.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportResultDto> importUsersCsv(InputStream body) throws IOException {
+        return importUsers(body, UserImportService.Format.CSV);
+    }
+
+    /**
+     * Endpoint to import users from newline-delimited JSON, one {@code {"email": ..., "password": ...}} or
+     * {@code {"email": ..., "passwordHash": ...}} object per line. The request body is streamed.
+     *
+     * @param body The NDJSON request body.
+     * @return ResponseEntity containing the import counts and throughput.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<UserImportResultDto> importUsersNdjson(InputStream body) throws IOException {
+        return importUsers(body, UserImportService.Format.NDJSON);
+    }
+
+    private ResponseEntity<UserImportResultDto> importUsers(InputStream body, UserImportService.Format format)
+            throws IOException {
+        try {
+            return ResponseEntity.ok(userImportService.importUsers(body, format));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
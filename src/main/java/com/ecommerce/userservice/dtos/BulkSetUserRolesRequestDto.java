@@ -0,0 +1,27 @@
+package com.ecommerce.userservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for setting the roles of many users at once.
+ * Maps each user ID to the complete list of role IDs that user should have.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkSetUserRolesRequestDto {
+
+    /**
+     * The role IDs to assign, keyed by user ID. Each list replaces the user's current roles.
+     */
+    private Map<Long, List<Long>> roleIdsByUserId;
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.userservice.dtos;
+
+import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.models.SessionStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object describing a login session.
+ * The session token itself is deliberately not exposed.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionDto {
+
+    /**
+     * The ID of the session, serialized as a JSON string, or null for sessions that are not stored in the database.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
+    /**
+     * The expiration date and time of the session.
+     */
+    private Date expiringAt;
+
+    /**
+     * The status of the session.
+     */
+    private SessionStatus sessionStatus;
+
+    /**
+     * Converts a {@link Session} entity to a {@link SessionDto}.
+     *
+     * @param session The {@link Session} entity to be converted.
+     * @return A {@link SessionDto} containing the session's details.
+     */
+    public static SessionDto from(Session session) {
+        return new SessionDto(session.getId(), session.getExpiringAt(), session.getSessionStatus());
+    }
+}
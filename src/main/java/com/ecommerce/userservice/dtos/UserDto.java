@@ -2,6 +2,7 @@ package com.ecommerce.userservice.dtos;
 
 import com.ecommerce.userservice.models.Role;
 import com.ecommerce.userservice.models.User;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,7 +13,7 @@ import java.util.Set;
 
 /**
  * Data Transfer Object for user details.
- * Contains the user's email and associated roles.
+ * Contains the user's ID, email and associated roles.
  *
  * @author mahip.bhatt
  */
@@ -22,6 +23,12 @@ import java.util.Set;
 @NoArgsConstructor
 public class UserDto {
 
+    /**
+     * The ID of the user, serialized as a JSON string.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
     /**
      * The email address of the user.
      */
@@ -32,6 +39,17 @@ public class UserDto {
      */
     private Set<Role> roles = new HashSet<>();
 
+    /**
+     * Constructs a {@link UserDto} without an ID.
+     *
+     * @param email The email address of the user.
+     * @param roles The set of roles assigned to the user.
+     */
+    public UserDto(String email, Set<Role> roles) {
+        this.email = email;
+        this.roles = roles;
+    }
+
     /**
      * Converts a {@link User} entity to a {@link UserDto}.
      *
@@ -40,6 +58,7 @@ public class UserDto {
      */
     public static UserDto from(User user) {
         UserDto userDto = new UserDto();
+        userDto.setId(user.getId());
         userDto.setEmail(user.getEmail());
         userDto.setRoles(user.getRoles());
 
@@ -0,0 +1,51 @@
+package com.ecommerce.userservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object describing the outcome of a bulk user import.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResultDto {
+
+    /**
+     * The number of users inserted.
+     */
+    private long imported;
+
+    /**
+     * The number of records skipped because a user with the same email already exists.
+     */
+    private long skipped;
+
+    /**
+     * The number of records rejected as invalid.
+     */
+    private long rejected;
+
+    /**
+     * The wall-clock time of the import, in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * The number of records processed per second.
+     */
+    private double recordsPerSecond;
+
+    /**
+     * The reasons for the first rejected records, prefixed with their line numbers.
+     */
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.userservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for looking up many users at once.
+ * Carries the IDs in the request body, as a few thousand IDs do not fit in a request line.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserLookupRequestDto {
+
+    /**
+     * The IDs of the users to look up.
+     */
+    private List<Long> ids;
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.userservice.dtos;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object describing the outcome of a bulk role assignment for one user.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRolesResultDto {
+
+    /**
+     * The ID of the user, serialized as a JSON string.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long userId;
+
+    /**
+     * What happened to the user's roles.
+     */
+    private Status status;
+
+    /**
+     * The number of roles granted.
+     */
+    private int rolesAdded;
+
+    /**
+     * The number of roles revoked.
+     */
+    private int rolesRemoved;
+
+    /**
+     * Outcome of a role assignment.
+     */
+    public enum Status {
+        UPDATED,
+        UNCHANGED,
+        USER_NOT_FOUND
+    }
+}
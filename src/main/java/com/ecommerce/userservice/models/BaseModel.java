@@ -1,7 +1,6 @@
 package com.ecommerce.userservice.models;
 
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
@@ -19,9 +18,11 @@ public abstract class BaseModel {
 
     /**
      * The unique identifier for the entity.
+     * Serialized as a JSON string, as IDs exceed the integers JavaScript numbers represent exactly.
      */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     /**
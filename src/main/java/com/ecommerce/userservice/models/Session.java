@@ -1,13 +1,18 @@
 package com.ecommerce.userservice.models;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.util.Date;
 
@@ -18,6 +23,11 @@ import java.util.Date;
  * @author mahip.bhatt
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_session_token_hash", columnList = "token_hash"),
+        @Index(name = "idx_session_expiring_at", columnList = "expiring_at"),
+        @Index(name = "idx_session_user_status", columnList = "user_id, session_status")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -25,9 +35,12 @@ import java.util.Date;
 public class Session extends BaseModel {
 
     /**
-     * The token associated with the session.
+     * The SHA-256 digest of the session token.
+     * Only the digest is stored, which keeps the row and its index narrow and the lookup a fixed-size point query.
      */
-    private String token;
+    @Column(name = "token_hash", length = 32)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    private byte[] tokenHash;
 
     /**
      * The expiration date and time of the session.
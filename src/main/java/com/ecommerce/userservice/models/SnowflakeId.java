@@ -0,0 +1,20 @@
+package com.ecommerce.userservice.models;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity ID that is assigned by the {@link SnowflakeIdAllocator} before the insert.
+ * Unlike {@code GenerationType.IDENTITY}, this lets Hibernate batch the inserts of new entities.
+ *
+ * @author mahip.bhatt
+ */
+@IdGeneratorType(SnowflakeIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.userservice.models;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Allocator of time-ordered 64-bit IDs that are unique across nodes without any database round-trip.
+ * An ID is made of 41 bits of milliseconds since {@link #EPOCH}, a 10-bit node ID and a 12-bit sequence,
+ * so each node can hand out 4096 IDs per millisecond for about 69 years. Every node must be configured
+ * with a distinct node ID.
+ * <p>
+ * The timestamp never moves backwards: if the clock steps back, or the sequence of the current millisecond
+ * is exhausted, IDs continue from the last timestamp used instead of blocking.
+ *
+ * @author mahip.bhatt
+ */
+public class SnowflakeIdAllocator {
+
+    /**
+     * The instant IDs count their timestamp from.
+     */
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+
+    /**
+     * The largest valid node ID.
+     */
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final long node;
+    private final LongSupplier clock;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    /**
+     * Constructor for SnowflakeIdAllocator.
+     *
+     * @param nodeId the ID of this node, between 0 and {@value #MAX_NODE_ID}
+     */
+    public SnowflakeIdAllocator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor for SnowflakeIdAllocator with a custom clock.
+     *
+     * @param nodeId the ID of this node, between 0 and {@value #MAX_NODE_ID}
+     * @param clock  the source of the current time in epoch milliseconds
+     */
+    SnowflakeIdAllocator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * Allocates the next ID. IDs allocated by one allocator are strictly increasing.
+     *
+     * @return the ID
+     */
+    public synchronized long nextId() {
+        long timestamp = Math.max(clock.getAsLong() - epochMillis, lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // Sequence exhausted for this millisecond; borrow the next one
+                timestamp++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return timestamp << (NODE_BITS + SEQUENCE_BITS) | node | sequence;
+    }
+}
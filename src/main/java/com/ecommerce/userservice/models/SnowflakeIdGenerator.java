@@ -0,0 +1,43 @@
+package com.ecommerce.userservice.models;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate generator behind {@link SnowflakeId}.
+ * With {@code hibernate.cdi.extensions} enabled (set in {@code application.properties}), Hibernate creates the
+ * generator through its bean container, which Spring Boot backs with the application context. The application's
+ * {@link SnowflakeIdAllocator} bean is injected here, so entities share one allocator (and one node ID) with the
+ * JDBC-based bulk writers. Without that setting Hibernate would instantiate the generator reflectively and fail,
+ * as there is no constructor it can call.
+ *
+ * @author mahip.bhatt
+ */
+public class SnowflakeIdGenerator implements BeforeExecutionGenerator {
+
+    private final SnowflakeIdAllocator allocator;
+
+    /**
+     * Constructor for SnowflakeIdGenerator.
+     *
+     * @param allocator the shared ID allocator
+     */
+    public SnowflakeIdGenerator(SnowflakeIdAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return allocator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
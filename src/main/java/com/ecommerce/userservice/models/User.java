@@ -16,6 +16,7 @@ import java.util.Set;
  * @author mahip.bhatt
  */
 @Entity
+@Table(indexes = @Index(name = "uk_user_email", columnList = "email", unique = true))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -23,7 +24,7 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     private String email;
@@ -1,8 +1,16 @@
 package com.ecommerce.userservice.repositories;
 
 import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.models.SessionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,11 +22,84 @@ import java.util.Optional;
 public interface SessionRepository extends JpaRepository<Session, Long> {
 
     /**
-     * Retrieves a session by its token and the associated user's ID.
+     * Retrieves a session by the digest of its token and the associated user's ID.
      *
-     * @param token  the session token
-     * @param userId the ID of the associated user
+     * @param tokenHash the SHA-256 digest of the session token
+     * @param userId    the ID of the associated user
      * @return an {@link Optional} containing the matching {@link Session}, if found
      */
-    Optional<Session> findByTokenAndUser_Id(String token, Long userId);
-}
\ No newline at end of file
+    @Query("select s from Session s where s.tokenHash = :tokenHash and s.user.id = :userId")
+    Optional<Session> findByTokenHashAndUser_Id(@Param("tokenHash") byte[] tokenHash, @Param("userId") Long userId);
+
+    /**
+     * Retrieves the sessions of a user in the given status that have not yet expired.
+     * Served by the {@code (user_id, session_status)} index.
+     *
+     * @param userId the ID of the user
+     * @param status the session status
+     * @param now    the current time
+     * @return the matching sessions
+     */
+    @Query("select s from Session s where s.user.id = :userId and s.sessionStatus = :status and s.expiringAt > :now")
+    List<Session> findByUserIdAndSessionStatus(@Param("userId") Long userId, @Param("status") SessionStatus status,
+                                               @Param("now") Date now);
+
+    /**
+     * Retrieves the token digests of a user's sessions in the given status that have not yet expired.
+     *
+     * @param userId the ID of the user
+     * @param status the session status
+     * @param now    the current time
+     * @return the matching token digests
+     */
+    @Query("select s.tokenHash from Session s where s.user.id = :userId and s.sessionStatus = :status and s.expiringAt > :now")
+    List<byte[]> findTokenHashesByUserIdAndSessionStatus(@Param("userId") Long userId,
+                                                         @Param("status") SessionStatus status, @Param("now") Date now);
+
+    /**
+     * Moves every session of a user from one status to another in a single statement.
+     *
+     * @param userId the ID of the user
+     * @param from   the current session status
+     * @param to     the new session status
+     * @return the number of updated sessions
+     */
+    @Modifying
+    @Transactional
+    @Query("update Session s set s.sessionStatus = :to where s.user.id = :userId and s.sessionStatus = :from")
+    int updateSessionStatusByUserId(@Param("userId") Long userId, @Param("from") SessionStatus from,
+                                    @Param("to") SessionStatus to);
+
+    /**
+     * Retrieves the token digests of sessions in the given status that have not yet expired.
+     *
+     * @param status the session status
+     * @param now    the current time
+     * @return the matching token digests
+     */
+    @Query("select s.tokenHash from Session s where s.sessionStatus = :status and s.expiringAt > :now")
+    List<byte[]> findTokenHashesBySessionStatusAndExpiringAtAfter(@Param("status") SessionStatus status, @Param("now") Date now);
+
+    /**
+     * Retrieves the IDs of sessions that expired before the given time, and of sessions without an expiry.
+     * The latter were written before sessions had one and can no longer be validated. Both conditions are served
+     * by the index on {@code expiring_at}.
+     *
+     * @param now      the current time
+     * @param pageable the maximum number of IDs to return
+     * @return the IDs of the expired sessions
+     */
+    @Query("select s.id from Session s where s.expiringAt < :now or s.expiringAt is null")
+    List<Long> findIdsByExpiringAtBeforeOrNull(@Param("now") Date now, Pageable pageable);
+
+    /**
+     * Deletes the sessions with the given IDs in a single statement.
+     *
+     * @param ids the session IDs
+     * @return the number of deleted sessions
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from Session s where s.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+}
@@ -2,7 +2,11 @@ package com.ecommerce.userservice.repositories;
 
 import com.ecommerce.userservice.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +24,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return an {@link Optional} containing the matching {@link User}, if found
      */
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the users with the given IDs, fetching their roles in the same query.
+     *
+     * @param ids the user IDs
+     * @return the matching users; IDs without a user are skipped
+     */
+    @Query("select distinct u from User u left join fetch u.roles where u.id in :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+}
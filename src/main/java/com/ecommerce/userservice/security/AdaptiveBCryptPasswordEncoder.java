@@ -0,0 +1,100 @@
+package com.ecommerce.userservice.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BCryptPasswordEncoder} whose strength is calibrated to the hardware it runs on.
+ * {@link #upgradeEncoding(String)} reports every stored hash weaker than the current strength, so hashes are
+ * strengthened on the next successful login without a mass migration. Stronger hashes are left alone: calibration
+ * times a single hash at startup, so nodes and restarts can land on different strengths, and rehashing in both
+ * directions would rewrite hashes back and forth on nearly every login. Pin {@code auth.password.strength} when
+ * running more than one node.
+ *
+ * @author mahip.bhatt
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    /**
+     * Constructor for AdaptiveBCryptPasswordEncoder.
+     *
+     * @param strength the BCrypt log rounds used for new hashes
+     */
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Creates an encoder for the given configuration: with the fixed strength if one is set, otherwise calibrated to
+     * the target hash time if one is set, otherwise with the minimum strength.
+     *
+     * @param properties the password hashing configuration
+     * @return the encoder
+     */
+    public static AdaptiveBCryptPasswordEncoder create(PasswordHashingProperties properties) {
+        if (properties.getStrength() != null) {
+            return new AdaptiveBCryptPasswordEncoder(properties.getStrength());
+        }
+        if (properties.getTargetHashTime() == null) {
+            return new AdaptiveBCryptPasswordEncoder(properties.getMinStrength());
+        }
+        return new AdaptiveBCryptPasswordEncoder(
+                calibrate(properties.getTargetHashTime(), properties.getMinStrength(), properties.getMaxStrength()));
+    }
+
+    /**
+     * Finds the highest BCrypt strength whose hashing time stays within the target.
+     * One hash is timed at the minimum strength; every additional round doubles the cost.
+     *
+     * @param target      the hashing time budget
+     * @param minStrength the lowest strength to return
+     * @param maxStrength the highest strength to return
+     * @return the calibrated strength
+     */
+    static int calibrate(Duration target, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        int strength = minStrength;
+        while (strength < maxStrength && elapsed * 2 <= target.toNanos()) {
+            elapsed *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    /**
+     * Gets the BCrypt strength used for new hashes.
+     *
+     * @return the strength
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Checks whether a stored hash was created with a lower strength than the current one.
+     *
+     * @param encodedPassword the stored hash
+     * @return {@code true} if the password should be re-encoded
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(2)) < strength;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for coalescing concurrent OAuth2 authorization saves into batches.
+ * Bound from the {@code security.authorization-batch.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.authorization-batch")
+public class AuthorizationBatchProperties {
+
+    /**
+     * Whether saves issued within {@link #window} of each other are written in one transaction. Each caller still
+     * returns only once its own authorization is committed, but waits up to one window longer.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long the first save of a batch waits for others to join it.
+     */
+    private Duration window = Duration.ofMillis(2);
+
+    /**
+     * Maximum number of authorizations written in one transaction. A full batch is written without waiting for the
+     * window to end. Best kept at a multiple of {@code hibernate.jdbc.batch_size}.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Maximum number of saves waiting for a batch. When full, saves are written on the calling thread.
+     */
+    private int queueCapacity = 10_000;
+}
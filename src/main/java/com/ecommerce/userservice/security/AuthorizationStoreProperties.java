@@ -0,0 +1,61 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for where OAuth2 authorizations are stored.
+ * Bound from the {@code security.authorization-store.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.authorization-store")
+public class AuthorizationStoreProperties {
+
+    /**
+     * Where authorizations are kept.
+     */
+    private Type type = Type.JPA;
+
+    /**
+     * Path of the memory-mapped file of the memory store. Replaced on every start.
+     */
+    private String location = "data/authorizations.bin";
+
+    /**
+     * Number of slots in the memory store. Each authorization takes two: one keyed by its access token and one
+     * by its ID.
+     */
+    private int capacity = 262_144;
+
+    /**
+     * Size of one slot of the memory store in bytes. Authorizations that do not fit are stored in the database.
+     */
+    private int slotSize = 1_024;
+
+    /**
+     * Number of independently locked partitions of the memory store. Rounded up to a power of two.
+     */
+    private int stripes = 64;
+
+    /**
+     * Authorization store implementation.
+     */
+    public enum Type {
+        /**
+         * Every authorization is kept in the {@code authorization} table and shared by all nodes.
+         */
+        JPA,
+        /**
+         * Authorizations that hold nothing but an access token, such as client-credentials grants, are kept
+         * off-heap on this node only until the token expires, and are lost on restart. Clients configured for
+         * reference access tokens get opaque tokens whose introspection is served from there. Everything else, including
+         * every authorization with a refresh token, is kept in the {@code authorization} table. For single-node
+         * deployments, or when tokens are introspected and revoked on the node that issued them.
+         */
+        MEMORY
+    }
+}
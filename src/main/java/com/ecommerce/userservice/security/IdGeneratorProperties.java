@@ -0,0 +1,23 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for entity ID allocation.
+ * Bound from the {@code ids.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ids")
+public class IdGeneratorProperties {
+
+    /**
+     * ID of this node, between 0 and 1023. Must be different on every node writing to the same database.
+     * Has no default; the application does not start without it.
+     */
+    private Integer nodeId;
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the keys that sign OAuth2 access and ID tokens.
+ * Bound from the {@code security.jwk.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.jwk")
+public class JwkProperties {
+
+    /**
+     * Path of the key file: a JWK set in JSON, or a PKCS#12 key store when the name ends in {@code .p12} or
+     * {@code .pfx}. Every node must read the same keys, for example from a mounted secret.
+     */
+    private String location = "config/jwks.json";
+
+    /**
+     * Password of a PKCS#12 key store and of the keys in it.
+     */
+    private String keyStorePassword;
+
+    /**
+     * Key ID of the key that signs new tokens. When empty, the first private key in the file is used.
+     * All keys in the file are published, so a new key can be added first and activated once every node has it.
+     */
+    private String activeKeyId;
+
+    /**
+     * Algorithm that access and ID tokens are signed with. The active key must be able to sign with it: an RSA key
+     * for {@code RS*} and {@code PS*}, an EC key on the matching curve for {@code ES*}. ES256 signs faster than RS256
+     * but verifies much slower, and every client that verifies tokens has to support it; see
+     * {@code SigningAlgorithmBenchmark}.
+     */
+    private SignatureAlgorithm algorithm = SignatureAlgorithm.RS256;
+
+    /**
+     * Whether to generate a key for {@link #algorithm} and write it to {@link #location} when the file does not exist.
+     * Only applies to JWK set files.
+     */
+    private boolean generateIfMissing = true;
+
+    /**
+     * How long clients may cache the {@code /oauth2/jwks} response.
+     */
+    private Duration jwkSetMaxAge = Duration.ofMinutes(5);
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.userservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Serves {@code GET /oauth2/jwks} from the JWK set serialized once at startup.
+ * Registered ahead of the security filter chain, so the public keys are returned without a security context,
+ * a {@code JWKSource} lookup or JSON serialization per request. Clients may cache the response.
+ *
+ * @author mahip.bhatt
+ */
+public class JwkSetEndpointFilter extends OncePerRequestFilter {
+
+    /**
+     * The path of the JWK set endpoint.
+     */
+    public static final String JWK_SET_PATH = "/oauth2/jwks";
+
+    private final byte[] jwkSetJson;
+    private final String cacheControl;
+
+    /**
+     * Constructor for JwkSetEndpointFilter.
+     *
+     * @param signingKeys the keys whose public parts are served
+     * @param maxAge      how long clients may cache the response
+     */
+    public JwkSetEndpointFilter(SigningKeys signingKeys, Duration maxAge) {
+        this.jwkSetJson = signingKeys.getPublicJwkSetJson();
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().getHeaderValue();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !JWK_SET_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(jwkSetJson.length);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.getOutputStream().write(jwkSetJson);
+    }
+}
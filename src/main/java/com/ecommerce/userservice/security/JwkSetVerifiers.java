@@ -0,0 +1,145 @@
+package com.ecommerce.userservice.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.security.Key;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Verifies JWS signatures against a fixed JWK set, with one verifier built per key up front.
+ * The key is looked up by the {@code kid} header in a map instead of matching the whole set, and the verifier
+ * for it is reused instead of created per token, so verifying a token does no I/O and no key parsing.
+ * The key set is fixed for the lifetime of the instance; the signing keys only change on restart.
+ *
+ * @author mahip.bhatt
+ */
+public final class JwkSetVerifiers implements JWSKeySelector<SecurityContext>, JWSVerifierFactory {
+
+    private final Map<String, VerificationKey> keysById = new HashMap<>();
+    private final Map<Key, JWSVerifier> verifiersByKey = new IdentityHashMap<>();
+    private final Set<JWSAlgorithm> supportedAlgorithms = new HashSet<>();
+    private final VerificationKey onlyKey;
+    private final JCAContext jcaContext = new JCAContext();
+
+    /**
+     * Constructor for JwkSetVerifiers.
+     *
+     * @param jwkSet the public keys; keys of types other than RSA and EC are ignored
+     * @throws JOSEException if a key cannot be converted
+     */
+    public JwkSetVerifiers(JWKSet jwkSet) throws JOSEException {
+        VerificationKey last = null;
+        for (JWK jwk : jwkSet.getKeys()) {
+            VerificationKey key = toVerificationKey(jwk);
+            if (key == null) {
+                continue;
+            }
+            keysById.put(jwk.getKeyID(), key);
+            verifiersByKey.put(key.key(), key.verifier());
+            supportedAlgorithms.addAll(key.verifier().supportedJWSAlgorithms());
+            last = key;
+        }
+        this.onlyKey = verifiersByKey.size() == 1 ? last : null;
+    }
+
+    /**
+     * Creates a {@link JwtDecoder} that verifies tokens against the given keys without fetching them.
+     * Claims are validated by Spring's default validators, as with the decoders built by {@link NimbusJwtDecoder}.
+     *
+     * @param jwkSet the public keys
+     * @return the decoder
+     */
+    public static JwtDecoder jwtDecoder(JWKSet jwkSet) {
+        try {
+            JwkSetVerifiers verifiers = new JwkSetVerifiers(jwkSet);
+            DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+            jwtProcessor.setJWSKeySelector(verifiers);
+            jwtProcessor.setJWSVerifierFactory(verifiers);
+            jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+            });
+            return new NimbusJwtDecoder(jwtProcessor);
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Failed to build verifiers for the signing keys", ex);
+        }
+    }
+
+    @Override
+    public List<? extends Key> selectJWSKeys(JWSHeader header, SecurityContext context) {
+        VerificationKey key = header.getKeyID() != null ? keysById.get(header.getKeyID()) : onlyKey;
+        if (key == null || !key.accepts(header.getAlgorithm())) {
+            return Collections.emptyList();
+        }
+        return List.of(key.key());
+    }
+
+    @Override
+    public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+        JWSVerifier verifier = verifiersByKey.get(key);
+        if (verifier == null) {
+            throw new JOSEException("No verifier for the selected key");
+        }
+        return verifier;
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Collections.unmodifiableSet(supportedAlgorithms);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+
+    private static VerificationKey toVerificationKey(JWK jwk) throws JOSEException {
+        JWSAlgorithm algorithm = jwk.getAlgorithm() != null ? JWSAlgorithm.parse(jwk.getAlgorithm().getName()) : null;
+        if (jwk instanceof RSAKey rsaKey) {
+            RSAPublicKey key = rsaKey.toRSAPublicKey();
+            return new VerificationKey(key, new RSASSAVerifier(key), algorithm);
+        }
+        if (jwk instanceof ECKey ecKey) {
+            ECPublicKey key = ecKey.toECPublicKey();
+            return new VerificationKey(key, new ECDSAVerifier(key), algorithm);
+        }
+        return null;
+    }
+
+    /**
+     * A public key with its verifier.
+     *
+     * @param key       the public key
+     * @param verifier  the verifier for the key
+     * @param algorithm the algorithm the key is restricted to, or null if it is not restricted
+     */
+    private record VerificationKey(Key key, JWSVerifier verifier, JWSAlgorithm algorithm) {
+
+        boolean accepts(JWSAlgorithm headerAlgorithm) {
+            return (algorithm == null || algorithm.equals(headerAlgorithm))
+                    && verifier.supportedJWSAlgorithms().contains(headerAlgorithm);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the session tokens issued by {@code AuthService}.
+ * Bound from the {@code auth.jwt.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.jwt")
+public class JwtProperties {
+
+    /**
+     * Base64-encoded HMAC-SHA256 key (at least 256 bits) used to sign and verify tokens.
+     * When empty, a random key is generated at startup and tokens do not survive a restart.
+     */
+    private String secret;
+
+    /**
+     * How long an issued token stays valid.
+     */
+    private Duration ttl = Duration.ofHours(1);
+
+    /**
+     * When enabled, validation trusts the token signature, expiry and user ID claim
+     * and only consults the session table when the revocation filter reports the token as possibly revoked.
+     * A token logged out on another node stays valid here until the next filter rebuild,
+     * i.e. for up to {@code auth.revocation.refresh-interval}.
+     */
+    private boolean statelessValidation = false;
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.userservice.security;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Shared pieces of the striped, linear-probing hash tables that keep sessions and tokens in memory: sizing the
+ * stripes, picking a stripe from a hash, and removing entries without tombstones. Each table keeps its own slot
+ * layout and exposes it through {@link Table}.
+ *
+ * @author mahip.bhatt
+ */
+public final class LinearProbing {
+
+    private LinearProbing() {
+    }
+
+    /**
+     * The slots of one linear-probing table, whose capacity is a power of two.
+     */
+    public interface Table {
+
+        /**
+         * Returns the number of slots.
+         *
+         * @return the capacity, a power of two
+         */
+        int capacity();
+
+        /**
+         * Tells whether a slot holds an entry.
+         *
+         * @param slot the slot
+         * @return {@code true} if the slot is in use
+         */
+        boolean isUsed(int slot);
+
+        /**
+         * Returns the slot the entry in a used slot hashes to, before probing.
+         *
+         * @param slot the used slot
+         * @return the home slot of its entry
+         */
+        int homeSlot(int slot);
+
+        /**
+         * Moves the entry of a used slot to an empty one, leaving the first slot empty.
+         *
+         * @param from the used slot
+         * @param to   the empty slot
+         */
+        void move(int from, int to);
+
+        /**
+         * Empties a slot.
+         *
+         * @param slot the slot
+         */
+        void clear(int slot);
+    }
+
+    /**
+     * Rounds a value up to a power of two.
+     *
+     * @param value the value
+     * @return the smallest power of two that is at least {@code value}, and at least 1
+     */
+    public static int ceilPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Returns the shift that turns a 64-bit hash into a stripe index through {@link #stripeIndex}.
+     *
+     * @param stripeCount the number of stripes, a power of two
+     * @return the shift
+     */
+    public static int stripeShift(int stripeCount) {
+        return 64 - Integer.numberOfTrailingZeros(stripeCount);
+    }
+
+    /**
+     * Selects a stripe from the high bits of a hash, leaving the low bits to pick the slot within the stripe.
+     *
+     * @param hash        the well-mixed 64-bit hash
+     * @param stripeShift the shift from {@link #stripeShift}
+     * @return the stripe index
+     */
+    public static int stripeIndex(long hash, int stripeShift) {
+        // A shift by 64 is a shift by 0 in Java, so a single stripe needs its own case
+        return stripeShift == 64 ? 0 : (int) (hash >>> stripeShift);
+    }
+
+    /**
+     * Empties a slot and shifts later entries of the same probe run back, so lookups never stop early.
+     *
+     * @param table the table
+     * @param slot  the used slot to empty
+     * @return {@code true} if another entry was moved into the slot
+     */
+    public static boolean removeSlot(Table table, int slot) {
+        int mask = table.capacity() - 1;
+        int hole = slot;
+        table.clear(hole);
+        boolean refilled = false;
+        for (int next = (hole + 1) & mask; table.isUsed(next); next = (next + 1) & mask) {
+            int home = table.homeSlot(next);
+            // The entry may move into the hole if the hole lies on its probe path from home
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table.move(next, hole);
+                refilled |= hole == slot;
+                hole = next;
+            }
+        }
+        return refilled;
+    }
+
+    /**
+     * Removes every entry the predicate selects, in one pass over the table. The predicate may be tested more than
+     * once for an entry that is moved while the pass runs, so it must not count on being called once per entry.
+     *
+     * @param table  the table
+     * @param remove selects the used slots to empty
+     * @return the number of entries removed
+     */
+    public static int removeIf(Table table, IntPredicate remove) {
+        int removed = 0;
+        int slot = 0;
+        while (slot < table.capacity()) {
+            if (table.isUsed(slot) && remove.test(slot)) {
+                removed++;
+                if (removeSlot(table, slot)) {
+                    // An entry from further along was shifted into this slot; look at it again
+                    continue;
+                }
+            }
+            slot++;
+        }
+        return removed;
+    }
+}
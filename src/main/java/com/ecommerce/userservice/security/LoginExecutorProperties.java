@@ -0,0 +1,34 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the dedicated pool that verifies login passwords.
+ * Bound from the {@code auth.login.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.login")
+public class LoginExecutorProperties {
+
+    /**
+     * Number of verification threads. Zero or less uses one thread per available core.
+     */
+    private int threads = 0;
+
+    /**
+     * Maximum number of logins waiting for a verification thread. Further logins are rejected with 429.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Value of the {@code Retry-After} header sent with a rejected login.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for password hashing.
+ * Bound from the {@code auth.password.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.password")
+public class PasswordHashingProperties {
+
+    /**
+     * Time one password hash should take on this hardware. When set, the BCrypt strength is calibrated
+     * at startup to the highest cost that stays within this budget. Unset by default, so new hashes use
+     * {@link #minStrength}, the cost of the existing hashes, and logins do not rehash them to a higher cost.
+     */
+    private Duration targetHashTime;
+
+    /**
+     * Lowest BCrypt strength that calibration may pick, regardless of how slow the hardware is. Also the strength
+     * used when neither a fixed strength nor a target hash time is configured.
+     */
+    private int minStrength = 10;
+
+    /**
+     * Highest BCrypt strength that calibration may pick, regardless of how fast the hardware is.
+     */
+    private int maxStrength = 14;
+
+    /**
+     * Fixed BCrypt strength. When set, calibration is skipped.
+     */
+    private Integer strength;
+}
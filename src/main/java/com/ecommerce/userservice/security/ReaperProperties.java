@@ -0,0 +1,44 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the background reaper of expired authorizations and sessions.
+ * Bound from the {@code auth.reaper.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.reaper")
+public class ReaperProperties {
+
+    /**
+     * Whether the reaper is scheduled at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long to wait after one reaper run finishes before starting the next.
+     */
+    private Duration interval = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of rows deleted per statement. Keeps each delete transaction, and the locks it holds, short.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Pause between two batches, which bounds the delete rate to roughly {@code batchSize / batchPause}.
+     */
+    private Duration batchPause = Duration.ofMillis(200);
+
+    /**
+     * Maximum number of batches per table in one run. Whatever is left over is picked up by the next run.
+     */
+    private int maxBatchesPerRun = 100;
+}
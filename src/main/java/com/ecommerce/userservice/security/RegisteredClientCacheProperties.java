@@ -0,0 +1,29 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cache of built {@code RegisteredClient} objects.
+ * Bound from the {@code security.registered-client-cache.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.registered-client-cache")
+public class RegisteredClientCacheProperties {
+
+    /**
+     * Maximum number of clients kept per index (by ID and by client ID). Zero disables caching.
+     */
+    private long maximumSize = 1_000;
+
+    /**
+     * How long a cached client is served before it is reloaded from the database.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
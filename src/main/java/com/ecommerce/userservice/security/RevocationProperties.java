@@ -0,0 +1,35 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory filter of revoked session tokens.
+ * Bound from the {@code auth.revocation.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.revocation")
+public class RevocationProperties {
+
+    /**
+     * Number of revoked, not yet expired tokens the filter is sized for.
+     */
+    private int expectedInsertions = 100_000;
+
+    /**
+     * Target probability that a live token is reported as "maybe revoked" at the expected size.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * How often the filter is rebuilt from the session table. Rebuilding picks up logouts
+     * performed on other nodes and drops tokens that have expired since.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+}
@@ -1,33 +1,32 @@
 package com.ecommerce.userservice.security;
 
 import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 import org.springframework.security.web.util.matcher.MediaTypeRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-import java.util.UUID;
+import java.util.Set;
 
 /**
  * Security configuration class for setting up authorization server and default security filters.
@@ -44,13 +43,15 @@ public class SecurityConfig {
     /**
      * Configures the security filter chain for the authorization server.
      *
-     * @param http the {@link HttpSecurity} to configure
+     * @param http        the {@link HttpSecurity} to configure
+     * @param signingKeys the signing keys, whose algorithm is advertised in the OIDC provider metadata
      * @return the configured {@link SecurityFilterChain}
      * @throws Exception if an error occurs during configuration
      */
     @Bean
     @Order(1)
-    public SecurityFilterChain authorizationServerSecurityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain authorizationServerSecurityFilterChain(HttpSecurity http, SigningKeys signingKeys)
+            throws Exception {
         OAuth2AuthorizationServerConfigurer authorizationServerConfigurer = new OAuth2AuthorizationServerConfigurer();
 
         // Get the endpoints matcher before applying other configurations
@@ -70,7 +71,16 @@ public class SecurityConfig {
                 )
                 .csrf(csrf -> csrf.ignoringRequestMatchers(endpointsMatcher)) // Disable CSRF for OAuth endpoints
                 .with(authorizationServerConfigurer, oauth2 ->
-                        oauth2.oidc(Customizer.withDefaults()) // Enables OpenID Connect
+                        oauth2.oidc(oidc -> oidc // Enables OpenID Connect
+                                .providerConfigurationEndpoint(endpoint -> endpoint
+                                        .providerConfigurationCustomizer(metadata -> metadata
+                                                .idTokenSigningAlgorithms(algorithms -> {
+                                                    algorithms.clear();
+                                                    algorithms.add(signingKeys.getSignatureAlgorithm().getName());
+                                                })
+                                        )
+                                )
+                        )
                 )
                 .exceptionHandling(exceptions -> exceptions
                         .defaultAuthenticationEntryPointFor(
@@ -103,46 +113,57 @@ public class SecurityConfig {
     }
 
     /**
-     * Provides a JWK source for signing and verifying JWTs.
+     * Loads the keys that sign OAuth2 tokens from the configured key file.
+     *
+     * @param jwkProperties the key configuration
+     * @return the {@link SigningKeys}
+     */
+    @Bean
+    public SigningKeys signingKeys(JwkProperties jwkProperties) {
+        return SigningKeys.load(jwkProperties);
+    }
+
+    /**
+     * Provides the JWK source the authorization server signs JWTs with.
+     * It holds only the active key, so the signer never has to choose between keys; the other keys are
+     * published by {@link JwkSetEndpointFilter} for verification.
      *
+     * @param signingKeys the signing keys
      * @return the {@link JWKSource} for the security context
      */
     @Bean
-    public JWKSource<SecurityContext> jwkSource() {
-        KeyPair keyPair = generateRsaKey();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-        RSAKey rsaKey = new RSAKey.Builder(publicKey)
-                .privateKey(privateKey)
-                .keyID(UUID.randomUUID().toString())
-                .build();
-        JWKSet jwkSet = new JWKSet(rsaKey);
-        return new ImmutableJWKSet<>(jwkSet);
+    public JWKSource<SecurityContext> jwkSource(SigningKeys signingKeys) {
+        return new ImmutableJWKSet<>(new JWKSet(signingKeys.getActiveKey()));
     }
 
     /**
-     * Generates an RSA key pair for use in signing and verifying JWTs.
+     * Registers the filter that serves the pre-serialized public JWK set ahead of the security filter chain.
      *
-     * @return the generated {@link KeyPair}
+     * @param signingKeys   the signing keys
+     * @param jwkProperties the key configuration
+     * @return the filter registration
      */
-    private static KeyPair generateRsaKey() {
-        try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048);
-            return keyPairGenerator.generateKeyPair();
-        } catch (Exception ex) {
-            throw new IllegalStateException("Failed to generate RSA key pair", ex);
-        }
+    @Bean
+    public FilterRegistrationBean<JwkSetEndpointFilter> jwkSetEndpointFilter(SigningKeys signingKeys,
+                                                                             JwkProperties jwkProperties) {
+        FilterRegistrationBean<JwkSetEndpointFilter> registration = new FilterRegistrationBean<>(
+                new JwkSetEndpointFilter(signingKeys, jwkProperties.getJwkSetMaxAge()));
+        registration.addUrlPatterns(JwkSetEndpointFilter.JWK_SET_PATH);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
     }
 
     /**
      * Configures the JWT decoder for decoding JWTs.
+     * The decoder verifies against the public keys held in this process instead of fetching
+     * {@code /oauth2/jwks} over HTTP, so decoding a bearer token never does socket I/O.
      *
+     * @param signingKeys the signing keys
      * @return the configured {@link JwtDecoder}
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri("http://localhost:9000/oauth2/jwks").build();
+    public JwtDecoder jwtDecoder(SigningKeys signingKeys) {
+        return JwkSetVerifiers.jwtDecoder(signingKeys.getPublicJwkSet());
     }
 
     /**
@@ -156,4 +177,23 @@ public class SecurityConfig {
                 .issuer("http://localhost:9000")
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Signs issued JWTs with the configured algorithm instead of the authorization server's default RS256, and adds
+     * the authorities of the resource owner as a {@code roles} claim.
+     * Client-credentials tokens have no user authorities and get no {@code roles} claim.
+     *
+     * @param signingKeys the signing keys
+     * @return the {@link OAuth2TokenCustomizer} for JWT access and ID tokens
+     */
+    @Bean
+    public OAuth2TokenCustomizer<JwtEncodingContext> jwtTokenCustomizer(SigningKeys signingKeys) {
+        return context -> {
+            context.getJwsHeader().algorithm(signingKeys.getSignatureAlgorithm());
+            Set<String> roles = AuthorityUtils.authorityListToSet(context.getPrincipal().getAuthorities());
+            if (!roles.isEmpty()) {
+                context.getClaims().claim("roles", roles);
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for where and how login sessions are stored.
+ * Bound from the {@code auth.session.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "auth.session")
+public class SessionPersistenceProperties {
+
+    /**
+     * Where sessions are kept.
+     */
+    private Store store = Store.JPA;
+
+    /**
+     * Number of independently locked partitions of the in-memory store. Rounded up to a power of two.
+     */
+    private int memoryStripes = 64;
+
+    /**
+     * When a new session is written to the database. Only applies to the JPA store.
+     */
+    private Durability durability = Durability.SYNC;
+
+    /**
+     * Maximum time a write-behind session waits before it is flushed.
+     */
+    private Duration flushInterval = Duration.ofMillis(5);
+
+    /**
+     * Number of queued write-behind sessions that triggers an early flush, and the maximum size of one flush.
+     */
+    private int flushBatchSize = 500;
+
+    /**
+     * Maximum number of sessions waiting to be flushed. When full, sessions are saved synchronously.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Session store implementation.
+     */
+    public enum Store {
+        /**
+         * Sessions are kept in the {@code session} table and shared by all nodes.
+         */
+        JPA,
+        /**
+         * Sessions are kept in memory on this node only and are lost on restart. For single-node
+         * deployments and tests.
+         */
+        MEMORY
+    }
+
+    /**
+     * Durability of new sessions.
+     */
+    public enum Durability {
+        /**
+         * The session is committed before the login responds.
+         */
+        SYNC,
+        /**
+         * The login responds once the session is queued; sessions are inserted in batches shortly after.
+         * Sessions still queued when the process dies are lost and their holders must log in again.
+         */
+        WRITE_BEHIND
+    }
+}
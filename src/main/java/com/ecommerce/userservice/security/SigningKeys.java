@@ -0,0 +1,225 @@
+package com.ecommerce.userservice.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.JWKGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The keys that sign OAuth2 tokens, loaded once at startup from the file configured in {@link JwkProperties}.
+ * One key is active and signs new tokens with the configured algorithm; every key in the file is published in the
+ * public JWK set, so tokens signed by a key that is being rotated in or out still verify on every node.
+ *
+ * @author mahip.bhatt
+ */
+public final class SigningKeys {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeys.class);
+
+    private final JWK activeKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final JWKSet publicJwkSet;
+    private final byte[] publicJwkSetJson;
+
+    /**
+     * Constructor for SigningKeys that signs with RS256.
+     *
+     * @param jwkSet      the keys, including their private parts
+     * @param activeKeyId the key ID of the signing key, or null for the first private RSA key
+     */
+    public SigningKeys(JWKSet jwkSet, String activeKeyId) {
+        this(jwkSet, activeKeyId, SignatureAlgorithm.RS256);
+    }
+
+    /**
+     * Constructor for SigningKeys.
+     *
+     * @param jwkSet             the keys, including their private parts
+     * @param activeKeyId        the key ID of the signing key, or null for the first private key that can sign
+     *                           with {@code signatureAlgorithm}
+     * @param signatureAlgorithm the algorithm new tokens are signed with
+     */
+    public SigningKeys(JWKSet jwkSet, String activeKeyId, SignatureAlgorithm signatureAlgorithm) {
+        this.activeKey = selectActiveKey(jwkSet, activeKeyId, signatureAlgorithm);
+        this.signatureAlgorithm = signatureAlgorithm;
+        this.publicJwkSet = jwkSet.toPublicJWKSet();
+        this.publicJwkSetJson = publicJwkSet.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Loads the keys from the configured file, generating and persisting a key on first boot if allowed.
+     *
+     * @param jwkProperties the key configuration
+     * @return the loaded keys
+     */
+    public static SigningKeys load(JwkProperties jwkProperties) {
+        Path location = Path.of(jwkProperties.getLocation());
+        try {
+            JWKSet jwkSet;
+            if (isKeyStore(location)) {
+                jwkSet = loadKeyStore(location, jwkProperties.getKeyStorePassword());
+            } else if (Files.exists(location) || !jwkProperties.isGenerateIfMissing()) {
+                jwkSet = JWKSet.load(location.toFile());
+            } else {
+                jwkSet = generate(location, jwkProperties.getAlgorithm());
+            }
+            SigningKeys signingKeys = new SigningKeys(jwkSet, jwkProperties.getActiveKeyId(),
+                    jwkProperties.getAlgorithm());
+            log.info("Loaded {} signing key(s) from {}; active key is {} ({})", jwkSet.size(), location,
+                    signingKeys.getActiveKey().getKeyID(), signingKeys.getSignatureAlgorithm().getName());
+            return signingKeys;
+        } catch (IOException | ParseException | GeneralSecurityException | JOSEException ex) {
+            throw new IllegalStateException("Failed to load signing keys from " + location, ex);
+        }
+    }
+
+    /**
+     * Returns the key that signs new tokens.
+     *
+     * @return the active key, including its private part
+     */
+    public JWK getActiveKey() {
+        return activeKey;
+    }
+
+    /**
+     * Returns the algorithm new tokens are signed with.
+     *
+     * @return the signature algorithm
+     */
+    public SignatureAlgorithm getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    /**
+     * Returns the public parts of all keys.
+     *
+     * @return the public JWK set
+     */
+    public JWKSet getPublicJwkSet() {
+        return publicJwkSet;
+    }
+
+    /**
+     * Returns the public JWK set serialized as JSON, as served at {@code /oauth2/jwks}.
+     *
+     * @return the UTF-8 encoded JSON; callers must not modify it
+     */
+    public byte[] getPublicJwkSetJson() {
+        return publicJwkSetJson;
+    }
+
+    private static JWK selectActiveKey(JWKSet jwkSet, String activeKeyId, SignatureAlgorithm signatureAlgorithm) {
+        if (StringUtils.hasText(activeKeyId)) {
+            JWK key = jwkSet.getKeyByKeyId(activeKeyId);
+            if (key == null || !key.isPrivate()) {
+                throw new IllegalStateException("No private key with ID " + activeKeyId);
+            }
+            if (!canSign(key, signatureAlgorithm)) {
+                throw new IllegalStateException("Key " + activeKeyId + " cannot sign with "
+                        + signatureAlgorithm.getName());
+            }
+            return key;
+        }
+        return jwkSet.getKeys().stream()
+                .filter(key -> key.isPrivate() && canSign(key, signatureAlgorithm))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("The key file contains no private key for "
+                        + signatureAlgorithm.getName()));
+    }
+
+    /**
+     * Checks whether the key type, curve and {@code alg} parameter of a key allow the given algorithm.
+     */
+    private static boolean canSign(JWK key, SignatureAlgorithm signatureAlgorithm) {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(signatureAlgorithm.getName());
+        if (key.getAlgorithm() != null && !algorithm.getName().equals(key.getAlgorithm().getName())) {
+            return false;
+        }
+        if (key instanceof RSAKey) {
+            return JWSAlgorithm.Family.RSA.contains(algorithm);
+        }
+        if (key instanceof ECKey ecKey) {
+            Set<Curve> curves = Curve.forJWSAlgorithm(algorithm);
+            return curves != null && curves.contains(ecKey.getCurve());
+        }
+        return false;
+    }
+
+    private static boolean isKeyStore(Path location) {
+        String name = location.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".p12") || name.endsWith(".pfx");
+    }
+
+    private static JWKSet loadKeyStore(Path location, String password) throws IOException, GeneralSecurityException {
+        char[] passwordChars = password == null ? new char[0] : password.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(location)) {
+            keyStore.load(in, passwordChars);
+        }
+        try {
+            return JWKSet.load(keyStore, alias -> passwordChars);
+        } catch (Exception ex) {
+            throw new GeneralSecurityException("Failed to read keys from key store", ex);
+        }
+    }
+
+    /**
+     * Generates a key for the given algorithm and writes it to the given file. The key is written to an owner-only
+     * temporary file first, so other processes never see a partial file; if one of them created the file first, its
+     * keys are used.
+     *
+     * @param location           the key file
+     * @param signatureAlgorithm the algorithm the key will sign with
+     * @return the keys in the file
+     */
+    private static JWKSet generate(Path location, SignatureAlgorithm signatureAlgorithm)
+            throws IOException, ParseException, JOSEException {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(signatureAlgorithm.getName());
+        JWKGenerator<? extends JWK> generator = JWSAlgorithm.Family.EC.contains(algorithm)
+                ? new ECKeyGenerator(Curve.forJWSAlgorithm(algorithm).iterator().next())
+                : new RSAKeyGenerator(2048);
+        JWKSet jwkSet = new JWKSet(generator
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(algorithm)
+                .keyID(UUID.randomUUID().toString())
+                .generate());
+        Path directory = location.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, ".jwks", ".tmp");
+        try {
+            Files.writeString(temp, jwkSet.toString(false));
+            Files.move(temp, location);
+        } catch (FileAlreadyExistsException ex) {
+            return JWKSet.load(location.toFile());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.warn("Generated a new signing key in {}; share this file with every node", location);
+        return jwkSet;
+    }
+}
@@ -1,8 +1,18 @@
 package com.ecommerce.userservice.security;
 
+import com.ecommerce.userservice.models.SnowflakeIdAllocator;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
 
 /**
  * Configuration class for Spring Security.
@@ -11,16 +21,61 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
  * @author mahip.bhatt
  */
 @Configuration
+@EnableConfigurationProperties({JwtProperties.class, RevocationProperties.class, RegisteredClientCacheProperties.class,
+        ReaperProperties.class,
+        PasswordHashingProperties.class, LoginExecutorProperties.class,
+        UserDetailsCacheProperties.class, UserImportProperties.class, IdGeneratorProperties.class,
+        SessionPersistenceProperties.class, JwkProperties.class, AuthorizationBatchProperties.class,
+        AuthorizationStoreProperties.class})
 public class SpringSecurity {
 
+    private static final Logger log = LoggerFactory.getLogger(SpringSecurity.class);
+
     /**
      * Bean definition for {@link BCryptPasswordEncoder}.
-     * This encoder is used for encoding passwords securely.
+     * This encoder is used for encoding passwords securely. Its strength is calibrated at startup
+     * to the configured hashing time budget.
+     *
+     * @param passwordHashingProperties the password hashing configuration
+     * @return a new instance of {@link AdaptiveBCryptPasswordEncoder}
+     */
+    @Bean
+    public BCryptPasswordEncoder bCryptPasswordEncoder(PasswordHashingProperties passwordHashingProperties) {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.create(passwordHashingProperties);
+        log.info("Using BCrypt strength {} for password hashing", encoder.getStrength());
+        return encoder;
+    }
+
+    /**
+     * Bean definition for the HMAC key used to sign and verify session tokens.
+     * The same key must be configured on every node so that tokens verify anywhere.
+     *
+     * @param jwtProperties the token configuration
+     * @return the signing key
+     */
+    @Bean
+    public SecretKey jwtSigningKey(JwtProperties jwtProperties) {
+        if (!StringUtils.hasText(jwtProperties.getSecret())) {
+            log.warn("auth.jwt.secret is not set; using a random signing key. Tokens will not survive a restart.");
+            return Jwts.SIG.HS256.key().build();
+        }
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret()));
+    }
+
+    /**
+     * Bean definition for the {@link SnowflakeIdAllocator} that assigns entity IDs on this node.
+     * Hibernate injects it into the {@code @SnowflakeId} generators; the bulk writers use it directly.
      *
-     * @return a new instance of {@link BCryptPasswordEncoder}
+     * @param idGeneratorProperties the ID allocation configuration
+     * @return the allocator
+     * @throws IllegalStateException if no node ID is configured
      */
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public SnowflakeIdAllocator snowflakeIdAllocator(IdGeneratorProperties idGeneratorProperties) {
+        if (idGeneratorProperties.getNodeId() == null) {
+            throw new IllegalStateException("ids.node-id (ID_NODE_ID) must be set to a node ID unique to this node");
+        }
+        log.info("Allocating entity IDs as node {}", idGeneratorProperties.getNodeId());
+        return new SnowflakeIdAllocator(idGeneratorProperties.getNodeId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.userservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Fixed-width SHA-256 digests of token values, used wherever tokens are indexed or looked up
+ * without storing or comparing the full token.
+ *
+ * @author mahip.bhatt
+ */
+public final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    /**
+     * Computes the SHA-256 digest of a token.
+     *
+     * @param token the token value
+     * @return the 32-byte digest
+     */
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 digest of a token as lowercase hex.
+     *
+     * @param token the token value
+     * @return the 64-character hex digest
+     */
+    public static String sha256Hex(String token) {
+        return HexFormat.of().formatHex(sha256(token));
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cache of loaded {@code UserDetails} snapshots.
+ * Bound from the {@code security.user-details-cache.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security.user-details-cache")
+public class UserDetailsCacheProperties {
+
+    /**
+     * Maximum number of users kept. Zero disables caching.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a cached user is served before it is reloaded. Changes made on this node invalidate the entry
+     * immediately; this bounds how long a change made on another node can take to become visible.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.userservice.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the bulk user import.
+ * Bound from the {@code users.import.*} namespace.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.import")
+public class UserImportProperties {
+
+    /**
+     * Number of records hashed and inserted together, in one JDBC batch and one transaction.
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * Number of threads hashing plain-text passwords. Zero or less uses a quarter of the available cores (at least
+     * one), so an import does not starve the login pool of CPU.
+     */
+    private int parallelism = 0;
+
+    /**
+     * Maximum number of rejected-record messages returned with the import result.
+     */
+    private int maxErrors = 100;
+}
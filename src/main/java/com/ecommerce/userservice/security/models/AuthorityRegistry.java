@@ -0,0 +1,52 @@
+package com.ecommerce.userservice.security.models;
+
+import com.ecommerce.userservice.models.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Shared registry of interned {@link GrantedAuthority} instances, one per role name.
+ * The role vocabulary is tiny, so every user with the same roles shares the same immutable authority set
+ * and authorization checks only read precomputed objects.
+ *
+ * @author mahip.bhatt
+ */
+public final class AuthorityRegistry {
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Set<String>, Set<GrantedAuthority>> AUTHORITY_SETS = new ConcurrentHashMap<>();
+
+    private AuthorityRegistry() {
+    }
+
+    /**
+     * Returns the shared authority for a role name.
+     *
+     * @param roleName the role name
+     * @return the interned authority
+     */
+    public static GrantedAuthority authorityFor(String roleName) {
+        return AUTHORITIES.computeIfAbsent(roleName, CustomSpringGrantedAuthority::new);
+    }
+
+    /**
+     * Returns the shared, immutable authority set for a collection of roles.
+     *
+     * @param roles the roles, may be null
+     * @return the interned authority set
+     */
+    public static Set<GrantedAuthority> authoritiesFor(Collection<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> roleNames = roles.stream().map(Role::getRole).collect(Collectors.toUnmodifiableSet());
+        return AUTHORITY_SETS.computeIfAbsent(roleNames, names -> names.stream()
+                .map(AuthorityRegistry::authorityFor)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
@@ -1,8 +1,10 @@
 package com.ecommerce.userservice.security.models;
 
+import com.ecommerce.userservice.security.TokenDigests;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 import java.time.Instant;
@@ -10,11 +12,23 @@ import java.time.Instant;
 /**
  * Entity representing an authorization record.
  * Stores details about authorization codes, tokens, and related metadata.
+ * Each token value is kept in full for reconstruction, alongside a fixed-width SHA-256 digest column
+ * with a unique index that all token lookups go through. {@code expires_at} holds the latest expiry of any token
+ * and is what the reaper selects on.
  *
  * @author mahip.bhatt
  */
 @Entity
-@Table(name = "`authorization`")
+@Table(name = "`authorization`", indexes = {
+        @Index(name = "uk_authorization_state_hash", columnList = "state_hash", unique = true),
+        @Index(name = "uk_authorization_authorization_code_hash", columnList = "authorization_code_hash", unique = true),
+        @Index(name = "uk_authorization_access_token_hash", columnList = "access_token_hash", unique = true),
+        @Index(name = "uk_authorization_refresh_token_hash", columnList = "refresh_token_hash", unique = true),
+        @Index(name = "uk_authorization_oidc_id_token_hash", columnList = "oidc_id_token_hash", unique = true),
+        @Index(name = "uk_authorization_user_code_hash", columnList = "user_code_hash", unique = true),
+        @Index(name = "uk_authorization_device_code_hash", columnList = "device_code_hash", unique = true),
+        @Index(name = "idx_authorization_expires_at", columnList = "expires_at")
+})
 public class Authorization {
 
     @Id
@@ -94,6 +108,35 @@ public class Authorization {
     @Column(columnDefinition = "TEXT")
     private String deviceCodeMetadata;
 
+    // Token digests, maintained by the corresponding value setters
+
+    @Column(name = "state_hash", length = 64)
+    private String stateHash;
+
+    @Column(name = "authorization_code_hash", length = 64)
+    private String authorizationCodeHash;
+
+    @Column(name = "access_token_hash", length = 64)
+    private String accessTokenHash;
+
+    @Column(name = "refresh_token_hash", length = 64)
+    private String refreshTokenHash;
+
+    @Column(name = "oidc_id_token_hash", length = 64)
+    private String oidcIdTokenHash;
+
+    @Column(name = "user_code_hash", length = 64)
+    private String userCodeHash;
+
+    @Column(name = "device_code_hash", length = 64)
+    private String deviceCodeHash;
+
+    /**
+     * The latest expiry of any token, maintained by the expiry setters. Null while no token has an expiry.
+     */
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
     // Getters and Setters
 
     /**
@@ -160,6 +203,11 @@ public class Authorization {
 
     public void setState(String state) {
         this.state = state;
+        this.stateHash = digest(state);
+    }
+
+    public String getStateHash() {
+        return stateHash;
     }
 
     public String getAuthorizationCodeValue() {
@@ -168,6 +216,11 @@ public class Authorization {
 
     public void setAuthorizationCodeValue(String authorizationCodeValue) {
         this.authorizationCodeValue = authorizationCodeValue;
+        this.authorizationCodeHash = digest(authorizationCodeValue);
+    }
+
+    public String getAuthorizationCodeHash() {
+        return authorizationCodeHash;
     }
 
     public Instant getAuthorizationCodeIssuedAt() {
@@ -184,6 +237,7 @@ public class Authorization {
 
     public void setAuthorizationCodeExpiresAt(Instant authorizationCodeExpiresAt) {
         this.authorizationCodeExpiresAt = authorizationCodeExpiresAt;
+        updateExpiresAt();
     }
 
     public String getAuthorizationCodeMetadata() {
@@ -200,6 +254,11 @@ public class Authorization {
 
     public void setAccessTokenValue(String accessTokenValue) {
         this.accessTokenValue = accessTokenValue;
+        this.accessTokenHash = digest(accessTokenValue);
+    }
+
+    public String getAccessTokenHash() {
+        return accessTokenHash;
     }
 
     public Instant getAccessTokenIssuedAt() {
@@ -216,6 +275,7 @@ public class Authorization {
 
     public void setAccessTokenExpiresAt(Instant accessTokenExpiresAt) {
         this.accessTokenExpiresAt = accessTokenExpiresAt;
+        updateExpiresAt();
     }
 
     public String getAccessTokenMetadata() {
@@ -248,6 +308,11 @@ public class Authorization {
 
     public void setRefreshTokenValue(String refreshTokenValue) {
         this.refreshTokenValue = refreshTokenValue;
+        this.refreshTokenHash = digest(refreshTokenValue);
+    }
+
+    public String getRefreshTokenHash() {
+        return refreshTokenHash;
     }
 
     public Instant getRefreshTokenIssuedAt() {
@@ -264,6 +329,7 @@ public class Authorization {
 
     public void setRefreshTokenExpiresAt(Instant refreshTokenExpiresAt) {
         this.refreshTokenExpiresAt = refreshTokenExpiresAt;
+        updateExpiresAt();
     }
 
     public String getRefreshTokenMetadata() {
@@ -280,6 +346,11 @@ public class Authorization {
 
     public void setOidcIdTokenValue(String oidcIdTokenValue) {
         this.oidcIdTokenValue = oidcIdTokenValue;
+        this.oidcIdTokenHash = digest(oidcIdTokenValue);
+    }
+
+    public String getOidcIdTokenHash() {
+        return oidcIdTokenHash;
     }
 
     public Instant getOidcIdTokenIssuedAt() {
@@ -296,6 +367,7 @@ public class Authorization {
 
     public void setOidcIdTokenExpiresAt(Instant oidcIdTokenExpiresAt) {
         this.oidcIdTokenExpiresAt = oidcIdTokenExpiresAt;
+        updateExpiresAt();
     }
 
     public String getOidcIdTokenMetadata() {
@@ -320,6 +392,11 @@ public class Authorization {
 
     public void setUserCodeValue(String userCodeValue) {
         this.userCodeValue = userCodeValue;
+        this.userCodeHash = digest(userCodeValue);
+    }
+
+    public String getUserCodeHash() {
+        return userCodeHash;
     }
 
     public Instant getUserCodeIssuedAt() {
@@ -336,6 +413,7 @@ public class Authorization {
 
     public void setUserCodeExpiresAt(Instant userCodeExpiresAt) {
         this.userCodeExpiresAt = userCodeExpiresAt;
+        updateExpiresAt();
     }
 
     public String getUserCodeMetadata() {
@@ -352,6 +430,11 @@ public class Authorization {
 
     public void setDeviceCodeValue(String deviceCodeValue) {
         this.deviceCodeValue = deviceCodeValue;
+        this.deviceCodeHash = digest(deviceCodeValue);
+    }
+
+    public String getDeviceCodeHash() {
+        return deviceCodeHash;
     }
 
     public Instant getDeviceCodeIssuedAt() {
@@ -368,6 +451,7 @@ public class Authorization {
 
     public void setDeviceCodeExpiresAt(Instant deviceCodeExpiresAt) {
         this.deviceCodeExpiresAt = deviceCodeExpiresAt;
+        updateExpiresAt();
     }
 
     public String getDeviceCodeMetadata() {
@@ -377,4 +461,47 @@ public class Authorization {
     public void setDeviceCodeMetadata(String deviceCodeMetadata) {
         this.deviceCodeMetadata = deviceCodeMetadata;
     }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Recomputes the digest and expiry columns from the stored token values and expiries, for rows written before
+     * those columns existed.
+     */
+    public void refreshDerivedColumns() {
+        updateExpiresAt();
+        this.stateHash = digest(state);
+        this.authorizationCodeHash = digest(authorizationCodeValue);
+        this.accessTokenHash = digest(accessTokenValue);
+        this.refreshTokenHash = digest(refreshTokenValue);
+        this.oidcIdTokenHash = digest(oidcIdTokenValue);
+        this.userCodeHash = digest(userCodeValue);
+        this.deviceCodeHash = digest(deviceCodeValue);
+    }
+
+    /**
+     * Sets {@link #expiresAt} to the latest of the token expiries.
+     */
+    private void updateExpiresAt() {
+        Instant latest = null;
+        for (Instant candidate : new Instant[]{authorizationCodeExpiresAt, accessTokenExpiresAt, refreshTokenExpiresAt,
+                oidcIdTokenExpiresAt, userCodeExpiresAt, deviceCodeExpiresAt}) {
+            if (candidate != null && (latest == null || candidate.isAfter(latest))) {
+                latest = candidate;
+            }
+        }
+        this.expiresAt = latest;
+    }
+
+    /**
+     * Computes the digest stored alongside a token value.
+     *
+     * @param tokenValue the token value, may be null
+     * @return the hex SHA-256 digest, or null if the value is null
+     */
+    private static String digest(String tokenValue) {
+        return tokenValue != null ? TokenDigests.sha256Hex(tokenValue) : null;
+    }
 }
\ No newline at end of file
@@ -5,15 +5,16 @@ import org.springframework.security.core.GrantedAuthority;
 
 /**
  * Custom implementation of {@link GrantedAuthority} to represent a user's role.
+ * Instances are immutable; use {@link AuthorityRegistry} to obtain the shared instance for a role.
  *
  * @author mahip.bhatt
  */
 public class CustomSpringGrantedAuthority implements GrantedAuthority {
 
     /**
-     * The role associated with this authority.
+     * The name of the role associated with this authority.
      */
-    private Role role;
+    private final String authority;
 
     /**
      * Constructs a new {@code CustomSpringGrantedAuthority} with the specified role.
@@ -21,7 +22,16 @@ public class CustomSpringGrantedAuthority implements GrantedAuthority {
      * @param role the role to associate with this authority
      */
     public CustomSpringGrantedAuthority(Role role) {
-        this.role = role;
+        this(role.getRole());
+    }
+
+    /**
+     * Constructs a new {@code CustomSpringGrantedAuthority} with the specified role name.
+     *
+     * @param authority the role name
+     */
+    public CustomSpringGrantedAuthority(String authority) {
+        this.authority = authority;
     }
 
     /**
@@ -31,6 +41,22 @@ public class CustomSpringGrantedAuthority implements GrantedAuthority {
      */
     @Override
     public String getAuthority() {
-        return role.getRole();
+        return authority;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other
+                || other instanceof CustomSpringGrantedAuthority that && authority.equals(that.authority);
+    }
+
+    @Override
+    public int hashCode() {
+        return authority.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return authority;
     }
-}
\ No newline at end of file
+}
@@ -5,37 +5,52 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.Set;
 
 /**
  * Custom implementation of {@link UserDetails} to integrate the application's {@link User} model
  * with Spring Security.
+ * Instances are immutable snapshots taken when the user is loaded, so they can be cached and shared
+ * between requests; the managed {@link User} entity itself is not retained.
  *
  * @author mahip.bhatt
  */
 public class CustomSpringUserDetails implements UserDetails {
 
     /**
-     * The user entity associated with this user details object.
+     * The email address of the user, used as the username.
      */
-    private final User user;
+    private final String username;
 
     /**
-     * Constructs a new {@code CustomSpringUserDetails} with the specified user.
+     * The encoded password of the user.
+     */
+    private final String password;
+
+    /**
+     * The authorities granted to the user, computed once from the user's roles.
+     */
+    private final Set<GrantedAuthority> authorities;
+
+    /**
+     * Constructs a new {@code CustomSpringUserDetails} from a snapshot of the specified user.
      *
      * @param user the user entity
      */
     public CustomSpringUserDetails(User user) {
-        this.user = user;
+        this.username = user.getEmail();
+        this.password = user.getPassword();
+        this.authorities = AuthorityRegistry.authoritiesFor(user.getRoles());
     }
 
     /**
      * Returns the authorities granted to the user.
      *
-     * @return a collection of granted authorities
+     * @return an immutable collection of granted authorities
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return null; // Replace with actual logic to fetch user authorities
+        return authorities;
     }
 
     /**
@@ -45,7 +60,7 @@ public class CustomSpringUserDetails implements UserDetails {
      */
     @Override
     public String getPassword() {
-        return user.getPassword(); // Return the user's password
+        return password;
     }
 
     /**
@@ -55,7 +70,7 @@ public class CustomSpringUserDetails implements UserDetails {
      */
     @Override
     public String getUsername() {
-        return user.getEmail(); // Return the user's email as the username
+        return username;
     }
 
     /**
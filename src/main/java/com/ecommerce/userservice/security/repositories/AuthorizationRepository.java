@@ -1,16 +1,22 @@
 package com.ecommerce.userservice.security.repositories;
 
 import com.ecommerce.userservice.security.models.Authorization;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for managing {@link Authorization} entities.
  * Provides methods for retrieving authorizations based on various token types.
+ * All lookups take the hex SHA-256 digest of the token value and hit a unique index.
  *
  * @author mahip.bhatt
  */
@@ -18,73 +24,100 @@ import java.util.Optional;
 public interface AuthorizationRepository extends JpaRepository<Authorization, String> {
 
     /**
-     * Finds an {@link Authorization} by its state.
+     * Finds an {@link Authorization} by the digest of its state.
      *
-     * @param state the state of the authorization
+     * @param stateHash the digest of the state
      * @return an {@link Optional} containing the found {@link Authorization}, or empty if not found
      */
-    Optional<Authorization> findByState(String state);
+    Optional<Authorization> findByStateHash(String stateHash);
 
     /**
-     * Finds an {@link Authorization} by its authorization code value.
+     * Finds an {@link Authorization} by the digest of its authorization code value.
      *
-     * @param authorizationCode the authorization code
+     * @param authorizationCodeHash the digest of the authorization code
      * @return an {@link Optional} containing the found {@link Authorization}, or empty if not found
      */
-    Optional<Authorization> findByAuthorizationCodeValue(String authorizationCode);
+    Optional<Authorization> findByAuthorizationCodeHash(String authorizationCodeHash);
 
     /**
-     * Finds an {@link Authorization} by its access token value.
+     * Finds an {@link Authorization} by the digest of its access token value.
      *
-     * @param accessToken the access token
+     * @param accessTokenHash the digest of the access token
      * @return an {@link Optional} containing the found {@link Authorization}, or empty if not found
      */
-    Optional<Authorization> findByAccessTokenValue(String accessToken);
+    Optional<Authorization> findByAccessTokenHash(String accessTokenHash);
 
     /**
-     * Finds an {@link Authorization} by its refresh token value.
+     * Finds an {@link Authorization} by the digest of its refresh token value.
      *
-     * @param refreshToken the refresh token
+     * @param refreshTokenHash the digest of the refresh token
      * @return an {@link Optional} containing the found {@link Authorization}, or empty if not found
      */
-    Optional<Authorization> findByRefreshTokenValue(String refreshToken);
+    Optional<Authorization> findByRefreshTokenHash(String refreshTokenHash);
 
     /**
-     * Finds an {@link Authorization} by its OIDC ID token value.
+     * Finds an {@link Authorization} by the digest of its OIDC ID token value.
      *
-     * @param idToken the OIDC ID token
+     * @param oidcIdTokenHash the digest of the OIDC ID token
      * @return an {@link Optional} containing the found {@link Authorization}, or empty if not found
      */
-    Optional<Authorization> findByOidcIdTokenValue(String idToken);
+    Optional<Authorization> findByOidcIdTokenHash(String oidcIdTokenHash);
 
     /**
-     * Finds an {@link Authorization} by its user code value.
+     * Finds an {@link Authorization} by the digest of its user code value.
      *
-     * @param userCode the user code
+     * @param userCodeHash the digest of the user code
      * @return an {@link Optional} containing the found {@link Authorization}, or empty if not found
      */
-    Optional<Authorization> findByUserCodeValue(String userCode);
+    Optional<Authorization> findByUserCodeHash(String userCodeHash);
 
     /**
-     * Finds an {@link Authorization} by its device code value.
+     * Finds an {@link Authorization} by the digest of its device code value.
      *
-     * @param deviceCode the device code
+     * @param deviceCodeHash the digest of the device code
      * @return an {@link Optional} containing the found {@link Authorization}, or empty if not found
      */
-    Optional<Authorization> findByDeviceCodeValue(String deviceCode);
+    Optional<Authorization> findByDeviceCodeHash(String deviceCodeHash);
 
     /**
-     * Finds an {@link Authorization} by matching any of the provided token types.
+     * Finds authorizations written before the digest and expiry columns existed: rows that hold a token value but
+     * no digest, or a token expiry but no {@code expires_at}. Only used to backfill those columns; the query scans
+     * the table.
      *
-     * @param token the token to search for
-     * @return an {@link Optional} containing the found {@link Authorization}, or empty if not found
+     * @param pageable the maximum number of authorizations to return
+     * @return authorizations whose derived columns are missing
+     */
+    @Query("select a from Authorization a where (a.stateHash is null and a.authorizationCodeHash is null" +
+            " and a.accessTokenHash is null and a.refreshTokenHash is null and a.oidcIdTokenHash is null" +
+            " and a.userCodeHash is null and a.deviceCodeHash is null" +
+            " and (a.state is not null or a.authorizationCodeValue is not null or a.accessTokenValue is not null" +
+            " or a.refreshTokenValue is not null or a.oidcIdTokenValue is not null or a.userCodeValue is not null" +
+            " or a.deviceCodeValue is not null))" +
+            " or (a.expiresAt is null and coalesce(a.authorizationCodeExpiresAt, a.accessTokenExpiresAt," +
+            " a.refreshTokenExpiresAt, a.oidcIdTokenExpiresAt, a.userCodeExpiresAt, a.deviceCodeExpiresAt) is not null)")
+    List<Authorization> findWithoutDerivedColumns(Pageable pageable);
+
+    /**
+     * Retrieves the IDs of authorizations whose tokens have all expired before the given time.
+     * Selects on the indexed {@code expires_at} column, the latest expiry of any token, so each batch is a range
+     * scan of the index. Authorizations without any token expiry (e.g. requests still awaiting consent) are never
+     * returned.
+     *
+     * @param now      the current time
+     * @param pageable the maximum number of IDs to return
+     * @return the IDs of the expired authorizations
+     */
+    @Query("select a.id from Authorization a where a.expiresAt < :now")
+    List<String> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Deletes the authorizations with the given IDs in a single statement.
+     *
+     * @param ids the authorization IDs
+     * @return the number of deleted authorizations
      */
-    @Query("select a from Authorization a where a.state = :token" +
-            " or a.authorizationCodeValue = :token" +
-            " or a.accessTokenValue = :token" +
-            " or a.refreshTokenValue = :token" +
-            " or a.oidcIdTokenValue = :token" +
-            " or a.userCodeValue = :token" +
-            " or a.deviceCodeValue = :token")
-    Optional<Authorization> findByStateOrAuthorizationCodeValueOrAccessTokenValueOrRefreshTokenValueOrOidcIdTokenValueOrUserCodeValueOrDeviceCodeValue(@Param("token") String token);
-}
\ No newline at end of file
+    @Modifying
+    @Transactional
+    @Query("delete from Authorization a where a.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<String> ids);
+}
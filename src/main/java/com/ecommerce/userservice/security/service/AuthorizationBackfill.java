@@ -0,0 +1,81 @@
+package com.ecommerce.userservice.security.service;
+
+import com.ecommerce.userservice.security.models.Authorization;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off migration that fills in the token digest and {@code expires_at} columns of authorizations written before
+ * those columns existed. Token lookups only go through the digests and the reaper only selects on
+ * {@code expires_at}, so without it in-flight authorization codes and refresh tokens issued before the upgrade would
+ * stop resolving, and the old rows would never be reaped. Runs in batches, each in its own transaction, once the
+ * application is ready.
+ * <p>
+ * Finding the rows to migrate scans the {@code authorization} table, as the null columns it selects on have no
+ * usable index, so the migration is off by default: enable it for one start of one node after upgrading.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+@ConditionalOnProperty(prefix = "security.authorization-backfill", name = "enabled", havingValue = "true")
+public class AuthorizationBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final AuthorizationRepository authorizationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor for AuthorizationBackfill.
+     *
+     * @param authorizationRepository the repository for authorizations
+     * @param transactionTemplate     the template each batch runs in
+     */
+    public AuthorizationBackfill(AuthorizationRepository authorizationRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.authorizationRepository = authorizationRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Backfills the derived columns of every authorization that is missing them.
+     *
+     * @return the number of authorizations updated
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public long backfill() {
+        long updated = 0;
+        try {
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> {
+                    List<Authorization> authorizations =
+                            authorizationRepository.findWithoutDerivedColumns(Pageable.ofSize(BATCH_SIZE));
+                    authorizations.forEach(Authorization::refreshDerivedColumns);
+                    authorizationRepository.saveAll(authorizations);
+                    return authorizations.size();
+                });
+                updated += batch;
+            } while (batch == BATCH_SIZE);
+        } catch (DataAccessException ex) {
+            log.error("Stopped backfilling authorization columns after {} rows", updated, ex);
+            return updated;
+        }
+        if (updated > 0) {
+            log.info("Backfilled the token digests and expiry of {} authorizations", updated);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,229 @@
+package com.ecommerce.userservice.security.service;
+
+import com.ecommerce.userservice.security.AuthorizationBatchProperties;
+import com.ecommerce.userservice.security.models.Authorization;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writes {@link Authorization} entities to the database, either one transaction per save or in batches.
+ * When batching is enabled, a save is queued and the calling thread waits on its own future. A background thread
+ * collects the saves that arrive within {@link AuthorizationBatchProperties#getWindow()} of the first one and writes
+ * them with one JDBC batch and one commit, then completes each caller's future, so a burst of token requests costs
+ * one commit per batch instead of one per token. Unlike the session write-behind, nothing is acknowledged before
+ * it is committed.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+public class AuthorizationSaveBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationSaveBatcher.class);
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final AuthorizationRepository authorizationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingSave> queue;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for AuthorizationSaveBatcher.
+     *
+     * @param authorizationRepository      the repository for authorizations
+     * @param transactionTemplate          the template a batch is written in
+     * @param authorizationBatchProperties the batching configuration
+     * @param meterRegistry                the registry the batch metrics are published to
+     */
+    public AuthorizationSaveBatcher(AuthorizationRepository authorizationRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    AuthorizationBatchProperties authorizationBatchProperties,
+                                    MeterRegistry meterRegistry) {
+        this.authorizationRepository = authorizationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = authorizationBatchProperties.isEnabled();
+        this.windowNanos = Math.max(0, authorizationBatchProperties.getWindow().toNanos());
+        this.maxBatchSize = Math.max(1, authorizationBatchProperties.getMaxBatchSize());
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, authorizationBatchProperties.getQueueCapacity()));
+
+        this.flushTimer = Timer.builder("security.authorization.batch.flush")
+                .description("Time to write one batch of authorizations")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("security.authorization.batch.size")
+                .description("Number of authorizations written per transaction")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.flusher = new Thread(this::runFlusher, "authorization-save-batcher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Saves an authorization and returns once it is committed.
+     *
+     * @param entity the authorization
+     * @throws RuntimeException the exception the save failed with
+     */
+    public void save(Authorization entity) {
+        if (!enabled) {
+            authorizationRepository.save(entity);
+            return;
+        }
+
+        PendingSave pendingSave = new PendingSave(entity, new CompletableFuture<>());
+        // Write on the calling thread when the queue is full, or when the flusher may already have stopped
+        if (!running || !queue.offer(pendingSave) || (!running && queue.remove(pendingSave))) {
+            authorizationRepository.save(entity);
+            return;
+        }
+        try {
+            pendingSave.done().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Collects saves until the window of the first one ends or the batch is full, and writes them.
+     */
+    private void runFlusher() {
+        while (running) {
+            List<PendingSave> batch = new ArrayList<>(maxBatchSize);
+            try {
+                PendingSave first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingSave next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    /**
+     * Writes one batch in a single transaction and completes the callers' futures.
+     * If the batch fails, each authorization is retried in its own transaction, so one bad row only fails its own
+     * caller.
+     *
+     * @param batch the pending saves
+     */
+    private void write(List<PendingSave> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // One query finds the rows that already exist. New rows are persisted rather than merged, which
+                // would select each of them again, and are inserted with one JDBC batch at commit
+                Set<String> existingIds = authorizationRepository
+                        .findAllById(batch.stream().map(pendingSave -> pendingSave.entity().getId()).toList())
+                        .stream()
+                        .map(Authorization::getId)
+                        .collect(Collectors.toSet());
+                for (PendingSave pendingSave : batch) {
+                    if (existingIds.add(pendingSave.entity().getId())) {
+                        entityManager.persist(pendingSave.entity());
+                    } else {
+                        entityManager.merge(pendingSave.entity());
+                    }
+                }
+            });
+            batch.forEach(pendingSave -> pendingSave.done().complete(null));
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                batch.get(0).done().completeExceptionally(ex);
+                return;
+            }
+            log.warn("Failed to write a batch of {} authorizations; retrying them one at a time", batch.size(), ex);
+            for (PendingSave pendingSave : batch) {
+                try {
+                    authorizationRepository.save(pendingSave.entity());
+                    pendingSave.done().complete(null);
+                } catch (RuntimeException saveEx) {
+                    pendingSave.done().completeExceptionally(saveEx);
+                }
+            }
+        } finally {
+            sample.stop(flushTimer);
+            batchSizes.record(batch.size());
+        }
+    }
+
+    /**
+     * Stops the background thread and writes the saves that are still queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(IDLE_POLL_MILLIS + TimeUnit.NANOSECONDS.toMillis(windowNanos) + 5_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingSave> batch = new ArrayList<>(maxBatchSize);
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(maxBatchSize);
+        }
+    }
+
+    /**
+     * An authorization waiting to be written, with the future its caller waits on.
+     *
+     * @param entity the authorization
+     * @param done   completed once the authorization is committed
+     */
+    private record PendingSave(Authorization entity, CompletableFuture<Void> done) {
+    }
+}
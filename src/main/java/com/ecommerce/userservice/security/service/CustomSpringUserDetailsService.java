@@ -2,7 +2,14 @@ package com.ecommerce.userservice.security.service;
 
 import com.ecommerce.userservice.models.User;
 import com.ecommerce.userservice.repositories.UserRepository;
+import com.ecommerce.userservice.security.UserDetailsCacheProperties;
 import com.ecommerce.userservice.security.models.CustomSpringUserDetails;
+import com.ecommerce.userservice.services.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -10,6 +17,10 @@ import org.springframework.stereotype.Service;
 
 /**
  * Service implementation of {@link UserDetailsService} to load user-specific data for authentication.
+ * Loaded users are cached as immutable {@link CustomSpringUserDetails} snapshots keyed by email exactly as
+ * the repository is queried with it, so repeated logins do not repeat the user and role join. Only a lookup whose
+ * email matches the stored email exactly is cached, which is also the key {@link UserChangedEvent} carries, so a
+ * change always drops the entry; entries otherwise expire after the configured TTL.
  *
  * @author mahip.bhatt
  */
@@ -17,14 +28,23 @@ import org.springframework.stereotype.Service;
 public class CustomSpringUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final Cache<String, CustomSpringUserDetails> userDetailsByEmail;
 
     /**
      * Constructs a new {@code CustomSpringUserDetailsService} with the specified {@link UserRepository}.
      *
-     * @param userRepository the user repository to retrieve user data
+     * @param userRepository  the user repository to retrieve user data
+     * @param cacheProperties the user-details cache configuration
+     * @param meterRegistry   the registry to publish cache hit/miss metrics to
      */
-    public CustomSpringUserDetailsService(UserRepository userRepository) {
+    public CustomSpringUserDetailsService(UserRepository userRepository, UserDetailsCacheProperties cacheProperties,
+                                          MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.userDetailsByEmail = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getTtl())
+                .recordStats()
+                .<String, CustomSpringUserDetails>build(), "userDetails");
     }
 
     /**
@@ -36,8 +56,38 @@ public class CustomSpringUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        return new CustomSpringUserDetails(user);
+        // Filled when the database matched the user under a different spelling, e.g. by a case-insensitive collation;
+        // such a lookup is served but not cached, since change events only name the stored email
+        CustomSpringUserDetails[] uncached = new CustomSpringUserDetails[1];
+        CustomSpringUserDetails userDetails = userDetailsByEmail.get(email, key -> {
+            User user = userRepository.findByEmail(key).orElse(null);
+            if (user == null) {
+                return null;
+            }
+            if (key.equals(user.getEmail())) {
+                return new CustomSpringUserDetails(user);
+            }
+            uncached[0] = new CustomSpringUserDetails(user);
+            return null;
+        });
+        if (userDetails == null) {
+            userDetails = uncached[0];
+        }
+        if (userDetails == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return userDetails;
     }
-}
\ No newline at end of file
+
+    /**
+     * Drops the cached snapshot of a user whose credentials or roles changed.
+     *
+     * @param event the change event
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getEmail() != null) {
+            userDetailsByEmail.invalidate(event.getEmail());
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.ecommerce.userservice.security.service;
 
+import com.ecommerce.userservice.security.TokenDigests;
 import com.ecommerce.userservice.security.models.Authorization;
 import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.Module;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.dao.DataRetrievalFailureException;
-import org.springframework.security.jackson2.SecurityJackson2Modules;
 import org.springframework.security.oauth2.core.*;
 import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
 import org.springframework.security.oauth2.core.oidc.OidcIdToken;
@@ -17,52 +15,53 @@ import org.springframework.security.oauth2.server.authorization.OAuth2Authorizat
 import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
-import org.springframework.security.oauth2.server.authorization.jackson2.OAuth2AuthorizationServerJackson2Module;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.time.Instant;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 /**
  * Service implementation for managing OAuth2 authorizations using JPA.
+ * Token lookups go through the SHA-256 digest columns of {@link Authorization}, which carry unique indexes,
+ * so they are point lookups instead of scans over the {@code TEXT} token columns.
+ * Saves go through the {@link AuthorizationSaveBatcher}, which can coalesce concurrent saves into one transaction.
  *
  * @author mahip.bhatt
  */
 @Component
+@ConditionalOnProperty(prefix = "security.authorization-store", name = "type", havingValue = "jpa", matchIfMissing = true)
 public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService {
 
     private final AuthorizationRepository authorizationRepository;
     private final RegisteredClientRepository registeredClientRepository;
-    private final ObjectMapper objectMapper;
+    private final AuthorizationSaveBatcher authorizationSaveBatcher;
 
     /**
      * Constructs a new instance of {@link JpaOAuth2AuthorizationService}.
      *
      * @param authorizationRepository    the repository for managing authorizations
      * @param registeredClientRepository the repository for managing registered clients
+     * @param authorizationSaveBatcher   the writer that saves authorizations, individually or in batches
      */
-    public JpaOAuth2AuthorizationService(AuthorizationRepository authorizationRepository, RegisteredClientRepository registeredClientRepository) {
+    public JpaOAuth2AuthorizationService(AuthorizationRepository authorizationRepository, RegisteredClientRepository registeredClientRepository,
+                                         AuthorizationSaveBatcher authorizationSaveBatcher) {
         Assert.notNull(authorizationRepository, "authorizationRepository cannot be null");
         Assert.notNull(registeredClientRepository, "registeredClientRepository cannot be null");
+        Assert.notNull(authorizationSaveBatcher, "authorizationSaveBatcher cannot be null");
         this.authorizationRepository = authorizationRepository;
         this.registeredClientRepository = registeredClientRepository;
-
-        this.objectMapper = new ObjectMapper();
-        ClassLoader classLoader = JpaOAuth2AuthorizationService.class.getClassLoader();
-        List<Module> securityModules = SecurityJackson2Modules.getModules(classLoader);
-        this.objectMapper.registerModules(securityModules);
-        this.objectMapper.registerModule(new OAuth2AuthorizationServerJackson2Module());
+        this.authorizationSaveBatcher = authorizationSaveBatcher;
     }
 
     @Override
     public void save(OAuth2Authorization authorization) {
         Assert.notNull(authorization, "authorization cannot be null");
-        this.authorizationRepository.save(toEntity(authorization));
+        this.authorizationSaveBatcher.save(toEntity(authorization));
     }
 
     @Override
@@ -81,32 +80,45 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
     public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
         Assert.hasText(token, "token cannot be empty");
 
+        String tokenHash = TokenDigests.sha256Hex(token);
         Optional<Authorization> result;
         if (tokenType == null) {
-            result = this.authorizationRepository.findByStateOrAuthorizationCodeValueOrAccessTokenValueOrRefreshTokenValueOrOidcIdTokenValueOrUserCodeValueOrDeviceCodeValue(token);
+            // One unique-index probe per token type, most frequently presented types first. A single query ORing
+            // the digest columns would leave MySQL to an index merge at best
+            result = this.authorizationRepository.findByAccessTokenHash(tokenHash)
+                    .or(() -> this.authorizationRepository.findByRefreshTokenHash(tokenHash))
+                    .or(() -> this.authorizationRepository.findByAuthorizationCodeHash(tokenHash))
+                    .or(() -> this.authorizationRepository.findByOidcIdTokenHash(tokenHash))
+                    .or(() -> this.authorizationRepository.findByStateHash(tokenHash))
+                    .or(() -> this.authorizationRepository.findByUserCodeHash(tokenHash))
+                    .or(() -> this.authorizationRepository.findByDeviceCodeHash(tokenHash));
         } else {
             result = switch (tokenType.getValue()) {
-                case OAuth2ParameterNames.STATE -> this.authorizationRepository.findByState(token);
-                case OAuth2ParameterNames.CODE -> this.authorizationRepository.findByAuthorizationCodeValue(token);
-                case OAuth2ParameterNames.ACCESS_TOKEN -> this.authorizationRepository.findByAccessTokenValue(token);
-                case OAuth2ParameterNames.REFRESH_TOKEN -> this.authorizationRepository.findByRefreshTokenValue(token);
-                case OidcParameterNames.ID_TOKEN -> this.authorizationRepository.findByOidcIdTokenValue(token);
-                case OAuth2ParameterNames.USER_CODE -> this.authorizationRepository.findByUserCodeValue(token);
-                case OAuth2ParameterNames.DEVICE_CODE -> this.authorizationRepository.findByDeviceCodeValue(token);
+                case OAuth2ParameterNames.STATE -> this.authorizationRepository.findByStateHash(tokenHash);
+                case OAuth2ParameterNames.CODE -> this.authorizationRepository.findByAuthorizationCodeHash(tokenHash);
+                case OAuth2ParameterNames.ACCESS_TOKEN -> this.authorizationRepository.findByAccessTokenHash(tokenHash);
+                case OAuth2ParameterNames.REFRESH_TOKEN -> this.authorizationRepository.findByRefreshTokenHash(tokenHash);
+                case OidcParameterNames.ID_TOKEN -> this.authorizationRepository.findByOidcIdTokenHash(tokenHash);
+                case OAuth2ParameterNames.USER_CODE -> this.authorizationRepository.findByUserCodeHash(tokenHash);
+                case OAuth2ParameterNames.DEVICE_CODE -> this.authorizationRepository.findByDeviceCodeHash(tokenHash);
                 default -> Optional.empty();
             };
         }
 
-        return result.map(this::toObject).orElse(null);
+        // Guard against digest collisions by comparing the full token value
+        return result.filter(entity -> tokenValues(entity).containsValue(token))
+                .map(this::toObject)
+                .orElse(null);
     }
 
     /**
      * Converts an {@link Authorization} entity to an {@link OAuth2Authorization}.
+     * Package-private so that benchmarks can measure it directly.
      *
      * @param entity the authorization entity
      * @return the OAuth2Authorization object
      */
-    private OAuth2Authorization toObject(Authorization entity) {
+    OAuth2Authorization toObject(Authorization entity) {
         RegisteredClient registeredClient = this.registeredClientRepository.findById(entity.getRegisteredClientId());
         if (registeredClient == null) {
             throw new DataRetrievalFailureException(
@@ -131,11 +143,12 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
 
     /**
      * Converts an {@link OAuth2Authorization} to an {@link Authorization} entity.
+     * Package-private so that benchmarks can measure it directly.
      *
      * @param authorization the OAuth2Authorization object
      * @return the authorization entity
      */
-    private Authorization toEntity(OAuth2Authorization authorization) {
+    Authorization toEntity(OAuth2Authorization authorization) {
         Authorization entity = new Authorization();
         entity.setId(authorization.getId());
         entity.setRegisteredClientId(authorization.getRegisteredClientId());
@@ -150,6 +163,37 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
         return entity;
     }
 
+    /**
+     * Collects the token values of an authorization, keyed by token type.
+     *
+     * @param entity the authorization entity
+     * @return the non-null token values
+     */
+    private static Map<String, String> tokenValues(Authorization entity) {
+        Map<String, String> values = new LinkedHashMap<>();
+        putIfNotNull(values, OAuth2ParameterNames.STATE, entity.getState());
+        putIfNotNull(values, OAuth2ParameterNames.CODE, entity.getAuthorizationCodeValue());
+        putIfNotNull(values, OAuth2ParameterNames.ACCESS_TOKEN, entity.getAccessTokenValue());
+        putIfNotNull(values, OAuth2ParameterNames.REFRESH_TOKEN, entity.getRefreshTokenValue());
+        putIfNotNull(values, OidcParameterNames.ID_TOKEN, entity.getOidcIdTokenValue());
+        putIfNotNull(values, OAuth2ParameterNames.USER_CODE, entity.getUserCodeValue());
+        putIfNotNull(values, OAuth2ParameterNames.DEVICE_CODE, entity.getDeviceCodeValue());
+        return values;
+    }
+
+    /**
+     * Adds a value to a map if it is not null.
+     *
+     * @param values the map
+     * @param key    the key
+     * @param value  the value
+     */
+    private static void putIfNotNull(Map<String, String> values, String key, String value) {
+        if (value != null) {
+            values.put(key, value);
+        }
+    }
+
     /**
      * Sets token values for an {@link Authorization} entity.
      *
@@ -246,15 +290,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
      * @return the parsed map
      */
     private Map<String, Object> parseMap(String data) {
-        if (data == null || data.isEmpty()) {
-            return Map.of(); // Return an empty map if the input is null or empty
-        }
-        try {
-            return this.objectMapper.readValue(data, new TypeReference<Map<String, Object>>() {
-            });
-        } catch (Exception ex) {
-            throw new IllegalArgumentException("Failed to parse JSON: " + ex.getMessage(), ex);
-        }
+        return JsonMaps.parse(JsonMaps.SECURITY_READER, data);
     }
 
     /**
@@ -264,20 +300,17 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
      * @return the JSON string
      */
     private String writeMap(Map<String, Object> metadata) {
-        try {
-            return this.objectMapper.writeValueAsString(metadata);
-        } catch (Exception ex) {
-            throw new IllegalArgumentException("Failed to write JSON: " + ex.getMessage(), ex);
-        }
+        return JsonMaps.write(JsonMaps.SECURITY_WRITER, metadata);
     }
 
     /**
      * Resolves an {@link AuthorizationGrantType} from its string value.
+     * Package-private so that the {@link OffHeapOAuth2AuthorizationService} resolves grant types the same way.
      *
      * @param authorizationGrantType the string value
      * @return the resolved AuthorizationGrantType
      */
-    private static AuthorizationGrantType resolveAuthorizationGrantType(String authorizationGrantType) {
+    static AuthorizationGrantType resolveAuthorizationGrantType(String authorizationGrantType) {
         if (AuthorizationGrantType.AUTHORIZATION_CODE.getValue().equals(authorizationGrantType)) {
             return AuthorizationGrantType.AUTHORIZATION_CODE;
         } else if (AuthorizationGrantType.CLIENT_CREDENTIALS.getValue().equals(authorizationGrantType)) {
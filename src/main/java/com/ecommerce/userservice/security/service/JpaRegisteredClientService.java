@@ -1,18 +1,18 @@
 package com.ecommerce.userservice.security.service;
 
+import com.ecommerce.userservice.security.RegisteredClientCacheProperties;
 import com.ecommerce.userservice.security.models.Client;
 import com.ecommerce.userservice.security.repositories.ClientRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.Module;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import org.springframework.security.jackson2.SecurityJackson2Modules;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
-import org.springframework.security.oauth2.server.authorization.jackson2.OAuth2AuthorizationServerJackson2Module;
 import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
 import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
 import org.springframework.stereotype.Component;
@@ -23,9 +23,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service implementation for managing {@link RegisteredClient} entities using JPA.
+ * Built clients are cached by ID and by client ID, since they are read on every token request
+ * but almost never change. A save invalidates the cache of this node only; other nodes keep serving
+ * the previous client until their cached copy expires, i.e. for up to {@code security.registered-client-cache.ttl}.
  *
  * @author mahip.bhatt
  */
@@ -33,7 +37,9 @@ import java.util.Set;
 public class JpaRegisteredClientService implements RegisteredClientRepository {
 
     private final ClientRepository clientRepository;
-    private final ObjectMapper objectMapper;
+    private final Cache<String, RegisteredClient> clientsById;
+    private final Cache<String, RegisteredClient> clientsByClientId;
+    private final AtomicLong saves = new AtomicLong();
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -42,27 +48,31 @@ public class JpaRegisteredClientService implements RegisteredClientRepository {
      * Constructor to initialize the service with required dependencies.
      *
      * @param clientRepository the repository for managing {@link Client} entities
+     * @param cacheProperties  the client cache configuration
+     * @param meterRegistry    the registry to publish cache hit/miss metrics to
      */
-    public JpaRegisteredClientService(ClientRepository clientRepository) {
+    public JpaRegisteredClientService(ClientRepository clientRepository, RegisteredClientCacheProperties cacheProperties,
+                                      MeterRegistry meterRegistry) {
         Assert.notNull(clientRepository, "clientRepository cannot be null");
         this.clientRepository = clientRepository;
-
-        this.objectMapper = new ObjectMapper();
-        ClassLoader classLoader = JpaRegisteredClientService.class.getClassLoader();
-        List<Module> securityModules = SecurityJackson2Modules.getModules(classLoader);
-        this.objectMapper.registerModules(securityModules);
-        this.objectMapper.registerModule(new OAuth2AuthorizationServerJackson2Module());
+        this.clientsById = CaffeineCacheMetrics.monitor(meterRegistry, buildCache(cacheProperties), "registeredClientsById");
+        this.clientsByClientId = CaffeineCacheMetrics.monitor(meterRegistry, buildCache(cacheProperties), "registeredClientsByClientId");
     }
 
     /**
-     * Saves a {@link RegisteredClient} entity.
+     * Saves a {@link RegisteredClient} entity and invalidates the client cache.
      *
      * @param registeredClient the client to save
      */
     @Override
     public void save(RegisteredClient registeredClient) {
         Assert.notNull(registeredClient, "registeredClient cannot be null");
+        // The client ID of an existing client may have changed, so drop both indexes wholesale
+        invalidateAll();
         this.clientRepository.save(toEntity(registeredClient));
+        // Counted after the write, so a lookup that read the old row before it sees the change and drops its copy
+        this.saves.incrementAndGet();
+        invalidateAll();
     }
 
     /**
@@ -74,7 +84,12 @@ public class JpaRegisteredClientService implements RegisteredClientRepository {
     @Override
     public RegisteredClient findById(String id) {
         Assert.hasText(id, "id cannot be empty");
-        return this.clientRepository.findById(id).map(this::toObject).orElse(null);
+        long savesBefore = this.saves.get();
+        RegisteredClient registeredClient = this.clientsById.get(id, key -> this.clientRepository.findById(key)
+                .map(this::toObject)
+                .map(client -> cache(this.clientsByClientId, client.getClientId(), client))
+                .orElse(null));
+        return dropIfSavedSince(savesBefore, registeredClient);
     }
 
     /**
@@ -86,16 +101,74 @@ public class JpaRegisteredClientService implements RegisteredClientRepository {
     @Override
     public RegisteredClient findByClientId(String clientId) {
         Assert.hasText(clientId, "clientId cannot be empty");
-        return this.clientRepository.findByClientId(clientId).map(this::toObject).orElse(null);
+        long savesBefore = this.saves.get();
+        RegisteredClient registeredClient = this.clientsByClientId.get(clientId, key -> this.clientRepository.findByClientId(key)
+                .map(this::toObject)
+                .map(client -> cache(this.clientsById, client.getId(), client))
+                .orElse(null));
+        return dropIfSavedSince(savesBefore, registeredClient);
+    }
+
+    /**
+     * Removes a client from both indexes if a save ran while it was being looked up. The lookup may have loaded the
+     * row from before that save and cached it after the save's invalidation, where it would otherwise stay until
+     * the TTL expires.
+     *
+     * @param savesBefore      the save count read before the lookup
+     * @param registeredClient the client the lookup returned, or null
+     * @return the client
+     */
+    private RegisteredClient dropIfSavedSince(long savesBefore, RegisteredClient registeredClient) {
+        if (registeredClient != null && this.saves.get() != savesBefore) {
+            this.clientsById.invalidate(registeredClient.getId());
+            this.clientsByClientId.invalidate(registeredClient.getClientId());
+        }
+        return registeredClient;
+    }
+
+    /**
+     * Drops every cached client from both indexes.
+     */
+    private void invalidateAll() {
+        this.clientsById.invalidateAll();
+        this.clientsByClientId.invalidateAll();
+    }
+
+    /**
+     * Builds a size-bounded, TTL-evicting cache of clients with statistics enabled.
+     *
+     * @param cacheProperties the client cache configuration
+     * @return the cache
+     */
+    private static Cache<String, RegisteredClient> buildCache(RegisteredClientCacheProperties cacheProperties) {
+        return Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Stores a freshly loaded client in the other cache index, so a lookup by either key is served afterwards.
+     *
+     * @param cache            the cache index to populate
+     * @param key              the key within that index
+     * @param registeredClient the loaded client
+     * @return the loaded client
+     */
+    private static RegisteredClient cache(Cache<String, RegisteredClient> cache, String key, RegisteredClient registeredClient) {
+        cache.put(key, registeredClient);
+        return registeredClient;
     }
 
     /**
      * Converts a {@link Client} entity to a {@link RegisteredClient}.
+     * Package-private so that benchmarks can measure it without the client cache in front.
      *
      * @param client the entity to convert
      * @return the converted {@link RegisteredClient}
      */
-    private RegisteredClient toObject(Client client) {
+    RegisteredClient toObject(Client client) {
         Set<String> clientAuthenticationMethods = StringUtils.commaDelimitedListToSet(client.getClientAuthenticationMethods());
         Set<String> authorizationGrantTypes = StringUtils.commaDelimitedListToSet(client.getAuthorizationGrantTypes());
         Set<String> redirectUris = StringUtils.commaDelimitedListToSet(client.getRedirectUris());
@@ -159,24 +232,13 @@ public class JpaRegisteredClientService implements RegisteredClientRepository {
     }
 
     /**
-     * Parses a JSON string into a {@link Map}.
+     * Parses a settings JSON string into a {@link Map}.
      *
      * @param data the JSON string
      * @return the parsed {@link Map}
      */
     private Map<String, Object> parseMap(String data) {
-        if (data == null || data.isEmpty()) {
-            return Map.of(); // Return an empty map if the input is null or empty
-        }
-        try {
-            // Ensure the ObjectMapper does not expect type information
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_INVALID_SUBTYPE, false);
-            return mapper.readValue(data, new TypeReference<Map<String, Object>>() {
-            });
-        } catch (Exception ex) {
-            throw new IllegalArgumentException("Failed to parse JSON: " + ex.getMessage(), ex);
-        }
+        return JsonMaps.parse(JsonMaps.SETTINGS_READER, data);
     }
 
     /**
@@ -186,11 +248,7 @@ public class JpaRegisteredClientService implements RegisteredClientRepository {
      * @return the JSON string
      */
     private String writeMap(Map<String, Object> data) {
-        try {
-            return this.objectMapper.writeValueAsString(data);
-        } catch (Exception ex) {
-            throw new IllegalArgumentException("Failed to write JSON: " + ex.getMessage(), ex);
-        }
+        return JsonMaps.write(JsonMaps.SECURITY_WRITER, data);
     }
 
     /**
@@ -0,0 +1,104 @@
+package com.ecommerce.userservice.security.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+import org.springframework.security.oauth2.server.authorization.jackson2.OAuth2AuthorizationServerJackson2Module;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared Jackson readers and writers for the JSON maps persisted by the JPA-backed OAuth2 services.
+ * Building an {@link ObjectMapper} is expensive and each mapper keeps its own serializer/deserializer caches,
+ * so the mappers are built once here and warmed up before the first request uses them.
+ *
+ * @author mahip.bhatt
+ */
+final class JsonMaps {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private static final ObjectMapper SECURITY_MAPPER = createSecurityMapper();
+
+    /**
+     * Reads maps written by {@link #SECURITY_WRITER}, resolving the type information emitted by the
+     * Spring Security and authorization server modules (authorization attributes and token metadata).
+     */
+    static final ObjectReader SECURITY_READER = SECURITY_MAPPER.readerFor(MAP_TYPE);
+
+    /**
+     * Writes maps with the type information required to restore Spring Security objects.
+     */
+    static final ObjectWriter SECURITY_WRITER = SECURITY_MAPPER.writer();
+
+    /**
+     * Reads client and token settings as plain maps without requiring type information.
+     */
+    static final ObjectReader SETTINGS_READER = new ObjectMapper()
+            .readerFor(MAP_TYPE)
+            .without(DeserializationFeature.FAIL_ON_INVALID_SUBTYPE);
+
+    static {
+        // Resolve the map serializers and deserializers up front instead of on the first token request.
+        // A failure here means the mappers cannot round-trip a plain map, so fail the class load rather than
+        // every token request that follows
+        String sample = write(SECURITY_WRITER, new HashMap<>(Map.of("warmup", true)));
+        parse(SECURITY_READER, sample);
+        parse(SETTINGS_READER, sample);
+    }
+
+    private JsonMaps() {
+    }
+
+    /**
+     * Parses a JSON string into a map.
+     *
+     * @param reader the reader to use
+     * @param data   the JSON string
+     * @return the parsed map, or an empty map if the input is null or empty
+     */
+    static Map<String, Object> parse(ObjectReader reader, String data) {
+        if (data == null || data.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return reader.readValue(data);
+        } catch (Exception ex) {
+            throw new IllegalArgumentException("Failed to parse JSON: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Converts a map into a JSON string.
+     *
+     * @param writer the writer to use
+     * @param data   the map
+     * @return the JSON string
+     */
+    static String write(ObjectWriter writer, Map<String, Object> data) {
+        try {
+            return writer.writeValueAsString(data);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Failed to write JSON: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Creates the mapper with the Spring Security and authorization server Jackson modules registered.
+     *
+     * @return the mapper
+     */
+    private static ObjectMapper createSecurityMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ClassLoader classLoader = JsonMaps.class.getClassLoader();
+        objectMapper.registerModules(SecurityJackson2Modules.getModules(classLoader));
+        objectMapper.registerModule(new OAuth2AuthorizationServerJackson2Module());
+        return objectMapper;
+    }
+}
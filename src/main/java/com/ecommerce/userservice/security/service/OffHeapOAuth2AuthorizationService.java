@@ -0,0 +1,360 @@
+package com.ecommerce.userservice.security.service;
+
+import com.ecommerce.userservice.security.AuthorizationStoreProperties;
+import com.ecommerce.userservice.security.TokenDigests;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2DeviceCode;
+import org.springframework.security.oauth2.core.OAuth2UserCode;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link OAuth2AuthorizationService} that keeps short-lived authorizations off-heap and the rest in the database.
+ * An authorization that holds nothing but an access token, as client-credentials grants do, is encoded into a
+ * compact binary record in an {@link OffHeapTokenStore}, keyed by the SHA-256 digest of the access token and of the
+ * authorization ID, and expires with the access token. Looking it up is a hash probe and a decode of plain fields:
+ * no query and no JSON parsing. Authorizations with refresh tokens, authorization codes, ID tokens or attributes,
+ * and any record too large for a slot, go to the {@link JpaOAuth2AuthorizationService} as before.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+@ConditionalOnProperty(prefix = "security.authorization-store", name = "type", havingValue = "memory")
+public class OffHeapOAuth2AuthorizationService implements OAuth2AuthorizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapOAuth2AuthorizationService.class);
+
+    private static final byte NULL = 'N';
+    private static final byte STRING = 'S';
+    private static final byte BOOLEAN = 'B';
+    private static final byte INTEGER = 'I';
+    private static final byte LONG = 'J';
+    private static final byte INSTANT = 'T';
+    private static final byte URL_VALUE = 'U';
+    private static final byte LIST = 'L';
+    private static final byte SET = 'E';
+    private static final byte MAP = 'M';
+
+    private final JpaOAuth2AuthorizationService jpaAuthorizationService;
+    private final RegisteredClientRepository registeredClientRepository;
+    private final OffHeapTokenStore tokenStore;
+
+    /**
+     * Constructor for OffHeapOAuth2AuthorizationService.
+     *
+     * @param authorizationRepository      the repository for authorizations kept in the database
+     * @param registeredClientRepository   the repository for managing registered clients
+     * @param authorizationSaveBatcher     the writer that saves authorizations kept in the database
+     * @param authorizationStoreProperties the store configuration
+     */
+    public OffHeapOAuth2AuthorizationService(AuthorizationRepository authorizationRepository,
+                                             RegisteredClientRepository registeredClientRepository,
+                                             AuthorizationSaveBatcher authorizationSaveBatcher,
+                                             AuthorizationStoreProperties authorizationStoreProperties) {
+        this.jpaAuthorizationService = new JpaOAuth2AuthorizationService(authorizationRepository,
+                registeredClientRepository, authorizationSaveBatcher);
+        this.registeredClientRepository = registeredClientRepository;
+        Path location = Path.of(authorizationStoreProperties.getLocation());
+        try {
+            this.tokenStore = new OffHeapTokenStore(location, authorizationStoreProperties.getCapacity(),
+                    authorizationStoreProperties.getSlotSize(), authorizationStoreProperties.getStripes());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to map the authorization store at " + location, ex);
+        }
+        log.info("Keeping access-token-only authorizations in {} ({} slots of {} bytes)", location,
+                authorizationStoreProperties.getCapacity(), authorizationStoreProperties.getSlotSize());
+    }
+
+    @Override
+    public void save(OAuth2Authorization authorization) {
+        Assert.notNull(authorization, "authorization cannot be null");
+        byte[] record = encode(authorization, tokenStore.maxValueLength());
+        if (record != null) {
+            long expiresAt = authorization.getAccessToken().getToken().getExpiresAt().toEpochMilli();
+            byte[] tokenKey = tokenKey(authorization.getAccessToken().getToken().getTokenValue());
+            if (tokenStore.put(tokenKey, expiresAt, record)) {
+                if (tokenStore.put(idKey(authorization.getId()), expiresAt, record)) {
+                    return;
+                }
+                tokenStore.remove(tokenKey);
+            }
+        }
+        // Not eligible or no room: make sure no stale copy shadows the database row
+        removeOffHeap(authorization);
+        jpaAuthorizationService.save(authorization);
+    }
+
+    @Override
+    public void remove(OAuth2Authorization authorization) {
+        Assert.notNull(authorization, "authorization cannot be null");
+        if (!removeOffHeap(authorization)) {
+            jpaAuthorizationService.remove(authorization);
+        }
+    }
+
+    @Override
+    public OAuth2Authorization findById(String id) {
+        Assert.hasText(id, "id cannot be empty");
+        OAuth2Authorization authorization = findOffHeap(idKey(id));
+        return authorization != null ? authorization : jpaAuthorizationService.findById(id);
+    }
+
+    @Override
+    public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
+        Assert.hasText(token, "token cannot be empty");
+        if (tokenType == null || OAuth2TokenType.ACCESS_TOKEN.equals(tokenType)) {
+            OAuth2Authorization authorization = findOffHeap(tokenKey(token));
+            // Guard against digest collisions by comparing the full token value
+            if (authorization != null && token.equals(authorization.getAccessToken().getToken().getTokenValue())) {
+                return authorization;
+            }
+        }
+        return jpaAuthorizationService.findByToken(token, tokenType);
+    }
+
+    /**
+     * Closes the memory-mapped file.
+     */
+    @PreDestroy
+    public void close() {
+        try {
+            tokenStore.close();
+        } catch (IOException ex) {
+            log.warn("Failed to close the authorization store", ex);
+        }
+    }
+
+    private OAuth2Authorization findOffHeap(byte[] key) {
+        byte[] record = tokenStore.get(key, System.currentTimeMillis());
+        return record == null ? null : decode(record);
+    }
+
+    private boolean removeOffHeap(OAuth2Authorization authorization) {
+        boolean removed = tokenStore.remove(idKey(authorization.getId()));
+        if (authorization.getAccessToken() != null) {
+            removed |= tokenStore.remove(tokenKey(authorization.getAccessToken().getToken().getTokenValue()));
+        }
+        return removed;
+    }
+
+    private static byte[] tokenKey(String token) {
+        return TokenDigests.sha256(token);
+    }
+
+    private static byte[] idKey(String id) {
+        // Namespaced, so an ID can never be taken for a token value
+        return TokenDigests.sha256("id:" + id);
+    }
+
+    /**
+     * Encodes an authorization that holds nothing but a bearer access token with an expiry.
+     * Package-private so that tests and benchmarks can use it directly.
+     *
+     * @param authorization the authorization
+     * @param maxLength     the longest record that fits in the store
+     * @return the record, or null if the authorization must be kept in the database
+     */
+    static byte[] encode(OAuth2Authorization authorization, int maxLength) {
+        OAuth2Authorization.Token<OAuth2AccessToken> accessToken = authorization.getAccessToken();
+        if (accessToken == null
+                || accessToken.getToken().getExpiresAt() == null
+                || !OAuth2AccessToken.TokenType.BEARER.equals(accessToken.getToken().getTokenType())
+                || !authorization.getAttributes().isEmpty()
+                || authorization.getRefreshToken() != null
+                || authorization.getToken(OAuth2AuthorizationCode.class) != null
+                || authorization.getToken(OidcIdToken.class) != null
+                || authorization.getToken(OAuth2UserCode.class) != null
+                || authorization.getToken(OAuth2DeviceCode.class) != null) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, authorization.getId());
+            writeString(out, authorization.getRegisteredClientId());
+            writeString(out, authorization.getPrincipalName());
+            writeString(out, authorization.getAuthorizationGrantType().getValue());
+            writeValue(out, authorization.getAuthorizedScopes());
+            OAuth2AccessToken token = accessToken.getToken();
+            writeString(out, token.getTokenValue());
+            writeValue(out, token.getIssuedAt());
+            writeValue(out, token.getExpiresAt());
+            writeValue(out, token.getScopes());
+            writeValue(out, accessToken.getMetadata());
+        } catch (NotStorableException | IOException ex) {
+            return null;
+        }
+        return bytes.size() <= maxLength ? bytes.toByteArray() : null;
+    }
+
+    /**
+     * Rebuilds an authorization from its record. Reads the record array directly rather than through a
+     * {@code DataInputStream}, which cost more than the rest of the lookup put together.
+     *
+     * @param record the record
+     * @return the authorization
+     */
+    @SuppressWarnings("unchecked")
+    OAuth2Authorization decode(byte[] record) {
+        ByteBuffer in = ByteBuffer.wrap(record);
+        try {
+            String id = readString(in);
+            String registeredClientId = readString(in);
+            RegisteredClient registeredClient = registeredClientRepository.findById(registeredClientId);
+            if (registeredClient == null) {
+                throw new DataRetrievalFailureException(
+                        "The RegisteredClient with id '" + registeredClientId + "' was not found in the RegisteredClientRepository.");
+            }
+            OAuth2Authorization.Builder builder = OAuth2Authorization.withRegisteredClient(registeredClient)
+                    .id(id)
+                    .principalName(readString(in))
+                    .authorizationGrantType(JpaOAuth2AuthorizationService.resolveAuthorizationGrantType(readString(in)))
+                    .authorizedScopes((Set<String>) readValue(in));
+            String tokenValue = readString(in);
+            Instant issuedAt = (Instant) readValue(in);
+            Instant expiresAt = (Instant) readValue(in);
+            Set<String> scopes = (Set<String>) readValue(in);
+            Map<String, Object> metadata = (Map<String, Object>) readValue(in);
+            OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue,
+                    issuedAt, expiresAt, scopes);
+            return builder.token(accessToken, tokenMetadata -> tokenMetadata.putAll(metadata)).build();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | MalformedURLException ex) {
+            throw new IllegalStateException("Corrupt authorization record", ex);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException, NotStorableException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof Integer integer) {
+            out.writeByte(INTEGER);
+            out.writeInt(integer);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            out.writeLong(number);
+        } else if (value instanceof Instant instant) {
+            out.writeByte(INSTANT);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        } else if (value instanceof URL url) {
+            out.writeByte(URL_VALUE);
+            writeString(out, url.toExternalForm());
+        } else if (value instanceof Collection<?> collection) {
+            out.writeByte(value instanceof Set ? SET : LIST);
+            out.writeInt(collection.size());
+            for (Object element : collection) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String key)) {
+                    throw new NotStorableException();
+                }
+                writeString(out, key);
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            throw new NotStorableException();
+        }
+    }
+
+    private static Object readValue(ByteBuffer in) throws MalformedURLException {
+        byte type = in.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case BOOLEAN:
+                return in.get() != 0;
+            case INTEGER:
+                return in.getInt();
+            case LONG:
+                return in.getLong();
+            case INSTANT:
+                return Instant.ofEpochSecond(in.getLong(), in.getInt());
+            case URL_VALUE:
+                return new URL(readString(in));
+            case LIST:
+            case SET: {
+                int size = in.getInt();
+                Collection<Object> collection = type == SET ? new LinkedHashSet<>(size * 2) : new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    collection.add(readValue(in));
+                }
+                return collection;
+            }
+            case MAP: {
+                int size = in.getInt();
+                Map<String, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    map.put(readString(in), readValue(in));
+                }
+                return map;
+            }
+            default:
+                throw new IllegalStateException("Corrupt authorization record: unknown value type " + type);
+        }
+    }
+
+    /**
+     * Thrown when an authorization holds a value the record format has no encoding for.
+     */
+    private static final class NotStorableException extends Exception {
+
+        private NotStorableException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.ecommerce.userservice.security.service;
+
+import com.ecommerce.userservice.security.LinearProbing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.EnumSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hash table of byte values keyed by 32-byte digests, stored outside the Java heap in a memory-mapped file.
+ * The table has a fixed number of fixed-size slots, partitioned into lock stripes that are each mapped as their own
+ * region, so it can be larger than one mapping allows and holds no Java object per entry. Each stripe is a
+ * linear-probing table: a slot holds a used flag, the key, the expiry time, the value length and the value.
+ * Expired entries are treated as absent on lookup and evicted when their stripe runs out of room.
+ * The file holds live bearer tokens, so it is created readable by its owner only, recreated on every start and
+ * deleted on close; entries do not survive a restart.
+ *
+ * @author mahip.bhatt
+ */
+public final class OffHeapTokenStore implements Closeable {
+
+    /**
+     * Length of the keys, as produced by SHA-256.
+     */
+    public static final int KEY_LENGTH = 32;
+
+    private static final int USED_OFFSET = 0;
+    private static final int KEY_OFFSET = 1;
+    private static final int EXPIRES_AT_OFFSET = KEY_OFFSET + KEY_LENGTH;
+    private static final int LENGTH_OFFSET = EXPIRES_AT_OFFSET + Long.BYTES;
+    private static final int VALUE_OFFSET = LENGTH_OFFSET + Integer.BYTES;
+
+    private final Path location;
+    private final FileChannel channel;
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final int slotSize;
+
+    /**
+     * Constructor for OffHeapTokenStore.
+     *
+     * @param location the file to map; replaced if it exists
+     * @param capacity the total number of slots; rounded up so every stripe holds a power of two
+     * @param slotSize the size of one slot in bytes, which bounds the value length
+     * @param stripes  the number of lock stripes; rounded up to a power of two
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public OffHeapTokenStore(Path location, int capacity, int slotSize, int stripes) throws IOException {
+        if (slotSize <= VALUE_OFFSET) {
+            throw new IllegalArgumentException("slotSize must be larger than " + VALUE_OFFSET);
+        }
+        int stripeCount = LinearProbing.ceilPowerOfTwo(stripes);
+        int slotsPerStripe = LinearProbing.ceilPowerOfTwo(Math.max(2, (capacity + stripeCount - 1) / stripeCount));
+        long stripeBytes = (long) slotsPerStripe * slotSize;
+        if (stripeBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A stripe of " + stripeBytes + " bytes exceeds the mapping limit; "
+                    + "use more stripes");
+        }
+
+        Path absolute = location.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Files.deleteIfExists(absolute);
+        this.location = absolute;
+        this.channel = FileChannel.open(absolute, EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.SPARSE), ownerOnly(absolute));
+        this.stripes = new Stripe[stripeCount];
+        try {
+            for (int i = 0; i < stripeCount; i++) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, i * stripeBytes, stripeBytes);
+                this.stripes[i] = new Stripe(buffer, slotsPerStripe);
+            }
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            Files.deleteIfExists(absolute);
+            throw ex;
+        }
+        this.stripeShift = LinearProbing.stripeShift(stripeCount);
+        this.slotSize = slotSize;
+    }
+
+    /**
+     * Returns the longest value a slot can hold.
+     *
+     * @return the maximum value length in bytes
+     */
+    public int maxValueLength() {
+        return slotSize - VALUE_OFFSET;
+    }
+
+    /**
+     * Stores a value, replacing the value of the same key.
+     *
+     * @param key         the key
+     * @param expiresAtMs when the entry expires, in epoch milliseconds
+     * @param value       the value
+     * @return {@code false} if the value is too long, or the key's stripe is full even after evicting expired entries
+     */
+    public boolean put(byte[] key, long expiresAtMs, byte[] value) {
+        if (value.length > maxValueLength()) {
+            return false;
+        }
+        long k0 = keyPart(key, 0);
+        Stripe stripe = stripeFor(k0);
+        stripe.lock.writeLock().lock();
+        try {
+            int slot = stripe.find(key, k0);
+            if (slot < 0) {
+                if (stripe.size + 1 > stripe.maxSize) {
+                    stripe.removeExpired(System.currentTimeMillis());
+                    if (stripe.size + 1 > stripe.maxSize) {
+                        return false;
+                    }
+                }
+                slot = stripe.emptySlotFor(k0);
+                stripe.size++;
+            }
+            stripe.write(slot, key, expiresAtMs, value);
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up the value of a key.
+     *
+     * @param key   the key
+     * @param nowMs the current time in epoch milliseconds
+     * @return a copy of the value, or null if the key is absent or expired
+     */
+    public byte[] get(byte[] key, long nowMs) {
+        long k0 = keyPart(key, 0);
+        Stripe stripe = stripeFor(k0);
+        stripe.lock.readLock().lock();
+        try {
+            int slot = stripe.find(key, k0);
+            if (slot < 0 || stripe.expiresAt(slot) <= nowMs) {
+                return null;
+            }
+            return stripe.value(slot);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return {@code true} if the key was present
+     */
+    public boolean remove(byte[] key) {
+        long k0 = keyPart(key, 0);
+        Stripe stripe = stripeFor(k0);
+        stripe.lock.writeLock().lock();
+        try {
+            int slot = stripe.find(key, k0);
+            if (slot < 0) {
+                return false;
+            }
+            LinearProbing.removeSlot(stripe, slot);
+            stripe.size--;
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries, including expired entries that have not been evicted yet.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Closes and deletes the file. The mapping itself is released when it is garbage collected.
+     *
+     * @throws IOException if the file cannot be closed or deleted
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(location);
+        }
+    }
+
+    /**
+     * Returns the attributes that make a new file readable and writable by its owner only, where the file system
+     * supports POSIX permissions.
+     */
+    private static FileAttribute<?>[] ownerOnly(Path location) {
+        if (!location.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[0];
+        }
+        return new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(
+                EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE))};
+    }
+
+    /**
+     * Selects the stripe of a key from the high bits of its first eight bytes. Keys are digests, so their bits are
+     * already evenly spread.
+     */
+    private Stripe stripeFor(long k0) {
+        return stripes[LinearProbing.stripeIndex(k0, stripeShift)];
+    }
+
+    private static long keyPart(byte[] key, int index) {
+        if (key.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("Keys must be " + KEY_LENGTH + " bytes");
+        }
+        return ByteBuffer.wrap(key).getLong(index * Long.BYTES);
+    }
+
+    /**
+     * One lock stripe: a linear-probing table over one mapped region. All access must hold the stripe lock.
+     */
+    private final class Stripe implements LinearProbing.Table {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ByteBuffer buffer;
+        private final int mask;
+        private final int maxSize;
+        private int size;
+
+        private Stripe(ByteBuffer buffer, int slots) {
+            this.buffer = buffer;
+            this.mask = slots - 1;
+            // Keep probe runs short; lookups slow down sharply as a linear-probing table fills up
+            this.maxSize = slots - slots / 4;
+        }
+
+        private int find(byte[] key, long k0) {
+            ByteBuffer wrappedKey = null;
+            for (int slot = (int) k0 & mask; isUsed(slot); slot = (slot + 1) & mask) {
+                int base = slot * slotSize + KEY_OFFSET;
+                if (buffer.getLong(base) != k0) {
+                    continue;
+                }
+                if (wrappedKey == null) {
+                    wrappedKey = ByteBuffer.wrap(key);
+                }
+                if (buffer.getLong(base + 8) == wrappedKey.getLong(8)
+                        && buffer.getLong(base + 16) == wrappedKey.getLong(16)
+                        && buffer.getLong(base + 24) == wrappedKey.getLong(24)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int emptySlotFor(long k0) {
+            int slot = (int) k0 & mask;
+            while (isUsed(slot)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private long expiresAt(int slot) {
+            return buffer.getLong(slot * slotSize + EXPIRES_AT_OFFSET);
+        }
+
+        private byte[] value(int slot) {
+            int base = slot * slotSize;
+            byte[] value = new byte[buffer.getInt(base + LENGTH_OFFSET)];
+            buffer.get(base + VALUE_OFFSET, value);
+            return value;
+        }
+
+        private void write(int slot, byte[] key, long expiresAtMs, byte[] value) {
+            int base = slot * slotSize;
+            buffer.put(base + KEY_OFFSET, key);
+            buffer.putLong(base + EXPIRES_AT_OFFSET, expiresAtMs);
+            buffer.putInt(base + LENGTH_OFFSET, value.length);
+            buffer.put(base + VALUE_OFFSET, value);
+            buffer.put(base + USED_OFFSET, (byte) 1);
+        }
+
+        /**
+         * Removes the expired entries of this stripe.
+         *
+         * @param nowMs the current time in epoch milliseconds
+         */
+        private void removeExpired(long nowMs) {
+            size -= LinearProbing.removeIf(this, slot -> expiresAt(slot) <= nowMs);
+        }
+
+        @Override
+        public int capacity() {
+            return mask + 1;
+        }
+
+        @Override
+        public boolean isUsed(int slot) {
+            return buffer.get(slot * slotSize + USED_OFFSET) != 0;
+        }
+
+        @Override
+        public int homeSlot(int slot) {
+            return (int) buffer.getLong(slot * slotSize + KEY_OFFSET) & mask;
+        }
+
+        @Override
+        public void move(int from, int to) {
+            copySlot(from, to);
+            clear(from);
+        }
+
+        @Override
+        public void clear(int slot) {
+            buffer.put(slot * slotSize + USED_OFFSET, (byte) 0);
+        }
+
+        private void copySlot(int from, int to) {
+            int length = VALUE_OFFSET + buffer.getInt(from * slotSize + LENGTH_OFFSET);
+            buffer.put(to * slotSize, buffer, from * slotSize, length);
+        }
+    }
+}
@@ -1,23 +1,37 @@
 package com.ecommerce.userservice.services;
 
+import com.ecommerce.userservice.dtos.SessionDto;
 import com.ecommerce.userservice.dtos.UserDto;
 import com.ecommerce.userservice.models.Session;
 import com.ecommerce.userservice.models.SessionStatus;
 import com.ecommerce.userservice.models.User;
-import com.ecommerce.userservice.repositories.SessionRepository;
 import com.ecommerce.userservice.repositories.UserRepository;
+import com.ecommerce.userservice.security.JwtProperties;
+import com.ecommerce.userservice.security.LoginExecutorProperties;
+import com.ecommerce.userservice.security.TokenDigests;
+import com.ecommerce.userservice.security.models.AuthorityRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.MacAlgorithm;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MultiValueMapAdapter;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Service class for handling authentication-related operations such as login, logout, sign-up, and token validation.
@@ -27,43 +41,102 @@ import java.util.Optional;
 @Service
 public class AuthService {
 
+    /**
+     * Authority that may manage the sessions of any user.
+     */
+    static final String ADMIN_AUTHORITY = "ADMIN";
+
     private final UserRepository userRepository;
-    private final SessionRepository sessionRepository;
+    private final SessionStore sessionStore;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final SecretKey jwtSigningKey;
+    private final JwtProperties jwtProperties;
+    private final RevokedTokenFilter revokedTokenFilter;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
+    private final LoginExecutorProperties loginExecutorProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JwtParser jwtParser;
 
     /**
      * Constructor for AuthService.
      *
-     * @param userRepository        the user repository
-     * @param sessionRepository     the session repository
-     * @param bCryptPasswordEncoder the password encoder
+     * @param userRepository               the user repository
+     * @param sessionStore                 the store for login sessions
+     * @param bCryptPasswordEncoder        the password encoder
+     * @param jwtSigningKey                the key used to sign and verify session tokens
+     * @param jwtProperties                the token configuration
+     * @param revokedTokenFilter           the in-memory filter of revoked tokens
+     * @param passwordVerificationExecutor the bounded pool that verifies login passwords
+     * @param loginExecutorProperties      the login admission configuration
+     * @param eventPublisher               the publisher for user change events
      */
-    public AuthService(UserRepository userRepository, SessionRepository sessionRepository,
-                       BCryptPasswordEncoder bCryptPasswordEncoder) {
+    public AuthService(UserRepository userRepository, SessionStore sessionStore,
+                       BCryptPasswordEncoder bCryptPasswordEncoder, SecretKey jwtSigningKey,
+                       JwtProperties jwtProperties, RevokedTokenFilter revokedTokenFilter,
+                       PasswordVerificationExecutor passwordVerificationExecutor,
+                       LoginExecutorProperties loginExecutorProperties, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.sessionRepository = sessionRepository;
+        this.sessionStore = sessionStore;
         this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.jwtSigningKey = jwtSigningKey;
+        this.jwtProperties = jwtProperties;
+        this.revokedTokenFilter = revokedTokenFilter;
+        this.passwordVerificationExecutor = passwordVerificationExecutor;
+        this.loginExecutorProperties = loginExecutorProperties;
+        this.eventPublisher = eventPublisher;
+        this.jwtParser = Jwts.parser().verifyWith(jwtSigningKey).build();
     }
 
     /**
      * Handles user login by validating credentials and generating a session token.
+     * The password check runs on the bounded {@link PasswordVerificationExecutor}; when its queue is full
+     * the login is rejected with 429 and a {@code Retry-After} header instead of waiting.
      *
      * @param email    the user's email
      * @param password the user's password
-     * @return a ResponseEntity containing the UserDto and session token, or null if authentication fails
+     * @return a future ResponseEntity containing the UserDto and session token, or an error status if authentication fails
      */
-    public ResponseEntity<UserDto> login(String email, String password) {
+    public CompletableFuture<ResponseEntity<UserDto>> login(String email, String password) {
         Optional<User> userOptional = userRepository.findByEmail(email);
 
-        if (userOptional.isEmpty() || !bCryptPasswordEncoder.matches(password, userOptional.get().getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        if (userOptional.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
         }
 
         User user = userOptional.get();
-        String token = generateToken(user);
+        try {
+            return passwordVerificationExecutor.submit(() -> verifyAndCreateSession(user, password));
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, loginExecutorProperties.getRetryAfter().toSeconds())))
+                    .build());
+        }
+    }
+
+    /**
+     * Verifies the password of a user and, if it matches, starts a new session.
+     *
+     * @param user     the user
+     * @param password the password presented at login
+     * @return a ResponseEntity containing the UserDto and session token, or 401 if the password does not match
+     */
+    private ResponseEntity<UserDto> verifyAndCreateSession(User user, String password) {
+        if (!bCryptPasswordEncoder.matches(password, user.getPassword())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        if (bCryptPasswordEncoder.upgradeEncoding(user.getPassword())) {
+            // The hashing policy changed since this hash was stored; re-encode while the raw password is at hand
+            user.setPassword(bCryptPasswordEncoder.encode(password));
+            userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
+        }
 
-        Session session = createSession(user, token);
-        sessionRepository.save(session);
+        Date expiringAt = new Date(System.currentTimeMillis() + jwtProperties.getTtl().toMillis());
+        String token = generateToken(user, expiringAt);
+
+        Session session = createSession(user, token, expiringAt);
+        sessionStore.create(session);
 
         UserDto userDto = UserDto.from(user);
         MultiValueMapAdapter<String, String> headers = new MultiValueMapAdapter<>(new HashMap<>());
@@ -80,19 +153,66 @@ public class AuthService {
      * @return a ResponseEntity indicating the logout status
      */
     public ResponseEntity<Void> logout(String token, Long userId) {
-        Optional<Session> sessionOptional = sessionRepository.findByTokenAndUser_Id(token, userId);
+        if (userId == null || token == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
 
-        if (sessionOptional.isEmpty()) {
+        byte[] tokenHash = TokenDigests.sha256(token);
+        if (!sessionStore.end(tokenHash, userId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
 
-        Session session = sessionOptional.get();
-        session.setSessionStatus(SessionStatus.ENDED);
-        sessionRepository.save(session);
+        revokedTokenFilter.add(tokenHash);
 
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Checks whether the caller may list or end the sessions of a user: users may manage their own sessions,
+     * and holders of the {@value #ADMIN_AUTHORITY} authority those of anyone.
+     *
+     * @param authentication the authenticated caller, or null if the request is anonymous
+     * @param userId         the ID of the user whose sessions are requested
+     * @return true if the caller is that user or an administrator
+     */
+    public boolean canManageSessions(Authentication authentication, Long userId) {
+        if (authentication == null || !authentication.isAuthenticated() || userId == null) {
+            return false;
+        }
+        if (AuthorityUtils.authorityListToSet(authentication.getAuthorities()).contains(ADMIN_AUTHORITY)) {
+            return true;
+        }
+        return userRepository.findById(userId)
+                .map(user -> user.getEmail().equals(authentication.getName()))
+                .orElse(false);
+    }
+
+    /**
+     * Lists the active sessions of a user.
+     *
+     * @param userId the user's ID
+     * @return the user's active, unexpired sessions
+     */
+    public List<SessionDto> getActiveSessions(Long userId) {
+        return sessionStore.findActive(userId, Instant.now()).stream()
+                .map(SessionDto::from)
+                .toList();
+    }
+
+    /**
+     * Ends every active session of a user, for example when the account is compromised.
+     * The ended tokens are added to the revocation filter, so stateless validation on this node rejects them
+     * immediately; other nodes pick them up on their next filter rebuild.
+     *
+     * @param userId the user's ID
+     * @return the number of tokens that are now revoked
+     */
+    public int endAllSessions(Long userId) {
+        List<byte[]> tokenHashes = sessionStore.endAll(userId, Instant.now());
+        tokenHashes.forEach(revokedTokenFilter::add);
+        return tokenHashes.size();
+    }
+
     /**
      * Handles user sign-up by creating a new user and saving it to the repository.
      *
@@ -106,66 +226,86 @@ public class AuthService {
         user.setPassword(bCryptPasswordEncoder.encode(password));
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(email));
         return UserDto.from(savedUser);
     }
 
     /**
      * Validates a session token for a given user ID.
+     * The signature, expiry and user ID claim are checked in memory first. With stateless validation
+     * the session store is only consulted when the revocation filter reports the token as possibly revoked.
      *
      * @param token  the session token
      * @param userId the user's ID
      * @return the session status, or null if the session is invalid
      */
     public SessionStatus validate(String token, Long userId) {
-        Optional<Session> sessionOptional = sessionRepository.findByTokenAndUser_Id(token, userId);
+        Claims claims = parseClaims(token);
 
-        if (sessionOptional.isEmpty()) {
+        if (claims == null || userId == null || !userId.equals(claims.get("userId", Long.class))) {
             return null;
         }
 
-        SecretKey key = generateSecretKey();
-        Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        byte[] tokenHash = TokenDigests.sha256(token);
+        if (jwtProperties.isStatelessValidation() && !revokedTokenFilter.mightContain(tokenHash)) {
+            return SessionStatus.ACTIVE;
+        }
 
-        // Additional validation logic can be added here if needed
-        return SessionStatus.ACTIVE;
+        return sessionStore.find(tokenHash, userId)
+                .map(Session::getSessionStatus)
+                .orElse(null);
     }
 
     /**
      * Generates a JWT token for the given user.
+     * Package-private so that benchmarks can measure it directly.
      *
-     * @param user the user for whom the token is generated
+     * @param user       the user for whom the token is generated
+     * @param expiringAt the expiration time of the token
      * @return the generated token
      */
-    private String generateToken(User user) {
-        String content = String.format("{\"userId\": %d, \"email\": \"%s\", \"roles\": [\"USER\", \"ADMIN\"], \"exp\": %d}",
-                user.getId(), user.getEmail(), System.currentTimeMillis() / 1000 + 3600);
-        MacAlgorithm alg = Jwts.SIG.HS256;
-        SecretKey key = alg.key().build();
-        return Jwts.builder().content(content).signWith(key, alg).compact();
+    String generateToken(User user, Date expiringAt) {
+        return Jwts.builder()
+                .claim("userId", user.getId())
+                .claim("email", user.getEmail())
+                .claim("roles", AuthorityUtils.authorityListToSet(AuthorityRegistry.authoritiesFor(user.getRoles())))
+                .issuedAt(new Date())
+                .expiration(expiringAt)
+                .signWith(jwtSigningKey, Jwts.SIG.HS256)
+                .compact();
     }
 
     /**
-     * Creates a new session for the given user and token.
+     * Verifies the signature and expiry of a token and returns its claims.
      *
-     * @param user  the user
      * @param token the session token
-     * @return the created session
+     * @return the token claims, or null if the token is malformed, forged or expired
      */
-    private Session createSession(User user, String token) {
-        Session session = new Session();
-        session.setSessionStatus(SessionStatus.ACTIVE);
-        session.setToken(token);
-        session.setUser(user);
-        return session;
+    private Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
     }
 
     /**
-     * Generates a secret key for signing JWT tokens.
+     * Creates a new session for the given user and token.
      *
-     * @return the generated secret key
+     * @param user       the user
+     * @param token      the session token
+     * @param expiringAt the expiration time of the session
+     * @return the created session
      */
-    private SecretKey generateSecretKey() {
-        MacAlgorithm alg = Jwts.SIG.HS256;
-        return alg.key().build();
+    private Session createSession(User user, String token, Date expiringAt) {
+        Session session = new Session();
+        session.setSessionStatus(SessionStatus.ACTIVE);
+        session.setTokenHash(TokenDigests.sha256(token));
+        session.setExpiringAt(expiringAt);
+        session.setUser(user);
+        return session;
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.dtos.UserRolesResultDto;
+import com.ecommerce.userservice.models.Role;
+import com.ecommerce.userservice.repositories.RoleRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for replacing the roles of many users at once.
+ * All role IDs are resolved in one query, and changes are written to the {@code user_roles} join table with
+ * JDBC batch inserts and deletes, one short transaction per chunk of users. Only the rows that actually change
+ * are touched, so re-running the same sync is cheap.
+ *
+ * @author mahip.bhatt
+ */
+@Service
+public class BulkUserRoleService {
+
+    /**
+     * Number of users handled per transaction.
+     */
+    static final int CHUNK_SIZE = 1_000;
+
+    static final String SELECT_USER_EMAILS = "select id, email from user where id in (:ids)";
+    static final String SELECT_USER_ROLES = "select user_id, roles_id from user_roles where user_id in (:ids)";
+    static final String INSERT_USER_ROLE = "insert into user_roles (user_id, roles_id) values (?, ?)";
+    static final String DELETE_USER_ROLE = "delete from user_roles where user_id = ? and roles_id = ?";
+
+    private final RoleRepository roleRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructor for BulkUserRoleService.
+     *
+     * @param roleRepository      the repository for role data
+     * @param jdbcTemplate        the JDBC template used for the batched join table writes
+     * @param transactionTemplate the template used to run each chunk in its own transaction
+     * @param eventPublisher      the publisher for user change events
+     */
+    public BulkUserRoleService(RoleRepository roleRepository, NamedParameterJdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher) {
+        this.roleRepository = roleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Replaces the roles of each given user with the given role IDs. Unknown role IDs are ignored.
+     *
+     * @param roleIdsByUserId the role IDs to assign, keyed by user ID
+     * @return one result per user, in request order
+     */
+    public List<UserRolesResultDto> setUserRoles(Map<Long, List<Long>> roleIdsByUserId) {
+        Map<Long, Set<Long>> requested = new HashMap<>();
+        roleIdsByUserId.forEach((userId, roleIds) -> requested.put(userId,
+                roleIds == null ? Set.of() : roleIds.stream().filter(Objects::nonNull).collect(Collectors.toSet())));
+        Set<Long> knownRoleIds = resolveRoleIds(requested.values());
+
+        List<Long> userIds = roleIdsByUserId.keySet().stream().filter(Objects::nonNull).toList();
+        List<UserRolesResultDto> results = new ArrayList<>(userIds.size());
+        for (int from = 0; from < userIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(userIds.size(), from + CHUNK_SIZE));
+            Map<Long, String> changedUsers = new HashMap<>();
+            List<UserRolesResultDto> chunkResults = transactionTemplate.execute(
+                    status -> applyChunk(chunk, requested, knownRoleIds, changedUsers));
+            results.addAll(Objects.requireNonNull(chunkResults));
+            // Publish only after the chunk has committed, so listeners reload the new roles
+            changedUsers.values().forEach(email -> eventPublisher.publishEvent(new UserChangedEvent(email)));
+        }
+        return results;
+    }
+
+    /**
+     * Loads all requested role IDs that exist, in a single query.
+     *
+     * @param requestedRoleIds the role IDs requested per user
+     * @return the IDs of the existing roles
+     */
+    private Set<Long> resolveRoleIds(Collection<Set<Long>> requestedRoleIds) {
+        List<Long> roleIds = requestedRoleIds.stream().flatMap(Set::stream).distinct().toList();
+        if (roleIds.isEmpty()) {
+            return Set.of();
+        }
+        return roleRepository.findAllByIdIn(roleIds).stream().map(Role::getId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Applies the role changes for one chunk of users within the current transaction.
+     *
+     * @param userIds      the users in this chunk
+     * @param requested    the requested role IDs per user
+     * @param knownRoleIds the role IDs that exist
+     * @param changedUsers collects the email of every user whose roles changed, keyed by user ID
+     * @return the results for this chunk
+     */
+    private List<UserRolesResultDto> applyChunk(List<Long> userIds, Map<Long, Set<Long>> requested,
+                                                Set<Long> knownRoleIds, Map<Long, String> changedUsers) {
+        Map<String, Object> params = Map.of("ids", userIds);
+        Map<Long, String> emails = new HashMap<>();
+        jdbcTemplate.query(SELECT_USER_EMAILS, params,
+                (rs, rowNum) -> emails.put(rs.getLong("id"), rs.getString("email")));
+        Map<Long, Set<Long>> current = new HashMap<>();
+        jdbcTemplate.query(SELECT_USER_ROLES, params,
+                (rs, rowNum) -> current.computeIfAbsent(rs.getLong("user_id"), id -> new HashSet<>()).add(rs.getLong("roles_id")));
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<UserRolesResultDto> results = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (!emails.containsKey(userId)) {
+                results.add(new UserRolesResultDto(userId, UserRolesResultDto.Status.USER_NOT_FOUND, 0, 0));
+                continue;
+            }
+            Set<Long> existing = current.getOrDefault(userId, Set.of());
+            Set<Long> target = new HashSet<>(requested.get(userId));
+            target.retainAll(knownRoleIds);
+
+            int added = 0;
+            for (Long roleId : target) {
+                if (!existing.contains(roleId)) {
+                    inserts.add(new Object[]{userId, roleId});
+                    added++;
+                }
+            }
+            int removed = 0;
+            for (Long roleId : existing) {
+                if (!target.contains(roleId)) {
+                    deletes.add(new Object[]{userId, roleId});
+                    removed++;
+                }
+            }
+
+            if (added + removed > 0) {
+                changedUsers.put(userId, emails.get(userId));
+                results.add(new UserRolesResultDto(userId, UserRolesResultDto.Status.UPDATED, added, removed));
+            } else {
+                results.add(new UserRolesResultDto(userId, UserRolesResultDto.Status.UNCHANGED, 0, 0));
+            }
+        }
+
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(DELETE_USER_ROLE, deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_USER_ROLE, inserts);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.security.ReaperProperties;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Background job that deletes expired OAuth2 authorizations and login sessions.
+ * Rows are removed in bounded batches with a pause in between, so each delete holds its locks only briefly
+ * and the job never competes with request traffic for long.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.reaper", name = "enabled", matchIfMissing = true)
+public class ExpiredTokenReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredTokenReaper.class);
+
+    private final AuthorizationRepository authorizationRepository;
+    private final SessionStore sessionStore;
+    private final ReaperProperties reaperProperties;
+    private final TableMetrics authorizations;
+    private final TableMetrics sessions;
+
+    /**
+     * Constructor for ExpiredTokenReaper.
+     *
+     * @param authorizationRepository the repository for OAuth2 authorizations
+     * @param sessionStore            the store for login sessions
+     * @param reaperProperties        the batch and rate configuration
+     * @param meterRegistry           the registry the reaper metrics are published to
+     */
+    public ExpiredTokenReaper(AuthorizationRepository authorizationRepository, SessionStore sessionStore,
+                              ReaperProperties reaperProperties, MeterRegistry meterRegistry) {
+        this.authorizationRepository = authorizationRepository;
+        this.sessionStore = sessionStore;
+        this.reaperProperties = reaperProperties;
+        this.authorizations = new TableMetrics("authorization", meterRegistry);
+        this.sessions = new TableMetrics("session", meterRegistry);
+    }
+
+    /**
+     * Deletes expired authorizations and sessions.
+     */
+    @Scheduled(fixedDelayString = "${auth.reaper.interval:PT10M}", initialDelayString = "${auth.reaper.interval:PT10M}")
+    public void reap() {
+        Instant now = Instant.now();
+        long authorizationsDeleted = reap(authorizations, limit -> {
+            List<String> ids = authorizationRepository.findExpiredIds(now, Pageable.ofSize(limit));
+            return new Batch(ids.size(), ids.isEmpty() ? 0 : authorizationRepository.deleteAllByIdIn(ids));
+        });
+        long sessionsDeleted = reap(sessions, limit -> {
+            int expired = sessionStore.expire(now, limit);
+            return new Batch(expired, expired);
+        });
+        if (authorizationsDeleted > 0 || sessionsDeleted > 0) {
+            log.info("Reaped {} expired authorizations and {} expired sessions", authorizationsDeleted, sessionsDeleted);
+        }
+    }
+
+    /**
+     * Deletes expired rows from one table, batch by batch, until none are left or the per-run limit is reached.
+     *
+     * @param table     the metrics of the table
+     * @param reapBatch deletes up to the given number of expired rows and reports how many were found and deleted
+     * @return the number of rows deleted
+     */
+    private long reap(TableMetrics table, IntFunction<Batch> reapBatch) {
+        int batchSize = Math.max(1, reaperProperties.getBatchSize());
+        long deleted = 0;
+        for (int i = 0; i < reaperProperties.getMaxBatchesPerRun(); i++) {
+            if (i > 0 && !pause()) {
+                break;
+            }
+            Timer.Sample sample = Timer.start();
+            Batch batch = reapBatch.apply(batchSize);
+            sample.stop(table.batchTimer);
+            table.scanned.increment(batch.scanned());
+            table.deleted.increment(batch.deleted());
+            deleted += batch.deleted();
+            if (batch.scanned() < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Waits between two batches.
+     *
+     * @return {@code false} if the thread was interrupted and the run should stop
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(reaperProperties.getBatchPause().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Outcome of one batch.
+     *
+     * @param scanned the number of expired rows found
+     * @param deleted the number of rows deleted
+     */
+    private record Batch(int scanned, int deleted) {
+    }
+
+    /**
+     * Metrics of the reaper for one table.
+     */
+    private static final class TableMetrics {
+
+        private final Counter scanned;
+        private final Counter deleted;
+        private final Timer batchTimer;
+
+        private TableMetrics(String name, MeterRegistry meterRegistry) {
+            this.scanned = Counter.builder("auth.reaper.rows.scanned")
+                    .description("Expired rows found by the reaper")
+                    .tag("table", name)
+                    .register(meterRegistry);
+            this.deleted = Counter.builder("auth.reaper.rows.deleted")
+                    .description("Expired rows deleted by the reaper")
+                    .tag("table", name)
+                    .register(meterRegistry);
+            this.batchTimer = Timer.builder("auth.reaper.batch")
+                    .description("Time to find and delete one batch of expired rows")
+                    .tag("table", name)
+                    .register(meterRegistry);
+        }
+    }
+}
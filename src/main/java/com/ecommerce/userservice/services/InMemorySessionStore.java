@@ -0,0 +1,342 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.models.SessionStatus;
+import com.ecommerce.userservice.security.LinearProbing;
+import com.ecommerce.userservice.security.SessionPersistenceProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * {@link SessionStore} that keeps sessions in memory on this node.
+ * Sessions are partitioned by user ID into lock stripes, so logins and validations of different users rarely
+ * contend. Each stripe is an open-addressing hash table keyed by the primitive user ID, which avoids boxing a
+ * {@code Long} per lookup. Expired sessions are treated as absent on lookup and removed by {@link #expire}
+ * or when the same user logs in again.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.session", name = "store", havingValue = "memory")
+public class InMemorySessionStore implements SessionStore {
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private int sweepCursor;
+
+    /**
+     * Constructor for InMemorySessionStore.
+     *
+     * @param sessionPersistenceProperties the store configuration
+     */
+    public InMemorySessionStore(SessionPersistenceProperties sessionPersistenceProperties) {
+        int stripeCount = LinearProbing.ceilPowerOfTwo(sessionPersistenceProperties.getMemoryStripes());
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeShift = LinearProbing.stripeShift(stripeCount);
+    }
+
+    @Override
+    public void create(Session session) {
+        long userId = session.getUser().getId();
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.writeLock().lock();
+        try {
+            List<Session> sessions = stripe.get(userId);
+            if (sessions == null) {
+                sessions = new ArrayList<>(2);
+                stripe.put(userId, sessions);
+            } else {
+                sessions.removeIf(existing -> isExpired(existing, now));
+            }
+            sessions.add(session);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Session> find(byte[] tokenHash, long userId) {
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.readLock().lock();
+        try {
+            Session session = find(stripe.get(userId), tokenHash);
+            return session == null || isExpired(session, System.currentTimeMillis())
+                    ? Optional.empty()
+                    : Optional.of(session);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean end(byte[] tokenHash, long userId) {
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.writeLock().lock();
+        try {
+            Session session = find(stripe.get(userId), tokenHash);
+            if (session == null || isExpired(session, System.currentTimeMillis())) {
+                return false;
+            }
+            session.setSessionStatus(SessionStatus.ENDED);
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Session> findActive(long userId, Instant now) {
+        long nowMillis = now.toEpochMilli();
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.readLock().lock();
+        try {
+            List<Session> sessions = stripe.get(userId);
+            List<Session> active = new ArrayList<>();
+            if (sessions != null) {
+                for (Session session : sessions) {
+                    if (session.getSessionStatus() == SessionStatus.ACTIVE && !isExpired(session, nowMillis)) {
+                        active.add(session);
+                    }
+                }
+            }
+            return active;
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<byte[]> endAll(long userId, Instant now) {
+        long nowMillis = now.toEpochMilli();
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.writeLock().lock();
+        try {
+            List<Session> sessions = stripe.get(userId);
+            List<byte[]> tokenHashes = new ArrayList<>();
+            if (sessions != null) {
+                for (Session session : sessions) {
+                    if (!isExpired(session, nowMillis)) {
+                        session.setSessionStatus(SessionStatus.ENDED);
+                        tokenHashes.add(session.getTokenHash());
+                    }
+                }
+            }
+            return tokenHashes;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int expire(Instant now, int limit) {
+        long nowMillis = now.toEpochMilli();
+        int removed = 0;
+        // Resume where the previous call stopped, one whole stripe at a time
+        for (int visited = 0; visited < stripes.length && removed < limit; visited++) {
+            int index;
+            synchronized (this) {
+                index = sweepCursor;
+                sweepCursor = (sweepCursor + 1) & (stripes.length - 1);
+            }
+            Stripe stripe = stripes[index];
+            stripe.lock.writeLock().lock();
+            try {
+                removed += stripe.removeExpired(nowMillis);
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public List<byte[]> findEndedTokenHashes(Instant now) {
+        long nowMillis = now.toEpochMilli();
+        List<byte[]> tokenHashes = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                stripe.forEach(session -> {
+                    if (session.getSessionStatus() == SessionStatus.ENDED && !isExpired(session, nowMillis)) {
+                        tokenHashes.add(session.getTokenHash());
+                    }
+                });
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return tokenHashes;
+    }
+
+    /**
+     * Selects the stripe of a user from the high bits of the mixed user ID.
+     *
+     * @param userId the user ID
+     * @return the stripe
+     */
+    private Stripe stripeFor(long userId) {
+        return stripes[LinearProbing.stripeIndex(mix(userId), stripeShift)];
+    }
+
+    private static Session find(List<Session> sessions, byte[] tokenHash) {
+        if (sessions == null || tokenHash == null) {
+            return null;
+        }
+        for (Session session : sessions) {
+            if (Arrays.equals(tokenHash, session.getTokenHash())) {
+                return session;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isExpired(Session session, long nowMillis) {
+        return session.getExpiringAt() != null && session.getExpiringAt().getTime() <= nowMillis;
+    }
+
+    /**
+     * Spreads the bits of a user ID, since sequential and Snowflake IDs both have highly regular low bits.
+     *
+     * @param key the user ID
+     * @return the mixed value
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * One lock stripe: a linear-probing hash table from user ID to that user's sessions.
+     * All access must hold the stripe lock.
+     */
+    private static final class Stripe implements LinearProbing.Table {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private long[] keys = new long[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private List<Session> get(long key) {
+            int slot = slotOf(key);
+            return slot < 0 ? null : (List<Session>) values[slot];
+        }
+
+        private void put(long key, List<Session> sessions) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    values[slot] = sessions;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = sessions;
+            size++;
+        }
+
+        /**
+         * Removes expired sessions, and the users left without sessions.
+         *
+         * @param nowMillis the current time
+         * @return the number of sessions removed
+         */
+        @SuppressWarnings("unchecked")
+        private int removeExpired(long nowMillis) {
+            int removed = 0;
+            for (Object value : values) {
+                if (value != null) {
+                    List<Session> sessions = (List<Session>) value;
+                    int before = sessions.size();
+                    sessions.removeIf(session -> isExpired(session, nowMillis));
+                    removed += before - sessions.size();
+                }
+            }
+            size -= LinearProbing.removeIf(this, slot -> ((List<Session>) values[slot]).isEmpty());
+            return removed;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void forEach(Consumer<Session> action) {
+            for (Object value : values) {
+                if (value != null) {
+                    ((List<Session>) value).forEach(action);
+                }
+            }
+        }
+
+        private int slotOf(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        @Override
+        public int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean isUsed(int slot) {
+            return values[slot] != null;
+        }
+
+        @Override
+        public int homeSlot(int slot) {
+            return (int) mix(keys[slot]) & (keys.length - 1);
+        }
+
+        @Override
+        public void move(int from, int to) {
+            keys[to] = keys[from];
+            values[to] = values[from];
+            values[from] = null;
+        }
+
+        @Override
+        public void clear(int slot) {
+            values[slot] = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[capacity];
+            values = new Object[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], (List<Session>) oldValues[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.models.SessionStatus;
+import com.ecommerce.userservice.repositories.SessionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link SessionStore} backed by the {@code session} table.
+ * New sessions go through the {@link SessionWriteBuffer}, so they are written synchronously or write-behind
+ * according to {@code auth.session.durability}.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.session", name = "store", havingValue = "jpa", matchIfMissing = true)
+public class JpaSessionStore implements SessionStore {
+
+    private final SessionRepository sessionRepository;
+    private final SessionWriteBuffer sessionWriteBuffer;
+
+    /**
+     * Constructor for JpaSessionStore.
+     *
+     * @param sessionRepository  the repository for session tokens
+     * @param sessionWriteBuffer the writer for new sessions
+     */
+    public JpaSessionStore(SessionRepository sessionRepository, SessionWriteBuffer sessionWriteBuffer) {
+        this.sessionRepository = sessionRepository;
+        this.sessionWriteBuffer = sessionWriteBuffer;
+    }
+
+    @Override
+    public void create(Session session) {
+        sessionWriteBuffer.save(session);
+    }
+
+    @Override
+    public Optional<Session> find(byte[] tokenHash, long userId) {
+        return sessionWriteBuffer.findPending(tokenHash, userId)
+                .or(() -> sessionRepository.findByTokenHashAndUser_Id(tokenHash, userId));
+    }
+
+    @Override
+    public boolean end(byte[] tokenHash, long userId) {
+        // A queued session must be inserted before it can be ended
+        sessionWriteBuffer.flush();
+        Optional<Session> sessionOptional = sessionRepository.findByTokenHashAndUser_Id(tokenHash, userId);
+        if (sessionOptional.isEmpty()) {
+            return false;
+        }
+
+        Session session = sessionOptional.get();
+        session.setSessionStatus(SessionStatus.ENDED);
+        sessionRepository.save(session);
+        return true;
+    }
+
+    @Override
+    public List<Session> findActive(long userId, Instant now) {
+        sessionWriteBuffer.flush();
+        return sessionRepository.findByUserIdAndSessionStatus(userId, SessionStatus.ACTIVE, Date.from(now));
+    }
+
+    @Override
+    public List<byte[]> endAll(long userId, Instant now) {
+        sessionWriteBuffer.flush();
+        sessionRepository.updateSessionStatusByUserId(userId, SessionStatus.ACTIVE, SessionStatus.ENDED);
+        // Read the tokens after the update, so a session created in between is not missed
+        return sessionRepository.findTokenHashesByUserIdAndSessionStatus(userId, SessionStatus.ENDED, Date.from(now));
+    }
+
+    @Override
+    public int expire(Instant now, int limit) {
+        List<Long> ids = sessionRepository.findIdsByExpiringAtBeforeOrNull(Date.from(now), Pageable.ofSize(limit));
+        return ids.isEmpty() ? 0 : sessionRepository.deleteAllByIdIn(ids);
+    }
+
+    @Override
+    public List<byte[]> findEndedTokenHashes(Instant now) {
+        return sessionRepository.findTokenHashesBySessionStatusAndExpiringAtAfter(SessionStatus.ENDED, Date.from(now));
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.security.LoginExecutorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pool for the CPU-heavy part of a login (password hash verification).
+ * The pool is sized to the core count with a fixed-size queue, so a burst of logins cannot occupy
+ * the servlet threads that serve the cheap endpoints; once the queue is full, new work is rejected
+ * immediately instead of piling up.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+public class PasswordVerificationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    /**
+     * Constructor for PasswordVerificationExecutor.
+     *
+     * @param loginExecutorProperties the pool configuration
+     * @param meterRegistry           the registry the pool metrics are published to
+     */
+    public PasswordVerificationExecutor(LoginExecutorProperties loginExecutorProperties, MeterRegistry meterRegistry) {
+        int threads = loginExecutorProperties.getThreads() > 0
+                ? loginExecutorProperties.getThreads()
+                : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-verification-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, loginExecutorProperties.getQueueCapacity())),
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.login.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Logins waiting for a password verification thread")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("auth.login.queue.wait")
+                .description("Time a login waited for a password verification thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.login.rejected")
+                .description("Logins rejected because the password verification queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a task on the verification pool.
+     *
+     * @param task the task
+     * @param <T>  the result type
+     * @return a future completed with the result of the task
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw ex;
+        }
+    }
+
+    /**
+     * Stops accepting work and lets queued verifications finish.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
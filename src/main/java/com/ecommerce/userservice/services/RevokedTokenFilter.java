@@ -0,0 +1,149 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.security.RevocationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process Bloom filter of revoked session tokens, keyed by the SHA-256 digest of the token.
+ * A negative answer is definitive, so tokens that were never revoked can be validated without any
+ * database I/O; a positive answer only means "maybe revoked" and must be confirmed against the session store.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+public class RevokedTokenFilter {
+
+    private final SessionStore sessionStore;
+    private final int numBits;
+    private final int numHashes;
+    private final Object publishLock = new Object();
+
+    private volatile AtomicLongArray bits;
+    private AtomicLongArray rebuilding;
+
+    /**
+     * Constructor for RevokedTokenFilter.
+     *
+     * @param sessionStore         the session store used to rebuild the filter
+     * @param revocationProperties the filter sizing configuration
+     */
+    public RevokedTokenFilter(SessionStore sessionStore, RevocationProperties revocationProperties) {
+        this.sessionStore = sessionStore;
+        int expectedInsertions = Math.max(1, revocationProperties.getExpectedInsertions());
+        double falsePositiveRate = revocationProperties.getFalsePositiveRate();
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) / 64);
+    }
+
+    /**
+     * Records a token as revoked. Must be called after the session end has been committed, so that a rebuild
+     * either sees the ended session in the store or sees this call.
+     *
+     * @param tokenHash the SHA-256 digest of the session token
+     */
+    public void add(byte[] tokenHash) {
+        long[] hashes = hash(tokenHash);
+        // Under the lock, so a rebuild cannot publish its array between the two writes and drop this token
+        synchronized (publishLock) {
+            setBits(bits, hashes);
+            if (rebuilding != null) {
+                setBits(rebuilding, hashes);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a token may have been revoked.
+     *
+     * @param tokenHash the SHA-256 digest of the session token
+     * @return {@code false} if the token was definitely never revoked, {@code true} if it may have been
+     */
+    public boolean mightContain(byte[] tokenHash) {
+        long[] hashes = hash(tokenHash);
+        AtomicLongArray current = bits;
+        for (int i = 0; i < numHashes; i++) {
+            int index = index(hashes, i);
+            if ((current.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the filter from the ended sessions that have not yet expired.
+     * Tokens revoked on other nodes are picked up here, and expired tokens drop out, which keeps
+     * the false-positive rate from creeping up over time.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-interval:PT1M}")
+    public void rebuild() {
+        AtomicLongArray next = new AtomicLongArray(bits.length());
+        synchronized (publishLock) {
+            rebuilding = next;
+        }
+        try {
+            List<byte[]> tokenHashes = sessionStore.findEndedTokenHashes(Instant.now());
+            for (byte[] tokenHash : tokenHashes) {
+                setBits(next, hash(tokenHash));
+            }
+            synchronized (publishLock) {
+                bits = next;
+            }
+        } finally {
+            synchronized (publishLock) {
+                rebuilding = null;
+            }
+        }
+    }
+
+    /**
+     * Sets the bits for the given hashes.
+     *
+     * @param target the bit array to update
+     * @param hashes the token hashes
+     */
+    private void setBits(AtomicLongArray target, long[] hashes) {
+        for (int i = 0; i < numHashes; i++) {
+            int index = index(hashes, i);
+            long mask = 1L << index;
+            int word = index >>> 6;
+            long value;
+            do {
+                value = target.get(word);
+                if ((value & mask) != 0) {
+                    break;
+                }
+            } while (!target.compareAndSet(word, value, value | mask));
+        }
+    }
+
+    /**
+     * Computes the i-th bit index using double hashing.
+     *
+     * @param hashes the two base hashes
+     * @param i      the hash function number
+     * @return the bit index
+     */
+    private int index(long[] hashes, int i) {
+        return (int) Long.remainderUnsigned(hashes[0] + i * hashes[1], numBits);
+    }
+
+    /**
+     * Derives two 64-bit hashes from the SHA-256 digest of a token.
+     *
+     * @param tokenHash the SHA-256 digest of the session token
+     * @return the two base hashes
+     */
+    private static long[] hash(byte[] tokenHash) {
+        ByteBuffer buffer = ByteBuffer.wrap(tokenHash);
+        return new long[]{buffer.getLong(), buffer.getLong() | 1L};
+    }
+}
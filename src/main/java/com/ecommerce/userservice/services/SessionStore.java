@@ -0,0 +1,78 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.models.Session;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for login sessions.
+ * The implementation is chosen with {@code auth.session.store}: {@code jpa} keeps sessions in the
+ * {@code session} table, {@code memory} keeps them in this process only.
+ * Sessions are identified by the SHA-256 digest of their token; the token itself is never stored.
+ *
+ * @author mahip.bhatt
+ */
+public interface SessionStore {
+
+    /**
+     * Stores a new session.
+     *
+     * @param session the session, with its token digest, user and expiry set
+     */
+    void create(Session session);
+
+    /**
+     * Finds a session by its token digest and the ID of its user.
+     *
+     * @param tokenHash the SHA-256 digest of the session token
+     * @param userId    the ID of the session's user
+     * @return the session, if found
+     */
+    Optional<Session> find(byte[] tokenHash, long userId);
+
+    /**
+     * Marks a session as ended.
+     *
+     * @param tokenHash the SHA-256 digest of the session token
+     * @param userId    the ID of the session's user
+     * @return {@code true} if the session was found
+     */
+    boolean end(byte[] tokenHash, long userId);
+
+    /**
+     * Retrieves the active, unexpired sessions of a user.
+     *
+     * @param userId the ID of the user
+     * @param now    the current time
+     * @return the sessions
+     */
+    List<Session> findActive(long userId, Instant now);
+
+    /**
+     * Marks every active session of a user as ended.
+     *
+     * @param userId the ID of the user
+     * @param now    the current time
+     * @return the token digests of the user's ended, unexpired sessions, including ones ended earlier
+     */
+    List<byte[]> endAll(long userId, Instant now);
+
+    /**
+     * Removes sessions that expired before the given time, and sessions without an expiry.
+     *
+     * @param now   the current time
+     * @param limit the number of sessions to remove per call; implementations may remove slightly more
+     * @return the number of sessions removed
+     */
+    int expire(Instant now, int limit);
+
+    /**
+     * Retrieves the token digests of ended sessions that have not yet expired.
+     *
+     * @param now the current time
+     * @return the token digests
+     */
+    List<byte[]> findEndedTokenHashes(Instant now);
+}
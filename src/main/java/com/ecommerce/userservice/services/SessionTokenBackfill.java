@@ -0,0 +1,68 @@
+package com.ecommerce.userservice.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off migration that fills in the {@code token_hash} column of sessions written before sessions were keyed by
+ * the digest of their token. Sessions are only looked up by that digest, so without it everyone logged in before
+ * the upgrade would have to log in again. The digest is computed by the database from the old, no longer mapped
+ * {@code token} column, in batches that each commit on their own, once the application is ready.
+ * <p>
+ * Finding the rows to migrate scans the {@code session} table, as the null column it selects on has no usable
+ * index, so the migration is off by default: enable it for one start of one node after upgrading.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.session.token-backfill", name = "enabled", havingValue = "true")
+public class SessionTokenBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenBackfill.class);
+
+    static final int BATCH_SIZE = 500;
+
+    static final String BACKFILL_SQL = "UPDATE session SET token_hash = UNHEX(SHA2(token, 256)) "
+            + "WHERE token_hash IS NULL AND token IS NOT NULL LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for SessionTokenBackfill.
+     *
+     * @param jdbcTemplate the template the updates run through
+     */
+    public SessionTokenBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Backfills the token digest of every session that is missing it.
+     *
+     * @return the number of sessions updated
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public long backfill() {
+        long updated = 0;
+        try {
+            int batch;
+            do {
+                batch = jdbcTemplate.update(BACKFILL_SQL, BATCH_SIZE);
+                updated += batch;
+            } while (batch == BATCH_SIZE);
+        } catch (DataAccessException ex) {
+            log.error("Stopped backfilling session token digests after {} rows", updated, ex);
+            return updated;
+        }
+        if (updated > 0) {
+            log.info("Backfilled the token digests of {} sessions", updated);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,230 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.repositories.SessionRepository;
+import com.ecommerce.userservice.security.SessionPersistenceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes new login sessions to the database, either immediately or write-behind.
+ * In {@link SessionPersistenceProperties.Durability#WRITE_BEHIND} mode a session is queued and kept in an
+ * in-memory index until a background thread has inserted it together with the other sessions queued in the
+ * same few milliseconds, so a login burst costs one commit per batch instead of one per login.
+ * Sessions are visible through {@link #findPending} from the moment they are queued until they are committed.
+ *
+ * @author mahip.bhatt
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.session", name = "store", havingValue = "jpa", matchIfMissing = true)
+public class SessionWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionWriteBuffer.class);
+
+    private final SessionRepository sessionRepository;
+    private final SessionPersistenceProperties sessionPersistenceProperties;
+    private final boolean writeBehind;
+    private final BlockingQueue<Session> queue;
+    private final Map<ByteBuffer, Session> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Timer flushTimer;
+    private final Counter dropped;
+    private final Counter overflowed;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for SessionWriteBuffer.
+     *
+     * @param sessionRepository            the repository for session tokens
+     * @param sessionPersistenceProperties the durability and batching configuration
+     * @param meterRegistry                the registry the buffer metrics are published to
+     */
+    public SessionWriteBuffer(SessionRepository sessionRepository,
+                              SessionPersistenceProperties sessionPersistenceProperties, MeterRegistry meterRegistry) {
+        this.sessionRepository = sessionRepository;
+        this.sessionPersistenceProperties = sessionPersistenceProperties;
+        this.writeBehind = sessionPersistenceProperties.getDurability()
+                == SessionPersistenceProperties.Durability.WRITE_BEHIND;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, sessionPersistenceProperties.getQueueCapacity()));
+
+        Gauge.builder("auth.session.writebehind.pending", queue, BlockingQueue::size)
+                .description("Sessions waiting to be written to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("auth.session.writebehind.flush")
+                .description("Time to insert one batch of write-behind sessions")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("auth.session.writebehind.dropped")
+                .description("Write-behind sessions lost because they failed to insert")
+                .register(meterRegistry);
+        this.overflowed = Counter.builder("auth.session.writebehind.overflowed")
+                .description("Sessions saved synchronously because the write-behind queue was full")
+                .register(meterRegistry);
+
+        if (writeBehind) {
+            this.flusher = new Thread(this::runFlusher, "session-write-behind");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Saves a new session, synchronously or by queueing it for the next batch.
+     *
+     * @param session the session
+     */
+    public void save(Session session) {
+        if (!writeBehind) {
+            sessionRepository.save(session);
+            return;
+        }
+
+        pending.put(ByteBuffer.wrap(session.getTokenHash()), session);
+        if (!queue.offer(session)) {
+            // Queue full: fall back to a synchronous insert rather than losing or blocking the login
+            overflowed.increment();
+            try {
+                sessionRepository.save(session);
+            } finally {
+                pending.remove(ByteBuffer.wrap(session.getTokenHash()), session);
+            }
+            return;
+        }
+        if (queue.size() >= sessionPersistenceProperties.getFlushBatchSize()) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Looks up a session that has been saved but not yet committed.
+     *
+     * @param tokenHash the SHA-256 digest of the session token
+     * @param userId    the ID of the session's user
+     * @return the queued session, if any
+     */
+    public Optional<Session> findPending(byte[] tokenHash, Long userId) {
+        if (!writeBehind || tokenHash == null) {
+            return Optional.empty();
+        }
+        Session session = pending.get(ByteBuffer.wrap(tokenHash));
+        if (session == null || session.getUser() == null || !session.getUser().getId().equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * Writes every queued session and waits for a batch the background thread may be writing.
+     * Callers that are about to modify a session in the database flush first, so their change cannot be
+     * overtaken by the queued insert.
+     */
+    public void flush() {
+        if (!writeBehind) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            int batchSize = Math.max(1, sessionPersistenceProperties.getFlushBatchSize());
+            List<Session> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Inserts one batch in a single transaction and removes it from the pending index.
+     * If the batch fails, its sessions are retried one at a time so a single bad row does not take the rest of the
+     * batch down with it; only the sessions that also fail on their own are dropped.
+     *
+     * @param batch the sessions
+     */
+    private void write(List<Session> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            sessionRepository.saveAll(batch);
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                drop(ex);
+                return;
+            }
+            log.warn("Failed to write a batch of {} queued sessions; retrying them one at a time", batch.size(), ex);
+            for (Session session : batch) {
+                try {
+                    sessionRepository.save(session);
+                } catch (RuntimeException saveEx) {
+                    drop(saveEx);
+                }
+            }
+        } finally {
+            sample.stop(flushTimer);
+            batch.forEach(session -> pending.remove(ByteBuffer.wrap(session.getTokenHash()), session));
+        }
+    }
+
+    /**
+     * Counts and logs a queued session that could not be written.
+     *
+     * @param ex the failure
+     */
+    private void drop(RuntimeException ex) {
+        dropped.increment();
+        log.error("Failed to write a queued session; its holder will have to log in again", ex);
+    }
+
+    /**
+     * Flushes the queue every flush interval, or earlier when a full batch is waiting.
+     */
+    private void runFlusher() {
+        long intervalNanos = Math.max(1, sessionPersistenceProperties.getFlushInterval().toNanos());
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                log.error("Session write-behind flush failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Stops the background thread and writes the sessions that are still queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(sessionPersistenceProperties.getFlushInterval().toMillis() + 1_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.userservice.services;
+
+import lombok.Getter;
+
+/**
+ * Application event published whenever a user's credentials or roles are written.
+ * Listeners holding derived copies of the user, such as the user-details cache, drop them on receipt.
+ *
+ * @author mahip.bhatt
+ */
+@Getter
+public class UserChangedEvent {
+
+    /**
+     * The email address of the changed user.
+     */
+    private final String email;
+
+    /**
+     * Constructs a new {@code UserChangedEvent} for the given user.
+     *
+     * @param email the email address of the changed user
+     */
+    public UserChangedEvent(String email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,528 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.dtos.UserImportResultDto;
+import com.ecommerce.userservice.models.SnowflakeIdAllocator;
+import com.ecommerce.userservice.security.UserImportProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Service for importing users in bulk, e.g. when migrating accounts from a legacy system.
+ * Records are streamed from a CSV or NDJSON input, so the file is never held in memory. Each batch of records
+ * has its plain-text passwords hashed in parallel on a dedicated fork-join pool while the next batch is read,
+ * and is then inserted with a single JDBC batch in its own transaction, with IDs from the shared
+ * {@link SnowflakeIdAllocator}. Passwords that are already BCrypt hashes are stored as they are.
+ * A batch that collides with users inserted concurrently (e.g. by a signup or another import) on the unique email
+ * index is rolled back and retried, skipping the emails that now exist.
+ *
+ * @author mahip.bhatt
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    static final String SELECT_EXISTING_EMAILS = "select email from user where email in (:emails)";
+    static final String INSERT_USER = "insert into user (id, email, password) values (?, ?, ?)";
+
+    /**
+     * A BCrypt hash in modular crypt format: version, two-digit cost, then 22 characters of salt and 31 of digest.
+     */
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+
+    /**
+     * Minimum time between two progress log lines.
+     */
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Number of times a batch is written before a duplicate email is given up on.
+     */
+    static final int MAX_WRITE_ATTEMPTS = 3;
+
+    /**
+     * Supported input formats.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values with a header row naming the {@code email} and {@code password} and/or
+         * {@code password_hash} columns.
+         */
+        CSV,
+        /**
+         * One JSON object per line with an {@code email} and a {@code password} or {@code passwordHash} field.
+         */
+        NDJSON
+    }
+
+    private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SnowflakeIdAllocator snowflakeIdAllocator;
+    private final ObjectMapper objectMapper;
+    private final UserImportProperties userImportProperties;
+    private final ForkJoinPool hashingPool;
+
+    /**
+     * Constructor for UserImportService.
+     *
+     * @param bCryptPasswordEncoder the encoder for plain-text passwords
+     * @param jdbcTemplate          the JDBC template used for the batched inserts
+     * @param transactionTemplate   the template used to run each batch in its own transaction
+     * @param snowflakeIdAllocator  the allocator for the IDs of the new users
+     * @param objectMapper          the mapper used to parse NDJSON records
+     * @param userImportProperties  the batch and pool configuration
+     */
+    public UserImportService(BCryptPasswordEncoder bCryptPasswordEncoder, NamedParameterJdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate, SnowflakeIdAllocator snowflakeIdAllocator,
+                             ObjectMapper objectMapper, UserImportProperties userImportProperties) {
+        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.snowflakeIdAllocator = snowflakeIdAllocator;
+        this.objectMapper = objectMapper;
+        this.userImportProperties = userImportProperties;
+        // By default leave most cores to the login pool, which hashes with the same encoder
+        int parallelism = userImportProperties.getParallelism() > 0
+                ? userImportProperties.getParallelism()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        this.hashingPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("user-import-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Imports the users read from the given input. Records whose email already exists, or appears earlier in the
+     * same batch, are skipped; invalid records are rejected and reported without stopping the import.
+     * Batches that were written before a failure stay committed.
+     *
+     * @param input  the CSV or NDJSON input, read as UTF-8
+     * @param format the format of the input
+     * @return the counts and throughput of the import
+     * @throws IOException              if the input cannot be read
+     * @throws IllegalArgumentException if a CSV input has no usable header row
+     */
+    public UserImportResultDto importUsers(InputStream input, Format format) throws IOException {
+        Progress progress = new Progress(Math.max(0, userImportProperties.getMaxErrors()));
+        int batchSize = Math.max(1, userImportProperties.getBatchSize());
+        ForkJoinTask<List<Object[]>> pending = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RecordReader records = format == Format.CSV ? new CsvRecordReader(reader) : new NdjsonRecordReader(reader);
+            List<ImportRecord> batch;
+            while (!(batch = readBatch(records, batchSize, progress)).isEmpty()) {
+                List<ImportRecord> toHash = batch;
+                // Hash this batch in the background while the previous one is written and the next one is read
+                ForkJoinTask<List<Object[]>> hashed = hashingPool.submit(() -> hash(toHash));
+                if (pending != null) {
+                    write(pending.join(), progress);
+                }
+                pending = hashed;
+            }
+            if (pending != null) {
+                write(pending.join(), progress);
+                pending = null;
+            }
+        } finally {
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+
+        UserImportResultDto result = progress.toResult();
+        log.info("User import finished: {} imported, {} skipped, {} rejected in {} ms ({} records/s)",
+                result.getImported(), result.getSkipped(), result.getRejected(), result.getElapsedMillis(),
+                Math.round(result.getRecordsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Reads the next batch of valid records. Invalid records and duplicates within the batch are counted
+     * and left out.
+     *
+     * @param records   the record source
+     * @param batchSize the maximum number of records in the batch
+     * @param progress  the running totals
+     * @return the batch, empty at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    private List<ImportRecord> readBatch(RecordReader records, int batchSize, Progress progress) throws IOException {
+        List<ImportRecord> batch = new ArrayList<>(batchSize);
+        Set<String> emails = new HashSet<>();
+        while (batch.size() < batchSize) {
+            ImportRecord record;
+            try {
+                record = records.next();
+            } catch (IllegalArgumentException ex) {
+                progress.reject(records.lineNumber(), ex.getMessage());
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+            String error = validate(record);
+            if (error != null) {
+                progress.reject(record.line(), error);
+            } else if (!emails.add(record.email().toLowerCase(Locale.ROOT))) {
+                progress.skipped++;
+            } else {
+                batch.add(record);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Checks a record for the fields every user needs.
+     *
+     * @param record the record
+     * @return the reason the record is invalid, or null if it is valid
+     */
+    private static String validate(ImportRecord record) {
+        if (record.email() == null || record.email().isEmpty()) {
+            return "missing email";
+        }
+        if (record.password() == null || record.password().isEmpty()) {
+            return "missing password";
+        }
+        if (record.hashed() && !BCRYPT_HASH.matcher(record.password()).matches()) {
+            return "password hash is not a BCrypt hash";
+        }
+        return null;
+    }
+
+    /**
+     * Hashes the plain-text passwords of a batch, in parallel on the pool running this task.
+     *
+     * @param batch the records
+     * @return the insert parameters (email, password hash) for each record, in input order
+     */
+    private List<Object[]> hash(List<ImportRecord> batch) {
+        return batch.parallelStream()
+                .map(record -> new Object[]{record.email(),
+                        record.hashed() ? record.password() : bCryptPasswordEncoder.encode(record.password())})
+                .toList();
+    }
+
+    /**
+     * Inserts one batch of users in its own transaction, skipping emails that already exist. If a user with one of
+     * the emails is inserted concurrently, the transaction fails on the unique email index and is retried.
+     *
+     * @param rows     the insert parameters (email, password hash)
+     * @param progress the running totals
+     * @throws DuplicateKeyException if the batch still collides after {@value #MAX_WRITE_ATTEMPTS} attempts
+     */
+    private void write(List<Object[]> rows, Progress progress) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeOnce(rows, progress);
+                return;
+            } catch (DuplicateKeyException ex) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    throw ex;
+                }
+                log.debug("User import batch collided with a concurrent insert, retrying", ex);
+            }
+        }
+    }
+
+    /**
+     * Makes one attempt at inserting a batch of users in its own transaction.
+     *
+     * @param rows     the insert parameters (email, password hash)
+     * @param progress the running totals
+     */
+    private void writeOnce(List<Object[]> rows, Progress progress) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            List<String> emails = rows.stream().map(row -> (String) row[0]).toList();
+            Set<String> existing = new HashSet<>();
+            jdbcTemplate.queryForList(SELECT_EXISTING_EMAILS, Map.of("emails", emails), String.class)
+                    .forEach(email -> existing.add(email.toLowerCase(Locale.ROOT)));
+            List<Object[]> newRows = existing.isEmpty() ? rows : rows.stream()
+                    .filter(row -> !existing.contains(((String) row[0]).toLowerCase(Locale.ROOT)))
+                    .toList();
+            if (!newRows.isEmpty()) {
+                List<Object[]> inserts = newRows.stream()
+                        .map(row -> new Object[]{snowflakeIdAllocator.nextId(), row[0], row[1]})
+                        .toList();
+                jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_USER, inserts);
+            }
+            return newRows.size();
+        });
+        int count = inserted == null ? 0 : inserted;
+        progress.imported += count;
+        progress.skipped += rows.size() - count;
+        progress.logIfDue();
+    }
+
+    /**
+     * Stops the hashing pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    /**
+     * A user read from the input.
+     *
+     * @param line     the line number the record was read from
+     * @param email    the email
+     * @param password the plain-text password, or the BCrypt hash if {@code hashed}
+     * @param hashed   whether the password is already hashed
+     */
+    private record ImportRecord(long line, String email, String password, boolean hashed) {
+    }
+
+    /**
+     * Source of import records.
+     */
+    private interface RecordReader {
+
+        /**
+         * Reads the next record, skipping blank lines.
+         *
+         * @return the record, or null at the end of the input
+         * @throws IOException              if the input cannot be read
+         * @throws IllegalArgumentException if the current line is malformed
+         */
+        ImportRecord next() throws IOException;
+
+        /**
+         * @return the number of the line read last
+         */
+        long lineNumber();
+    }
+
+    /**
+     * Reads records from CSV with a header row. Fields may be quoted; quoted fields cannot span lines.
+     */
+    private static final class CsvRecordReader implements RecordReader {
+
+        private final BufferedReader reader;
+        private long lineNumber;
+        private int emailColumn = -1;
+        private int passwordColumn = -1;
+        private int passwordHashColumn = -1;
+
+        private CsvRecordReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    readHeader(line);
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public ImportRecord next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = split(line);
+                String passwordHash = field(fields, passwordHashColumn);
+                if (passwordHash != null && !passwordHash.isEmpty()) {
+                    return new ImportRecord(lineNumber, field(fields, emailColumn), passwordHash, true);
+                }
+                return new ImportRecord(lineNumber, field(fields, emailColumn), field(fields, passwordColumn), false);
+            }
+            return null;
+        }
+
+        @Override
+        public long lineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Locates the columns by name.
+         *
+         * @param line the header row
+         * @throws IllegalArgumentException if the header lacks the email or both password columns
+         */
+        private void readHeader(String line) {
+            List<String> columns = split(line.startsWith("\uFEFF") ? line.substring(1) : line);
+            for (int i = 0; i < columns.size(); i++) {
+                switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "email" -> emailColumn = i;
+                    case "password" -> passwordColumn = i;
+                    case "password_hash" -> passwordHashColumn = i;
+                    default -> {
+                    }
+                }
+            }
+            if (emailColumn < 0 || (passwordColumn < 0 && passwordHashColumn < 0)) {
+                throw new IllegalArgumentException(
+                        "CSV header must name an email column and a password or password_hash column");
+            }
+        }
+
+        private static String field(List<String> fields, int column) {
+            return column >= 0 && column < fields.size() ? fields.get(column).trim() : null;
+        }
+
+        /**
+         * Splits a CSV line into its fields, unquoting quoted fields.
+         *
+         * @param line the line
+         * @return the fields
+         */
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * Reads records from newline-delimited JSON.
+     */
+    private final class NdjsonRecordReader implements RecordReader {
+
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        private NdjsonRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRecord next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException ex) {
+                    throw new IllegalArgumentException("malformed JSON");
+                }
+                if (!node.isObject()) {
+                    throw new IllegalArgumentException("record is not a JSON object");
+                }
+                String passwordHash = text(node, "passwordHash");
+                if (passwordHash != null && !passwordHash.isEmpty()) {
+                    return new ImportRecord(lineNumber, text(node, "email"), passwordHash, true);
+                }
+                return new ImportRecord(lineNumber, text(node, "email"), text(node, "password"), false);
+            }
+            return null;
+        }
+
+        @Override
+        public long lineNumber() {
+            return lineNumber;
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText().trim();
+        }
+    }
+
+    /**
+     * Running totals of an import.
+     */
+    private static final class Progress {
+
+        private final long startedAt = System.nanoTime();
+        private final int maxErrors;
+        private final List<String> errors = new ArrayList<>();
+        private long imported;
+        private long skipped;
+        private long rejected;
+        private long loggedAt = startedAt;
+
+        private Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+
+        private double recordsPerSecond(long now) {
+            long elapsed = Math.max(1, now - startedAt);
+            return (imported + skipped + rejected) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+
+        private void logIfDue() {
+            long now = System.nanoTime();
+            if (now - loggedAt >= PROGRESS_INTERVAL_NANOS) {
+                loggedAt = now;
+                log.info("User import progress: {} imported, {} skipped, {} rejected ({} records/s)",
+                        imported, skipped, rejected, Math.round(recordsPerSecond(now)));
+            }
+        }
+
+        private UserImportResultDto toResult() {
+            long now = System.nanoTime();
+            return new UserImportResultDto(imported, skipped, rejected,
+                    TimeUnit.NANOSECONDS.toMillis(now - startedAt), recordsPerSecond(now), errors);
+        }
+    }
+}
@@ -5,11 +5,17 @@ import com.ecommerce.userservice.models.Role;
 import com.ecommerce.userservice.models.User;
 import com.ecommerce.userservice.repositories.RoleRepository;
 import com.ecommerce.userservice.repositories.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Service class for managing user-related operations.
@@ -19,18 +25,27 @@ import java.util.Set;
 @Service
 public class UserService {
 
+    /**
+     * Maximum number of IDs resolved per database query by {@link #forEachUserDetails}.
+     */
+    static final int LOOKUP_CHUNK_SIZE = 1_000;
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructor for UserService.
      *
      * @param userRepository the repository for user data
      * @param roleRepository the repository for role data
+     * @param eventPublisher the publisher for user change events
      */
-    public UserService(UserRepository userRepository, RoleRepository roleRepository) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -45,6 +60,32 @@ public class UserService {
                 .orElse(null);
     }
 
+    /**
+     * Resolves the details of many users and hands them to the consumer one by one, in request order.
+     * IDs are deduplicated and resolved in chunks of {@value #LOOKUP_CHUNK_SIZE}, one query per chunk with
+     * roles fetched in the same query, so callers can stream the results without holding them all in memory.
+     * IDs without a user are skipped.
+     *
+     * @param userIds  the IDs of the users
+     * @param consumer receives the details of each found user
+     */
+    public void forEachUserDetails(Collection<Long> userIds, Consumer<UserDto> consumer) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + LOOKUP_CHUNK_SIZE));
+            Map<Long, User> usersById = new HashMap<>();
+            for (User user : userRepository.findAllWithRolesByIdIn(chunk)) {
+                usersById.put(user.getId(), user);
+            }
+            for (Long id : chunk) {
+                User user = usersById.get(id);
+                if (user != null) {
+                    consumer.accept(UserDto.from(user));
+                }
+            }
+        }
+    }
+
     /**
      * Assigns roles to a user based on the provided role IDs.
      *
@@ -64,6 +105,7 @@ public class UserService {
         user.setRoles(Set.copyOf(roles));
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getEmail()));
         return UserDto.from(savedUser);
     }
 }
\ No newline at end of file
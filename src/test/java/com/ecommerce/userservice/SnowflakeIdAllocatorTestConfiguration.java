@@ -0,0 +1,30 @@
+package com.ecommerce.userservice;
+
+import com.ecommerce.userservice.models.SnowflakeIdAllocator;
+import com.ecommerce.userservice.security.IdGeneratorProperties;
+import com.ecommerce.userservice.security.SpringSecurity;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Test configuration for the database tests, supplying the {@link SnowflakeIdAllocator} the way
+ * {@link SpringSecurity} does, without the rest of the security configuration.
+ *
+ * @author mahip.bhatt
+ */
+@TestConfiguration
+@EnableConfigurationProperties(IdGeneratorProperties.class)
+public class SnowflakeIdAllocatorTestConfiguration {
+
+    /**
+     * Bean definition for the {@link SnowflakeIdAllocator} used by the entities and bulk writers under test.
+     *
+     * @param idGeneratorProperties the ID allocation configuration
+     * @return the allocator
+     */
+    @Bean
+    public SnowflakeIdAllocator snowflakeIdAllocator(IdGeneratorProperties idGeneratorProperties) {
+        return new SpringSecurity().snowflakeIdAllocator(idGeneratorProperties);
+    }
+}
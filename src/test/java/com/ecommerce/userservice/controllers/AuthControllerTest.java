@@ -7,9 +7,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
@@ -43,9 +48,9 @@ class AuthControllerTest {
         UserDto userDto = new UserDto("test@example.com", new HashSet<>());
         ResponseEntity<UserDto> expectedResponse = new ResponseEntity<>(userDto, HttpStatus.OK);
 
-        when(authService.login(anyString(), anyString())).thenReturn(expectedResponse);
+        when(authService.login(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-        ResponseEntity<UserDto> response = authController.login(request);
+        ResponseEntity<UserDto> response = authController.login(request).join();
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(userDto, response.getBody());
@@ -101,4 +106,44 @@ class AuthControllerTest {
         assertEquals(sessionStatus, response.getBody());
         verify(authService, times(1)).validate(request.getToken(), request.getUserId());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a caller who may not manage a user's sessions can neither list nor end them.
+     */
+    @Test
+    void testSessionsForbiddenForOtherUser() {
+        // Arrange
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "other@example.com", null, AuthorityUtils.NO_AUTHORITIES);
+        when(authService.canManageSessions(authentication, 1L)).thenReturn(false);
+
+        // Act
+        ResponseEntity<List<SessionDto>> sessions = authController.getSessions(1L, authentication);
+        ResponseEntity<Integer> ended = authController.endAllSessions(1L, authentication);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, sessions.getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, ended.getStatusCode());
+        verify(authService, never()).getActiveSessions(anyLong());
+        verify(authService, never()).endAllSessions(anyLong());
+    }
+
+    /**
+     * Tests that a caller who may manage a user's sessions can end them.
+     */
+    @Test
+    void testEndAllSessionsAllowed() {
+        // Arrange
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                "test@example.com", null, AuthorityUtils.NO_AUTHORITIES);
+        when(authService.canManageSessions(authentication, 1L)).thenReturn(true);
+        when(authService.endAllSessions(1L)).thenReturn(2);
+
+        // Act
+        ResponseEntity<Integer> response = authController.endAllSessions(1L, authentication);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody());
+    }
+}
@@ -1,16 +1,32 @@
 package com.ecommerce.userservice.controllers;
 
+import com.ecommerce.userservice.dtos.BulkSetUserRolesRequestDto;
 import com.ecommerce.userservice.dtos.SetUserRolesRequestDto;
 import com.ecommerce.userservice.dtos.UserDto;
+import com.ecommerce.userservice.dtos.UserLookupRequestDto;
+import com.ecommerce.userservice.dtos.UserRolesResultDto;
+import com.ecommerce.userservice.services.BulkUserRoleService;
+import com.ecommerce.userservice.services.UserImportService;
 import com.ecommerce.userservice.services.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -22,6 +38,7 @@ import static org.mockito.Mockito.*;
 class UserControllerTest {
 
     private UserService userService;
+    private BulkUserRoleService bulkUserRoleService;
     private UserController userController;
 
     /**
@@ -30,7 +47,9 @@ class UserControllerTest {
     @BeforeEach
     void setUp() {
         userService = mock(UserService.class);
-        userController = new UserController(userService);
+        bulkUserRoleService = mock(BulkUserRoleService.class);
+        userController = new UserController(userService, bulkUserRoleService, mock(UserImportService.class),
+                new ObjectMapper());
     }
 
     /**
@@ -127,4 +146,110 @@ class UserControllerTest {
         }
         verify(userService, times(1)).setUserRoles(userId, request.getRoleIds());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the bulk lookup streams the found users as a JSON array.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUsersStreamsJsonArray() throws Exception {
+        // Arrange
+        List<Long> userIds = List.of(1L, 2L);
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(1);
+            UserDto first = new UserDto("first@example.com", Collections.emptySet());
+            first.setId(1L);
+            UserDto second = new UserDto("second@example.com", Collections.emptySet());
+            second.setId(2L);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(userService).forEachUserDetails(eq(userIds), any(Consumer.class));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = userController.getUsers(new UserLookupRequestDto(userIds));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(outputStream);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode users = new ObjectMapper().readTree(outputStream.toByteArray());
+        assertEquals(2, users.size());
+        assertEquals("1", users.get(0).get("id").textValue());
+        assertEquals("second@example.com", users.get(1).get("email").asText());
+    }
+
+    /**
+     * Tests that the bulk lookup accepts exactly the maximum number of IDs.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetUsersAcceptsMaxIds() throws Exception {
+        // Arrange
+        List<Long> userIds = LongStream.rangeClosed(1, UserController.MAX_BULK_IDS).boxed().toList();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = userController.getUsers(new UserLookupRequestDto(userIds));
+        assertNotNull(response.getBody());
+        response.getBody().writeTo(new ByteArrayOutputStream());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(userService).forEachUserDetails(eq(userIds), any(Consumer.class));
+    }
+
+    /**
+     * Tests that the bulk lookup rejects requests with too many IDs.
+     */
+    @Test
+    void testGetUsersRejectsTooManyIds() {
+        // Arrange
+        List<Long> userIds = LongStream.rangeClosed(1, UserController.MAX_BULK_IDS + 1).boxed().toList();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = userController.getUsers(new UserLookupRequestDto(userIds));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(userService, never()).forEachUserDetails(any(), any());
+    }
+
+    /**
+     * Tests that the bulk role assignment returns the per-user results.
+     */
+    @Test
+    void testSetUserRolesBulk() {
+        // Arrange
+        Map<Long, List<Long>> roleIdsByUserId = Map.of(1L, List.of(2L));
+        List<UserRolesResultDto> results = List.of(
+                new UserRolesResultDto(1L, UserRolesResultDto.Status.UPDATED, 1, 0));
+        when(bulkUserRoleService.setUserRoles(roleIdsByUserId)).thenReturn(results);
+
+        // Act
+        ResponseEntity<List<UserRolesResultDto>> response =
+                userController.setUserRoles(new BulkSetUserRolesRequestDto(roleIdsByUserId));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+    }
+
+    /**
+     * Tests that the bulk role assignment rejects requests for too many users.
+     */
+    @Test
+    void testSetUserRolesBulkRejectsTooManyUsers() {
+        // Arrange
+        Map<Long, List<Long>> roleIdsByUserId = LongStream.rangeClosed(1, 5_001).boxed()
+                .collect(Collectors.toMap(userId -> userId, userId -> List.of(2L)));
+
+        // Act
+        ResponseEntity<List<UserRolesResultDto>> response =
+                userController.setUserRoles(new BulkSetUserRolesRequestDto(roleIdsByUserId));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(bulkUserRoleService, never()).setUserRoles(any());
+    }
+}
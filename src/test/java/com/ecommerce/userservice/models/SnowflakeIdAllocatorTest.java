@@ -0,0 +1,67 @@
+package com.ecommerce.userservice.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SnowflakeIdAllocator}.
+ * This class tests the layout and ordering of the allocated IDs using a controlled clock.
+ *
+ * @author mahip.bhatt
+ */
+class SnowflakeIdAllocatorTest {
+
+    private static final long START = SnowflakeIdAllocator.EPOCH.toEpochMilli() + 1_000;
+
+    /**
+     * Tests that an ID carries the timestamp, node ID and sequence in their bit ranges.
+     */
+    @Test
+    void testNextIdLayout() {
+        // Arrange
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(5, () -> START);
+
+        // Act
+        long first = allocator.nextId();
+        long second = allocator.nextId();
+
+        // Assert
+        assertEquals(1_000, first >>> (SnowflakeIdAllocator.NODE_BITS + SnowflakeIdAllocator.SEQUENCE_BITS));
+        assertEquals(5, (first >>> SnowflakeIdAllocator.SEQUENCE_BITS) & SnowflakeIdAllocator.MAX_NODE_ID);
+        assertEquals(0, first & 0xFFF);
+        assertEquals(first + 1, second);
+    }
+
+    /**
+     * Tests that IDs keep increasing when the sequence is exhausted and when the clock steps back.
+     */
+    @Test
+    void testNextIdIsMonotonic() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(START);
+        SnowflakeIdAllocator allocator = new SnowflakeIdAllocator(1, clock::get);
+
+        // Act & Assert
+        long previous = allocator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-100);
+            }
+            long id = allocator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    /**
+     * Tests that node IDs outside the 10-bit range are refused.
+     */
+    @Test
+    void testInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdAllocator(SnowflakeIdAllocator.MAX_NODE_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdAllocator(-1));
+    }
+}
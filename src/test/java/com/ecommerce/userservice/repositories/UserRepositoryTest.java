@@ -0,0 +1,57 @@
+package com.ecommerce.userservice.repositories;
+
+import com.ecommerce.userservice.SnowflakeIdAllocatorTestConfiguration;
+import com.ecommerce.userservice.models.SnowflakeIdAllocator;
+import com.ecommerce.userservice.models.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repository tests for {@link UserRepository} against an in-memory database.
+ * This class tests that entities get their IDs from the application's {@link SnowflakeIdAllocator}.
+ *
+ * @author mahip.bhatt
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SnowflakeIdAllocatorTestConfiguration.class)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SnowflakeIdAllocator snowflakeIdAllocator;
+
+    /**
+     * Tests that saving a user assigns it an ID from the allocator for this node.
+     */
+    @Test
+    void testSaveAssignsSnowflakeId() {
+        // Arrange
+        User user = new User();
+        user.setEmail("user@example.com");
+        user.setPassword("password");
+        long before = snowflakeIdAllocator.nextId();
+
+        // Act
+        User saved = userRepository.saveAndFlush(user);
+
+        // Assert
+        assertNotNull(saved.getId());
+        assertTrue(saved.getId() > before);
+        assertEquals(1, (saved.getId() >> 12) & SnowflakeIdAllocator.MAX_NODE_ID);
+        assertEquals(List.of(saved.getId()),
+                userRepository.findAllWithRolesByIdIn(List.of(saved.getId())).stream().map(User::getId).toList());
+    }
+
+}
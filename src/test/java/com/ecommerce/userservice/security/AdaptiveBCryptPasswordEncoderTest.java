@@ -0,0 +1,83 @@
+package com.ecommerce.userservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AdaptiveBCryptPasswordEncoder}.
+ * This class tests the calibration and rehash detection of the AdaptiveBCryptPasswordEncoder.
+ *
+ * @author mahip.bhatt
+ */
+class AdaptiveBCryptPasswordEncoderTest {
+
+    /**
+     * Tests that calibration stays within the configured bounds.
+     */
+    @Test
+    void testCalibrateStaysWithinBounds() {
+        // Act
+        int tinyBudget = AdaptiveBCryptPasswordEncoder.calibrate(Duration.ofNanos(1), 4, 6);
+        int hugeBudget = AdaptiveBCryptPasswordEncoder.calibrate(Duration.ofHours(1), 4, 6);
+
+        // Assert
+        assertEquals(4, tinyBudget);
+        assertEquals(6, hugeBudget);
+    }
+
+    /**
+     * Tests that a fixed strength skips calibration.
+     */
+    @Test
+    void testCreateWithFixedStrength() {
+        // Arrange
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(5);
+
+        // Act
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.create(properties);
+
+        // Assert
+        assertEquals(5, encoder.getStrength());
+        assertTrue(encoder.encode("password").startsWith("$2a$05$"));
+    }
+
+    /**
+     * Tests that without a fixed strength or a target hash time the encoder keeps the minimum strength, so hashes
+     * of the default cost are not upgraded on login.
+     */
+    @Test
+    void testCreateWithoutTargetUsesMinStrength() {
+        // Arrange
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setMinStrength(4);
+
+        // Act
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.create(properties);
+
+        // Assert
+        assertEquals(4, encoder.getStrength());
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+    }
+
+    /**
+     * Tests that only hashes with a lower strength are reported for re-encoding, so a stronger hash is never
+     * downgraded.
+     */
+    @Test
+    void testUpgradeEncodingOnlyForWeakerHashes() {
+        // Arrange
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        // Act & Assert
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LinearProbing}.
+ * This class tests stripe sizing and selection, and that removals keep every remaining entry reachable.
+ *
+ * @author mahip.bhatt
+ */
+class LinearProbingTest {
+
+    /**
+     * Tests that values are rounded up to powers of two.
+     */
+    @Test
+    void testCeilPowerOfTwo() {
+        // Act & Assert
+        assertEquals(1, LinearProbing.ceilPowerOfTwo(0));
+        assertEquals(1, LinearProbing.ceilPowerOfTwo(1));
+        assertEquals(4, LinearProbing.ceilPowerOfTwo(3));
+        assertEquals(64, LinearProbing.ceilPowerOfTwo(64));
+        assertEquals(128, LinearProbing.ceilPowerOfTwo(65));
+    }
+
+    /**
+     * Tests that stripes are selected from the high bits, and that a single stripe is always selected.
+     */
+    @Test
+    void testStripeIndex() {
+        // Arrange
+        long hash = 0xC000_0000_0000_0001L;
+
+        // Act & Assert
+        assertEquals(0, LinearProbing.stripeIndex(hash, LinearProbing.stripeShift(1)));
+        assertEquals(1, LinearProbing.stripeIndex(hash, LinearProbing.stripeShift(2)));
+        assertEquals(3, LinearProbing.stripeIndex(hash, LinearProbing.stripeShift(4)));
+    }
+
+    /**
+     * Tests that removing the head of a probe run that wraps around the end of the table shifts the rest back.
+     */
+    @Test
+    void testRemoveSlotShiftsWrappedProbeRun() {
+        // Arrange
+        Table table = new Table(8);
+        table.put(6, 6);
+        table.put(14, 6);
+        table.put(22, 6);
+        table.put(1, 1);
+
+        // Act
+        boolean refilled = LinearProbing.removeSlot(table, table.find(6));
+
+        // Assert
+        assertTrue(refilled);
+        assertEquals(-1, table.find(6));
+        assertEquals(6, table.find(14));
+        assertEquals(7, table.find(22));
+        assertEquals(1, table.find(1));
+    }
+
+    /**
+     * Tests that removing an entry does not move entries that are already in their home slot.
+     */
+    @Test
+    void testRemoveSlotKeepsEntriesAtHome() {
+        // Arrange
+        Table table = new Table(8);
+        table.put(2, 2);
+        table.put(3, 3);
+
+        // Act
+        boolean refilled = LinearProbing.removeSlot(table, table.find(2));
+
+        // Assert
+        assertFalse(refilled);
+        assertEquals(3, table.find(3));
+    }
+
+    /**
+     * Tests that every selected entry is removed, including entries shifted into an emptied slot.
+     */
+    @Test
+    void testRemoveIfRemovesShiftedEntries() {
+        // Arrange
+        Table table = new Table(8);
+        for (long key : new long[]{0, 8, 16, 1, 3}) {
+            table.put(key, (int) key & 7);
+        }
+
+        // Act
+        int removed = LinearProbing.removeIf(table, slot -> table.keys[slot] % 2 == 0);
+
+        // Assert
+        assertEquals(3, removed);
+        assertEquals(-1, table.find(0));
+        assertEquals(-1, table.find(8));
+        assertEquals(-1, table.find(16));
+        assertNotEquals(-1, table.find(1));
+        assertNotEquals(-1, table.find(3));
+    }
+
+    /**
+     * Array-backed table whose entries hash to a given home slot.
+     */
+    private static final class Table implements LinearProbing.Table {
+
+        private final long[] keys;
+        private final int[] homes;
+        private final boolean[] used;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            homes = new int[capacity];
+            used = new boolean[capacity];
+        }
+
+        private void put(long key, int home) {
+            int slot = home;
+            while (used[slot]) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = key;
+            homes[slot] = home;
+            used[slot] = true;
+        }
+
+        private int find(long key) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (used[slot] && keys[slot] == key) {
+                    // Probing from home must reach the entry without crossing an empty slot
+                    for (int probe = homes[slot]; probe != slot; probe = (probe + 1) & (keys.length - 1)) {
+                        assertTrue(used[probe], "Entry " + key + " is unreachable: " + Arrays.toString(used));
+                    }
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean isUsed(int slot) {
+            return used[slot];
+        }
+
+        @Override
+        public int homeSlot(int slot) {
+            return homes[slot];
+        }
+
+        @Override
+        public void move(int from, int to) {
+            keys[to] = keys[from];
+            homes[to] = homes[from];
+            used[to] = true;
+            used[from] = false;
+        }
+
+        @Override
+        public void clear(int slot) {
+            used[slot] = false;
+        }
+    }
+}
@@ -1,14 +1,36 @@
 package com.ecommerce.userservice.security;
 
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
 import com.nimbusds.jose.jwk.source.JWKSource;
 import com.nimbusds.jose.proc.SecurityContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit tests for {@link SecurityConfig}.
@@ -32,24 +54,58 @@ class SecurityConfigTest {
      * Tests the JWK source configuration.
      */
     @Test
-    void testJwkSource() {
+    void testJwkSource() throws Exception {
+        // Arrange
+        RSAKey active = new RSAKeyGenerator(2048).keyID("active").generate();
+        RSAKey retired = new RSAKeyGenerator(2048).keyID("retired").generate();
+        SigningKeys signingKeys = new SigningKeys(new JWKSet(List.of(retired, active)), "active");
+
         // Act
-        JWKSource<SecurityContext> jwkSource = securityConfig.jwkSource();
+        JWKSource<SecurityContext> jwkSource = securityConfig.jwkSource(signingKeys);
 
         // Assert
-        assertNotNull(jwkSource);
+        List<JWK> keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+        assertEquals(List.of("active"), keys.stream().map(JWK::getKeyID).toList());
     }
 
     /**
      * Tests the JWT decoder configuration.
      */
     @Test
-    void testJwtDecoder() {
+    void testJwtDecoder() throws Exception {
+        // Arrange
+        RSAKey active = new RSAKeyGenerator(2048).keyID("active").generate();
+        RSAKey retired = new RSAKeyGenerator(2048).keyID("retired").generate();
+        RSAKey foreign = new RSAKeyGenerator(2048).keyID("active").generate();
+        SigningKeys signingKeys = new SigningKeys(new JWKSet(List.of(retired, active)), "active");
+        String activeToken = encode(securityConfig.jwkSource(signingKeys));
+        String retiredToken = encode(securityConfig.jwkSource(new SigningKeys(new JWKSet(retired), null)));
+        String foreignToken = encode(securityConfig.jwkSource(new SigningKeys(new JWKSet(foreign), null)));
+
         // Act
-        JwtDecoder jwtDecoder = securityConfig.jwtDecoder();
+        JwtDecoder jwtDecoder = securityConfig.jwtDecoder(signingKeys);
 
         // Assert
-        assertNotNull(jwtDecoder);
+        assertEquals("user", jwtDecoder.decode(activeToken).getSubject());
+        assertEquals("user", jwtDecoder.decode(retiredToken).getSubject());
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(foreignToken));
+    }
+
+    /**
+     * Signs a short-lived token with the key of the given JWK source.
+     *
+     * @param jwkSource the JWK source
+     * @return the serialized token
+     */
+    private static String encode(JWKSource<SecurityContext> jwkSource) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("user")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        return new NimbusJwtEncoder(jwkSource)
+                .encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+                .getTokenValue();
     }
 
     /**
@@ -64,4 +120,32 @@ class SecurityConfigTest {
         assertNotNull(settings);
         assertEquals("http://localhost:9000", settings.getIssuer());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the token customizer sets the configured signing algorithm and exposes the principal's authorities
+     * as a roles claim.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testJwtTokenCustomizerAddsRoles() throws Exception {
+        // Arrange
+        SigningKeys signingKeys = new SigningKeys(new JWKSet(new ECKeyGenerator(Curve.P_256).keyID("ec").generate()),
+                null, SignatureAlgorithm.ES256);
+        UsernamePasswordAuthenticationToken principal = UsernamePasswordAuthenticationToken.authenticated(
+                "test@example.com", null, AuthorityUtils.createAuthorityList("ADMIN", "USER"));
+        JwsHeader.Builder header = JwsHeader.with(SignatureAlgorithm.RS256);
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder();
+        JwtEncodingContext context = JwtEncodingContext.with(header, claims)
+                .principal(principal)
+                .tokenType(OAuth2TokenType.ACCESS_TOKEN)
+                .build();
+
+        // Act
+        securityConfig.jwtTokenCustomizer(signingKeys).customize(context);
+
+        // Assert
+        assertEquals(SignatureAlgorithm.ES256, header.build().getAlgorithm());
+        Collection<String> roles = (Collection<String>) claims.build().getClaims().get("roles");
+        assertEquals(Set.of("ADMIN", "USER"), Set.copyOf(roles));
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.userservice.security;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SigningKeys} and {@link JwkSetEndpointFilter}.
+ * This class tests loading, generating and publishing the OAuth2 signing keys.
+ *
+ * @author mahip.bhatt
+ */
+class SigningKeysTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that a key generated on first boot is persisted and loaded again on the next boot.
+     */
+    @Test
+    void testLoadGeneratesAndPersistsKey() {
+        // Arrange
+        JwkProperties jwkProperties = new JwkProperties();
+        jwkProperties.setLocation(tempDir.resolve("keys/jwks.json").toString());
+
+        // Act
+        SigningKeys first = SigningKeys.load(jwkProperties);
+        SigningKeys second = SigningKeys.load(jwkProperties);
+
+        // Assert
+        assertTrue(Files.exists(tempDir.resolve("keys/jwks.json")));
+        assertEquals(first.getActiveKey().getKeyID(), second.getActiveKey().getKeyID());
+        assertTrue(second.getActiveKey().isPrivate());
+    }
+
+    /**
+     * Tests that the configured key ID selects the signing key and that every key is published without its
+     * private part.
+     */
+    @Test
+    void testActiveKeyIdAndPublicJwkSet() throws Exception {
+        // Arrange
+        RSAKey previous = new RSAKeyGenerator(2048).keyID("2024-01").generate();
+        RSAKey next = new RSAKeyGenerator(2048).keyID("2024-02").generate();
+        Path location = tempDir.resolve("jwks.json");
+        Files.writeString(location, new JWKSet(List.of(previous, next)).toString(false));
+        JwkProperties jwkProperties = new JwkProperties();
+        jwkProperties.setLocation(location.toString());
+        jwkProperties.setActiveKeyId("2024-02");
+
+        // Act
+        SigningKeys signingKeys = SigningKeys.load(jwkProperties);
+
+        // Assert
+        assertEquals("2024-02", signingKeys.getActiveKey().getKeyID());
+        JWKSet published = JWKSet.parse(new String(signingKeys.getPublicJwkSetJson(), StandardCharsets.UTF_8));
+        assertEquals(2, published.size());
+        assertTrue(published.getKeys().stream().noneMatch(key -> key.isPrivate()));
+    }
+
+    /**
+     * Tests that an ES256 key is generated when ES256 is configured, and that its tokens verify.
+     */
+    @Test
+    void testLoadGeneratesEcKey() {
+        // Arrange
+        JwkProperties jwkProperties = new JwkProperties();
+        jwkProperties.setLocation(tempDir.resolve("jwks.json").toString());
+        jwkProperties.setAlgorithm(SignatureAlgorithm.ES256);
+
+        // Act
+        SigningKeys signingKeys = SigningKeys.load(jwkProperties);
+        String token = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKeys.getActiveKey())))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.ES256).build(),
+                        JwtClaimsSet.builder().subject("user").build()))
+                .getTokenValue();
+
+        // Assert
+        ECKey activeKey = assertInstanceOf(ECKey.class, signingKeys.getActiveKey());
+        assertEquals(Curve.P_256, activeKey.getCurve());
+        assertEquals(SignatureAlgorithm.ES256, signingKeys.getSignatureAlgorithm());
+        assertEquals("user", JwkSetVerifiers.jwtDecoder(signingKeys.getPublicJwkSet()).decode(token).getSubject());
+    }
+
+    /**
+     * Tests that the active key is chosen among the keys that can sign with the configured algorithm.
+     */
+    @Test
+    void testActiveKeyMatchesAlgorithm() throws Exception {
+        // Arrange
+        JWKSet jwkSet = new JWKSet(List.of(
+                new RSAKeyGenerator(2048).keyID("rsa").generate(),
+                new ECKeyGenerator(Curve.P_384).keyID("p384").generate(),
+                new ECKeyGenerator(Curve.P_256).keyID("p256").generate()));
+
+        // Act
+        SigningKeys es256 = new SigningKeys(jwkSet, null, SignatureAlgorithm.ES256);
+        SigningKeys rs256 = new SigningKeys(jwkSet, null, SignatureAlgorithm.RS256);
+
+        // Assert
+        assertEquals("p256", es256.getActiveKey().getKeyID());
+        assertEquals("rsa", rs256.getActiveKey().getKeyID());
+        assertThrows(IllegalStateException.class, () -> new SigningKeys(jwkSet, "rsa", SignatureAlgorithm.ES256));
+        assertThrows(IllegalStateException.class, () -> new SigningKeys(jwkSet, null, SignatureAlgorithm.ES512));
+    }
+
+    /**
+     * Tests that a missing key file is an error when generation is disabled, and an unknown key ID always is.
+     */
+    @Test
+    void testLoadFailures() throws Exception {
+        // Arrange
+        JwkProperties missing = new JwkProperties();
+        missing.setLocation(tempDir.resolve("missing.json").toString());
+        missing.setGenerateIfMissing(false);
+        Path location = tempDir.resolve("jwks.json");
+        Files.writeString(location, new JWKSet(new RSAKeyGenerator(2048).keyID("a").generate()).toString(false));
+        JwkProperties unknownKey = new JwkProperties();
+        unknownKey.setLocation(location.toString());
+        unknownKey.setActiveKeyId("b");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> SigningKeys.load(missing));
+        assertThrows(IllegalStateException.class, () -> SigningKeys.load(unknownKey));
+    }
+
+    /**
+     * Tests that the endpoint filter answers GET /oauth2/jwks itself and passes other requests on.
+     */
+    @Test
+    void testJwkSetEndpointFilter() throws Exception {
+        // Arrange
+        SigningKeys signingKeys = new SigningKeys(new JWKSet(new RSAKeyGenerator(2048).keyID("a").generate()), null);
+        JwkSetEndpointFilter filter = new JwkSetEndpointFilter(signingKeys, Duration.ofMinutes(5));
+        MockHttpServletResponse jwksResponse = new MockHttpServletResponse();
+        MockFilterChain jwksChain = new MockFilterChain();
+        MockHttpServletResponse otherResponse = new MockHttpServletResponse();
+        MockFilterChain otherChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/oauth2/jwks"), jwksResponse, jwksChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/oauth2/token"), otherResponse, otherChain);
+
+        // Assert
+        assertArrayEquals(signingKeys.getPublicJwkSetJson(), jwksResponse.getContentAsByteArray());
+        assertEquals("max-age=300, public", jwksResponse.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertNull(jwksChain.getRequest());
+        assertNotNull(otherChain.getRequest());
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.userservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SpringSecurity}.
+ * This class tests the validation of the bean definitions' configuration.
+ *
+ * @author mahip.bhatt
+ */
+class SpringSecurityTest {
+
+    /**
+     * Tests that the ID allocator is not created without a node ID, rather than falling back to a shared default.
+     */
+    @Test
+    void testSnowflakeIdAllocatorRequiresNodeId() {
+        // Arrange
+        SpringSecurity springSecurity = new SpringSecurity();
+        IdGeneratorProperties idGeneratorProperties = new IdGeneratorProperties();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> springSecurity.snowflakeIdAllocator(idGeneratorProperties));
+        idGeneratorProperties.setNodeId(7);
+        assertNotNull(springSecurity.snowflakeIdAllocator(idGeneratorProperties));
+    }
+}
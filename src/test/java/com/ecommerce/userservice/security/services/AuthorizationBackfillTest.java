@@ -0,0 +1,104 @@
+package com.ecommerce.userservice.security.services;
+
+import com.ecommerce.userservice.security.TokenDigests;
+import com.ecommerce.userservice.security.models.Authorization;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import com.ecommerce.userservice.security.service.AuthorizationBackfill;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AuthorizationBackfill}.
+ * This class tests that authorizations without token digests or expiry get them computed from their stored values.
+ *
+ * @author mahip.bhatt
+ */
+class AuthorizationBackfillTest {
+
+    private static final Instant REFRESH_EXPIRES_AT = Instant.parse("2030-01-01T00:00:00Z");
+
+    private AuthorizationRepository authorizationRepository;
+    private AuthorizationBackfill authorizationBackfill;
+
+    /**
+     * Sets up the backfill over a mocked repository and a transaction template that runs callbacks inline.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        authorizationRepository = mock(AuthorizationRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        authorizationBackfill = new AuthorizationBackfill(authorizationRepository, transactionTemplate);
+    }
+
+    /**
+     * Tests that batches are processed until a short batch, and that each row gets the digests of its tokens.
+     */
+    @Test
+    void testBackfillComputesDigestsBatchByBatch() {
+        // Arrange
+        List<Authorization> fullBatch = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            fullBatch.add(legacyAuthorization("refresh-" + i));
+        }
+        Authorization last = legacyAuthorization("refresh-last");
+        when(authorizationRepository.findWithoutDerivedColumns(any(Pageable.class)))
+                .thenReturn(fullBatch)
+                .thenReturn(List.of(last));
+
+        // Act
+        long updated = authorizationBackfill.backfill();
+
+        // Assert
+        assertEquals(501, updated);
+        assertEquals(TokenDigests.sha256Hex("refresh-0"), fullBatch.get(0).getRefreshTokenHash());
+        assertEquals(TokenDigests.sha256Hex("refresh-last"), last.getRefreshTokenHash());
+        assertNull(last.getAccessTokenHash());
+        assertEquals(REFRESH_EXPIRES_AT, last.getExpiresAt());
+        verify(authorizationRepository, times(2)).findWithoutDerivedColumns(any(Pageable.class));
+        verify(authorizationRepository, times(2)).saveAll(anyList());
+    }
+
+    /**
+     * Tests that a database without legacy rows costs a single query.
+     */
+    @Test
+    void testBackfillWithNothingToDo() {
+        // Act
+        long updated = authorizationBackfill.backfill();
+
+        // Assert
+        assertEquals(0, updated);
+        verify(authorizationRepository, times(1)).findWithoutDerivedColumns(any(Pageable.class));
+    }
+
+    /**
+     * Builds an authorization as loaded from a row written before the digest and expiry columns existed: the entity
+     * is populated field by field, so those are left null.
+     *
+     * @param refreshToken the stored refresh token value
+     * @return the authorization
+     */
+    private static Authorization legacyAuthorization(String refreshToken) {
+        Authorization authorization = new Authorization();
+        authorization.setRefreshTokenValue(refreshToken);
+        authorization.setRefreshTokenExpiresAt(REFRESH_EXPIRES_AT);
+        ReflectionTestUtils.setField(authorization, "refreshTokenHash", null);
+        ReflectionTestUtils.setField(authorization, "expiresAt", null);
+        return authorization;
+    }
+}
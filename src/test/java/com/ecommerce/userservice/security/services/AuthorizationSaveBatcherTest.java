@@ -0,0 +1,159 @@
+package com.ecommerce.userservice.security.services;
+
+import com.ecommerce.userservice.security.AuthorizationBatchProperties;
+import com.ecommerce.userservice.security.models.Authorization;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import com.ecommerce.userservice.security.service.AuthorizationSaveBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AuthorizationSaveBatcher}.
+ * This class tests direct saves and the coalescing of concurrent saves into one transaction.
+ *
+ * @author mahip.bhatt
+ */
+class AuthorizationSaveBatcherTest {
+
+    private AuthorizationRepository authorizationRepository;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private AuthorizationBatchProperties authorizationBatchProperties;
+    private AuthorizationSaveBatcher authorizationSaveBatcher;
+    private ExecutorService callers;
+
+    /**
+     * Sets up the mocked repository, entity manager and a transaction template that runs its callback inline.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        authorizationRepository = mock(AuthorizationRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+        entityManager = mock(EntityManager.class);
+        authorizationBatchProperties = new AuthorizationBatchProperties();
+        // A long window, so a batch is only written early once it is full
+        authorizationBatchProperties.setWindow(Duration.ofSeconds(5));
+        // One thread per caller, since every caller blocks until its batch is written
+        callers = Executors.newFixedThreadPool(3);
+    }
+
+    /**
+     * Stops the caller threads and the background thread of the batcher under test.
+     */
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (authorizationSaveBatcher != null) {
+            authorizationSaveBatcher.shutdown();
+        }
+    }
+
+    /**
+     * Tests that saves go straight to the repository when batching is disabled.
+     */
+    @Test
+    void testSaveWhenDisabled() {
+        // Arrange
+        createBatcher();
+        Authorization authorization = authorization("a");
+
+        // Act
+        authorizationSaveBatcher.save(authorization);
+
+        // Assert
+        verify(authorizationRepository).save(authorization);
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    /**
+     * Tests that concurrent saves are written in one transaction, persisting new rows and merging existing ones.
+     */
+    @Test
+    void testConcurrentSavesShareOneTransaction() {
+        // Arrange
+        authorizationBatchProperties.setEnabled(true);
+        authorizationBatchProperties.setMaxBatchSize(3);
+        createBatcher();
+        Authorization existing = authorization("existing");
+        Authorization first = authorization("new-1");
+        Authorization second = authorization("new-2");
+        when(authorizationRepository.findAllById(anyList())).thenReturn(List.of(authorization("existing")));
+
+        // Act
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> authorizationSaveBatcher.save(existing), callers),
+                CompletableFuture.runAsync(() -> authorizationSaveBatcher.save(first), callers),
+                CompletableFuture.runAsync(() -> authorizationSaveBatcher.save(second), callers)
+        ).join();
+
+        // Assert
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        verify(entityManager).merge(existing);
+        verify(entityManager).persist(first);
+        verify(entityManager).persist(second);
+        verify(authorizationRepository, never()).save(any());
+    }
+
+    /**
+     * Tests that a failed batch is retried row by row, so only the caller of the bad row sees the failure.
+     */
+    @Test
+    void testFailedBatchOnlyFailsTheBadSave() {
+        // Arrange
+        authorizationBatchProperties.setEnabled(true);
+        authorizationBatchProperties.setMaxBatchSize(2);
+        createBatcher();
+        Authorization good = authorization("good");
+        Authorization bad = authorization("bad");
+        DataIntegrityViolationException failure = new DataIntegrityViolationException("duplicate token");
+        doThrow(failure).when(entityManager).persist(bad);
+        when(authorizationRepository.save(bad)).thenThrow(failure);
+
+        // Act
+        CompletableFuture<Void> goodSave = CompletableFuture.runAsync(() -> authorizationSaveBatcher.save(good), callers);
+        CompletableFuture<Void> badSave = CompletableFuture.runAsync(() -> authorizationSaveBatcher.save(bad), callers);
+
+        // Assert
+        assertDoesNotThrow(goodSave::join);
+        CompletionException thrown = assertThrows(CompletionException.class, badSave::join);
+        assertSame(failure, thrown.getCause());
+        verify(authorizationRepository).save(good);
+    }
+
+    private void createBatcher() {
+        authorizationSaveBatcher = new AuthorizationSaveBatcher(authorizationRepository, transactionTemplate,
+                authorizationBatchProperties, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(authorizationSaveBatcher, "entityManager", entityManager);
+    }
+
+    private static Authorization authorization(String id) {
+        Authorization authorization = new Authorization();
+        authorization.setId(id);
+        return authorization;
+    }
+}
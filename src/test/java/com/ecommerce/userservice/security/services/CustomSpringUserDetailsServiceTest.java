@@ -1,16 +1,24 @@
 package com.ecommerce.userservice.security.services;
 
+import com.ecommerce.userservice.models.Role;
 import com.ecommerce.userservice.models.User;
 import com.ecommerce.userservice.repositories.UserRepository;
+import com.ecommerce.userservice.security.UserDetailsCacheProperties;
 import com.ecommerce.userservice.security.service.CustomSpringUserDetailsService;
+import com.ecommerce.userservice.services.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -31,7 +39,8 @@ class CustomSpringUserDetailsServiceTest {
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
-        userDetailsService = new CustomSpringUserDetailsService(userRepository);
+        userDetailsService = new CustomSpringUserDetailsService(userRepository, new UserDetailsCacheProperties(),
+                new SimpleMeterRegistry());
     }
 
     /**
@@ -68,4 +77,123 @@ class CustomSpringUserDetailsServiceTest {
         assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(email));
         verify(userRepository, times(1)).findByEmail(email);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that repeated lookups are served from the cache.
+     */
+    @Test
+    void testLoadUserByUsernameCachesSnapshot() {
+        // Arrange
+        String email = "test@example.com";
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+
+        // Act
+        UserDetails first = userDetailsService.loadUserByUsername(email);
+        user.setPassword("changedWithoutEvent");
+        UserDetails second = userDetailsService.loadUserByUsername(email);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("password", second.getPassword());
+        verify(userRepository, times(1)).findByEmail(email);
+    }
+
+    /**
+     * Tests that differently cased emails are looked up as given and never share a cache entry, so the database
+     * alone decides whether they name the same user.
+     */
+    @Test
+    void testLoadUserByUsernameDoesNotShareEntriesAcrossSpellings() {
+        // Arrange
+        User lower = new User();
+        lower.setEmail("foo@example.com");
+        lower.setPassword("lowerPassword");
+        User upper = new User();
+        upper.setEmail("Foo@example.com");
+        upper.setPassword("upperPassword");
+        when(userRepository.findByEmail("foo@example.com")).thenReturn(Optional.of(lower));
+        when(userRepository.findByEmail("Foo@example.com")).thenReturn(Optional.of(upper));
+
+        // Act
+        UserDetails first = userDetailsService.loadUserByUsername("foo@example.com");
+        UserDetails second = userDetailsService.loadUserByUsername("Foo@example.com");
+
+        // Assert
+        assertEquals("lowerPassword", first.getPassword());
+        assertEquals("upperPassword", second.getPassword());
+    }
+
+    /**
+     * Tests that a user the database matches under a different spelling is returned but not cached, since change
+     * events only name the stored email and could not drop such an entry.
+     */
+    @Test
+    void testLoadUserByUsernameDoesNotCacheOtherSpellings() {
+        // Arrange
+        User user = new User();
+        user.setEmail("test@example.com");
+        user.setPassword("password");
+        when(userRepository.findByEmail("TEST@example.com")).thenReturn(Optional.of(user));
+
+        // Act
+        UserDetails first = userDetailsService.loadUserByUsername("TEST@example.com");
+        UserDetails second = userDetailsService.loadUserByUsername("TEST@example.com");
+
+        // Assert
+        assertEquals("test@example.com", first.getUsername());
+        assertNotSame(first, second);
+        verify(userRepository, times(2)).findByEmail("TEST@example.com");
+    }
+
+    /**
+     * Tests that a user change event drops the cached snapshot.
+     */
+    @Test
+    void testUserChangedEventInvalidatesCache() {
+        // Arrange
+        String email = "test@example.com";
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername(email);
+
+        // Act
+        user.setPassword("newPassword");
+        userDetailsService.onUserChanged(new UserChangedEvent(email));
+        UserDetails reloaded = userDetailsService.loadUserByUsername(email);
+
+        // Assert
+        assertEquals("newPassword", reloaded.getPassword());
+        verify(userRepository, times(2)).findByEmail(email);
+    }
+
+    /**
+     * Tests that users with the same roles share one precomputed, immutable authority set.
+     */
+    @Test
+    void testLoadUserByUsernameSharesAuthoritySets() {
+        // Arrange
+        User alice = new User();
+        alice.setEmail("alice@example.com");
+        alice.setRoles(Set.of(new Role("ADMIN"), new Role("USER")));
+        User bob = new User();
+        bob.setEmail("bob@example.com");
+        bob.setRoles(Set.of(new Role("USER"), new Role("ADMIN")));
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(alice));
+        when(userRepository.findByEmail("bob@example.com")).thenReturn(Optional.of(bob));
+
+        // Act
+        UserDetails aliceDetails = userDetailsService.loadUserByUsername("alice@example.com");
+        UserDetails bobDetails = userDetailsService.loadUserByUsername("bob@example.com");
+
+        // Assert
+        assertSame(aliceDetails.getAuthorities(), bobDetails.getAuthorities());
+        assertSame(aliceDetails.getAuthorities(), aliceDetails.getAuthorities());
+        assertEquals(Set.of("ADMIN", "USER"), AuthorityUtils.authorityListToSet(aliceDetails.getAuthorities()));
+        assertThrows(UnsupportedOperationException.class, () -> aliceDetails.getAuthorities().clear());
+    }
+}
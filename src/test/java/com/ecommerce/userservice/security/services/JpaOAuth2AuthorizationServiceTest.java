@@ -1,16 +1,26 @@
 package com.ecommerce.userservice.security.services;
 
+import com.ecommerce.userservice.security.AuthorizationBatchProperties;
+import com.ecommerce.userservice.security.TokenDigests;
 import com.ecommerce.userservice.security.models.Authorization;
 import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import com.ecommerce.userservice.security.service.AuthorizationSaveBatcher;
 import com.ecommerce.userservice.security.service.JpaOAuth2AuthorizationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
 import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
 import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,7 +45,9 @@ class JpaOAuth2AuthorizationServiceTest {
     void setUp() {
         authorizationRepository = mock(AuthorizationRepository.class);
         registeredClientRepository = mock(RegisteredClientRepository.class);
-        authorizationService = new JpaOAuth2AuthorizationService(authorizationRepository, registeredClientRepository);
+        authorizationService = new JpaOAuth2AuthorizationService(authorizationRepository, registeredClientRepository,
+                new AuthorizationSaveBatcher(authorizationRepository, mock(TransactionTemplate.class),
+                        new AuthorizationBatchProperties(), new SimpleMeterRegistry()));
     }
 
     /**
@@ -162,9 +174,12 @@ class JpaOAuth2AuthorizationServiceTest {
         // Arrange
         String token = "accessToken";
         Authorization entity = new Authorization();
+        entity.setId("authId");
         entity.setPrincipalName("testPrincipal");
         entity.setAuthorizationGrantType("authorization_code");
-        when(authorizationRepository.findByAccessTokenValue(token)).thenReturn(Optional.of(entity));
+        entity.setAccessTokenValue(token);
+        String tokenHash = TokenDigests.sha256Hex(token);
+        when(authorizationRepository.findByAccessTokenHash(tokenHash)).thenReturn(Optional.of(entity));
         RegisteredClient registeredClient = mock(RegisteredClient.class);
         when(registeredClientRepository.findById(entity.getRegisteredClientId())).thenReturn(registeredClient);
 
@@ -173,7 +188,7 @@ class JpaOAuth2AuthorizationServiceTest {
 
         // Assert
         assertNotNull(authorization);
-        verify(authorizationRepository, times(1)).findByAccessTokenValue(token);
+        verify(authorizationRepository, times(1)).findByAccessTokenHash(tokenHash);
     }
 
     /**
@@ -183,14 +198,14 @@ class JpaOAuth2AuthorizationServiceTest {
     void testFindByTokenWithInvalidToken() {
         // Arrange
         String token = "invalidToken";
-        when(authorizationRepository.findByAccessTokenValue(token)).thenReturn(Optional.empty());
+        when(authorizationRepository.findByAccessTokenHash(TokenDigests.sha256Hex(token))).thenReturn(Optional.empty());
 
         // Act
         OAuth2Authorization authorization = authorizationService.findByToken(token, new OAuth2TokenType("access_token"));
 
         // Assert
         assertNull(authorization);
-        verify(authorizationRepository, times(1)).findByAccessTokenValue(token);
+        verify(authorizationRepository, times(1)).findByAccessTokenHash(TokenDigests.sha256Hex(token));
     }
 
     /**
@@ -201,9 +216,12 @@ class JpaOAuth2AuthorizationServiceTest {
         // Arrange
         String token = "accessToken";
         Authorization entity = new Authorization();
+        entity.setId("authId");
         entity.setPrincipalName("testPrincipal");
         entity.setAuthorizationGrantType("authorization_code");
-        when(authorizationRepository.findByAccessTokenValue(token)).thenReturn(Optional.of(entity));
+        entity.setAccessTokenValue(token);
+        String tokenHash = TokenDigests.sha256Hex(token);
+        when(authorizationRepository.findByAccessTokenHash(tokenHash)).thenReturn(Optional.of(entity));
         RegisteredClient registeredClient = mock(RegisteredClient.class);
         when(registeredClientRepository.findById(entity.getRegisteredClientId())).thenReturn(registeredClient);
 
@@ -212,6 +230,99 @@ class JpaOAuth2AuthorizationServiceTest {
 
         // Assert
         assertNotNull(authorization);
-        verify(authorizationRepository, times(1)).findByAccessTokenValue(token);
+        verify(authorizationRepository, times(1)).findByAccessTokenHash(tokenHash);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that an untyped lookup probes the digest columns one type at a time, stops at the first match,
+     * and rejects a digest match whose stored token differs.
+     */
+    @Test
+    void testFindByTokenWithoutTypeUsesDigestColumns() {
+        // Arrange
+        String token = "refreshToken";
+        Authorization entity = new Authorization();
+        entity.setId("authId");
+        entity.setPrincipalName("testPrincipal");
+        entity.setAuthorizationGrantType("refresh_token");
+        entity.setRefreshTokenValue(token);
+        String tokenHash = TokenDigests.sha256Hex(token);
+        when(authorizationRepository.findByRefreshTokenHash(tokenHash)).thenReturn(Optional.of(entity));
+        when(authorizationRepository.findByRefreshTokenHash(TokenDigests.sha256Hex("collidingToken")))
+                .thenReturn(Optional.of(entity));
+        when(registeredClientRepository.findById(entity.getRegisteredClientId())).thenReturn(mock(RegisteredClient.class));
+
+        // Act
+        OAuth2Authorization untyped = authorizationService.findByToken(token, null);
+        OAuth2Authorization colliding = authorizationService.findByToken("collidingToken", null);
+
+        // Assert
+        assertNotNull(untyped);
+        assertEquals("authId", untyped.getId());
+        assertNull(colliding);
+        verify(authorizationRepository, times(1)).findByAccessTokenHash(tokenHash);
+        verify(authorizationRepository, times(1)).findByRefreshTokenHash(tokenHash);
+        verify(authorizationRepository, never()).findByDeviceCodeHash(anyString());
+    }
+
+    /**
+     * Tests that saving an authorization stores the digest of each token alongside its value.
+     */
+    @Test
+    void testSaveStoresTokenDigests() {
+        // Arrange
+        RegisteredClient registeredClient = RegisteredClient.withId("clientId")
+                .clientId("testClientId")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .build();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "accessToken",
+                Instant.now(), Instant.now().plusSeconds(300));
+        OAuth2Authorization authorization = OAuth2Authorization.withRegisteredClient(registeredClient)
+                .id("authId")
+                .principalName("testClientId")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .token(accessToken)
+                .build();
+        ArgumentCaptor<Authorization> captor = ArgumentCaptor.forClass(Authorization.class);
+
+        // Act
+        authorizationService.save(authorization);
+
+        // Assert
+        verify(authorizationRepository, times(1)).save(captor.capture());
+        Authorization entity = captor.getValue();
+        assertEquals(TokenDigests.sha256Hex("accessToken"), entity.getAccessTokenHash());
+        assertNull(entity.getRefreshTokenHash());
+        assertNull(entity.getStateHash());
+    }
+
+    /**
+     * Tests that the stored expiry is the latest expiry of any token, which is what the reaper selects on.
+     */
+    @Test
+    void testSaveStoresLatestExpiry() {
+        // Arrange
+        RegisteredClient registeredClient = RegisteredClient.withId("clientId")
+                .clientId("testClientId")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("http://localhost:8080/callback")
+                .build();
+        Instant issuedAt = Instant.now();
+        OAuth2Authorization authorization = OAuth2Authorization.withRegisteredClient(registeredClient)
+                .id("authId")
+                .principalName("testPrincipal")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .token(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "accessToken",
+                        issuedAt, issuedAt.plusSeconds(300)))
+                .refreshToken(new OAuth2RefreshToken("refreshToken", issuedAt, issuedAt.plusSeconds(3_600)))
+                .build();
+        ArgumentCaptor<Authorization> captor = ArgumentCaptor.forClass(Authorization.class);
+
+        // Act
+        authorizationService.save(authorization);
+
+        // Assert
+        verify(authorizationRepository, times(1)).save(captor.capture());
+        assertEquals(issuedAt.plusSeconds(3_600), captor.getValue().getExpiresAt());
+    }
+}
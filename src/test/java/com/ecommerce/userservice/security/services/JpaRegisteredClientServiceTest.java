@@ -1,12 +1,16 @@
 package com.ecommerce.userservice.security.services;
 
+import com.ecommerce.userservice.security.RegisteredClientCacheProperties;
 import com.ecommerce.userservice.security.models.Client;
 import com.ecommerce.userservice.security.repositories.ClientRepository;
 import com.ecommerce.userservice.security.service.JpaRegisteredClientService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
 
 import java.util.Optional;
 
@@ -22,6 +26,7 @@ import static org.mockito.Mockito.*;
 class JpaRegisteredClientServiceTest {
 
     private ClientRepository clientRepository;
+    private SimpleMeterRegistry meterRegistry;
     private JpaRegisteredClientService registeredClientService;
 
     /**
@@ -30,7 +35,8 @@ class JpaRegisteredClientServiceTest {
     @BeforeEach
     void setUp() {
         clientRepository = mock(ClientRepository.class);
-        registeredClientService = new JpaRegisteredClientService(clientRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        registeredClientService = new JpaRegisteredClientService(clientRepository, new RegisteredClientCacheProperties(), meterRegistry);
     }
 
     /**
@@ -165,4 +171,114 @@ class JpaRegisteredClientServiceTest {
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> registeredClientService.findByClientId(""));
     }
+
+    /**
+     * Tests that a loaded client is served from the cache by ID and by client ID afterwards.
+     */
+    @Test
+    void testFindUsesCacheAfterFirstLoad() {
+        // Arrange
+        Client clientEntity = createClientEntity();
+        when(clientRepository.findById("clientId")).thenReturn(Optional.of(clientEntity));
+
+        // Act
+        RegisteredClient first = registeredClientService.findById("clientId");
+        RegisteredClient second = registeredClientService.findById("clientId");
+        RegisteredClient byClientId = registeredClientService.findByClientId("testClientId");
+
+        // Assert
+        assertSame(first, second);
+        assertSame(first, byClientId);
+        verify(clientRepository, times(1)).findById("clientId");
+        verify(clientRepository, never()).findByClientId(anyString());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "registeredClientsById").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    /**
+     * Tests that saving a client invalidates the cached copies.
+     */
+    @Test
+    void testSaveInvalidatesCache() {
+        // Arrange
+        Client clientEntity = createClientEntity();
+        when(clientRepository.findById("clientId")).thenReturn(Optional.of(clientEntity));
+        RegisteredClient cached = registeredClientService.findById("clientId");
+
+        // Act
+        registeredClientService.save(cached);
+        registeredClientService.findById("clientId");
+
+        // Assert
+        verify(clientRepository, times(2)).findById("clientId");
+    }
+
+    /**
+     * Tests that a client loaded while a save of it runs is not kept in the cache, since it may be the old row.
+     */
+    @Test
+    void testSaveDuringLoadIsNotMaskedByCache() {
+        // Arrange
+        Client clientEntity = createClientEntity();
+        RegisteredClient updated = RegisteredClient.withId("clientId")
+                .clientId("testClientId")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("http://localhost:8080/callback")
+                .build();
+        when(clientRepository.findById("clientId")).thenAnswer(invocation -> {
+            // The save commits after this lookup read the old row
+            registeredClientService.save(updated);
+            return Optional.of(clientEntity);
+        }).thenReturn(Optional.of(clientEntity));
+
+        // Act
+        registeredClientService.findById("clientId");
+        registeredClientService.findById("clientId");
+
+        // Assert
+        verify(clientRepository, times(2)).findById("clientId");
+    }
+
+    /**
+     * Tests that client settings survive a save and reload through the shared JSON readers.
+     */
+    @Test
+    void testClientSettingsRoundTrip() {
+        // Arrange
+        RegisteredClient registeredClient = RegisteredClient.withId("clientId")
+                .clientId("testClientId")
+                .clientSecret("testSecret")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("http://localhost:8080/callback")
+                .clientSettings(ClientSettings.builder().requireAuthorizationConsent(true).requireProofKey(false).build())
+                .build();
+        ArgumentCaptor<Client> captor = ArgumentCaptor.forClass(Client.class);
+        registeredClientService.save(registeredClient);
+        verify(clientRepository).save(captor.capture());
+        when(clientRepository.findById("clientId")).thenReturn(Optional.of(captor.getValue()));
+
+        // Act
+        RegisteredClient reloaded = registeredClientService.findById("clientId");
+
+        // Assert
+        assertTrue(reloaded.getClientSettings().isRequireAuthorizationConsent());
+        assertFalse(reloaded.getClientSettings().isRequireProofKey());
+        assertEquals(registeredClient.getClientId(), reloaded.getClientId());
+    }
+
+    /**
+     * Creates a client entity with the minimal fields needed to build a {@link RegisteredClient}.
+     *
+     * @return the client entity
+     */
+    private Client createClientEntity() {
+        Client clientEntity = new Client();
+        clientEntity.setId("clientId");
+        clientEntity.setClientId("testClientId");
+        clientEntity.setAuthorizationGrantTypes("authorization_code,refresh_token");
+        clientEntity.setRedirectUris("http://localhost:8080/callback");
+        clientEntity.setClientSettings("{\"requireAuthorizationConsent\":true}");
+        clientEntity.setTokenSettings("{\"accessTokenTimeToLive\":3600}");
+        return clientEntity;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.ecommerce.userservice.security.services;
+
+import com.ecommerce.userservice.security.AuthorizationBatchProperties;
+import com.ecommerce.userservice.security.AuthorizationStoreProperties;
+import com.ecommerce.userservice.security.models.Authorization;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import com.ecommerce.userservice.security.service.AuthorizationSaveBatcher;
+import com.ecommerce.userservice.security.service.OffHeapOAuth2AuthorizationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClaimAccessor;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
+import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+import org.springframework.security.oauth2.server.authorization.token.DefaultOAuth2TokenContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2AccessTokenGenerator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OffHeapOAuth2AuthorizationService}.
+ * This class tests which authorizations are kept off-heap and which go to the database.
+ *
+ * @author mahip.bhatt
+ */
+class OffHeapOAuth2AuthorizationServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AuthorizationRepository authorizationRepository;
+    private RegisteredClient registeredClient;
+    private OffHeapOAuth2AuthorizationService authorizationService;
+
+    /**
+     * Sets up the service over a mocked repository and a small store in a temporary directory.
+     */
+    @BeforeEach
+    void setUp() {
+        authorizationRepository = mock(AuthorizationRepository.class);
+        registeredClient = RegisteredClient.withId("clientId")
+                .clientId("testClientId")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .build();
+        AuthorizationStoreProperties authorizationStoreProperties = new AuthorizationStoreProperties();
+        authorizationStoreProperties.setLocation(tempDir.resolve("authorizations.bin").toString());
+        authorizationStoreProperties.setCapacity(1_024);
+        authorizationStoreProperties.setStripes(4);
+        authorizationService = new OffHeapOAuth2AuthorizationService(authorizationRepository,
+                new InMemoryRegisteredClientRepository(registeredClient),
+                new AuthorizationSaveBatcher(authorizationRepository, mock(TransactionTemplate.class),
+                        new AuthorizationBatchProperties(), new SimpleMeterRegistry()),
+                authorizationStoreProperties);
+    }
+
+    /**
+     * Closes the store.
+     */
+    @AfterEach
+    void tearDown() {
+        authorizationService.close();
+    }
+
+    /**
+     * Tests that a client-credentials authorization is kept off-heap and comes back with its claims intact.
+     */
+    @Test
+    void testAccessTokenOnlyAuthorizationIsKeptOffHeap() throws Exception {
+        // Arrange
+        Instant issuedAt = Instant.now();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(OAuth2TokenIntrospectionClaimNames.ISS, new URL("http://localhost:9000"));
+        claims.put(OAuth2TokenIntrospectionClaimNames.SUB, "testClientId");
+        claims.put(OAuth2TokenIntrospectionClaimNames.AUD, List.of("testClientId"));
+        claims.put(OAuth2TokenIntrospectionClaimNames.IAT, issuedAt);
+        claims.put(OAuth2TokenIntrospectionClaimNames.EXP, issuedAt.plusSeconds(300));
+        claims.put(OAuth2TokenIntrospectionClaimNames.SCOPE, Set.of("read"));
+        OAuth2Authorization authorization = clientCredentials("authId", "accessToken", issuedAt.plusSeconds(300))
+                .token(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "accessToken", issuedAt,
+                                issuedAt.plusSeconds(300), Set.of("read")),
+                        metadata -> metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME, claims))
+                .build();
+
+        // Act
+        authorizationService.save(authorization);
+        OAuth2Authorization byToken = authorizationService.findByToken("accessToken", OAuth2TokenType.ACCESS_TOKEN);
+        OAuth2Authorization untyped = authorizationService.findByToken("accessToken", null);
+        OAuth2Authorization byId = authorizationService.findById("authId");
+
+        // Assert
+        assertEquals(authorization, byToken);
+        assertEquals(authorization, untyped);
+        assertEquals(authorization, byId);
+        assertEquals(claims, byToken.getAccessToken().getClaims());
+        verifyNoInteractions(authorizationRepository);
+    }
+
+    /**
+     * Tests that revoking a token off-heap is visible to the next lookup, and that removal needs no query.
+     */
+    @Test
+    void testInvalidateAndRemove() {
+        // Arrange
+        OAuth2Authorization authorization = clientCredentials("authId", "accessToken",
+                Instant.now().plusSeconds(300)).build();
+        authorizationService.save(authorization);
+        OAuth2Authorization revoked = OAuth2Authorization.from(authorization)
+                .token(authorization.getAccessToken().getToken(),
+                        metadata -> metadata.put(OAuth2Authorization.Token.INVALIDATED_METADATA_NAME, true))
+                .build();
+
+        // Act
+        authorizationService.save(revoked);
+        boolean invalidated = authorizationService.findByToken("accessToken", null).getAccessToken().isInvalidated();
+        authorizationService.remove(revoked);
+
+        // Assert
+        assertTrue(invalidated);
+        assertNull(authorizationService.findByToken("accessToken", OAuth2TokenType.ACCESS_TOKEN));
+        verify(authorizationRepository, never()).deleteById(anyString());
+    }
+
+    /**
+     * Tests that an authorization with a refresh token is saved to and looked up in the database.
+     */
+    @Test
+    void testAuthorizationWithRefreshTokenGoesToDatabase() {
+        // Arrange
+        Instant issuedAt = Instant.now();
+        OAuth2Authorization authorization = clientCredentials("authId", "accessToken", issuedAt.plusSeconds(300))
+                .refreshToken(new OAuth2RefreshToken("refreshToken", issuedAt, issuedAt.plusSeconds(3_600)))
+                .build();
+        when(authorizationRepository.findByAccessTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        authorizationService.save(authorization);
+        OAuth2Authorization found = authorizationService.findByToken("accessToken", OAuth2TokenType.ACCESS_TOKEN);
+
+        // Assert
+        verify(authorizationRepository, times(1)).save(any(Authorization.class));
+        verify(authorizationRepository, times(1)).findByAccessTokenHash(anyString());
+        assertNull(found);
+    }
+
+    /**
+     * Tests that an authorization whose access token has expired is no longer found.
+     */
+    @Test
+    void testExpiredAuthorizationIsNotFound() {
+        // Arrange
+        OAuth2Authorization authorization = clientCredentials("authId", "accessToken",
+                Instant.now().minus(1, ChronoUnit.SECONDS)).build();
+        when(authorizationRepository.findByAccessTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // Act
+        authorizationService.save(authorization);
+
+        // Assert
+        assertNull(authorizationService.findByToken("accessToken", OAuth2TokenType.ACCESS_TOKEN));
+    }
+
+    /**
+     * Tests that an opaque access token issued to a client configured for reference tokens is introspected from the
+     * store with its claims.
+     */
+    @Test
+    void testReferenceTokenIsKeptOffHeap() {
+        // Arrange
+        RegisteredClient referenceClient = RegisteredClient.from(registeredClient)
+                .tokenSettings(TokenSettings.builder().accessTokenFormat(OAuth2TokenFormat.REFERENCE).build())
+                .build();
+        DefaultOAuth2TokenContext context = DefaultOAuth2TokenContext.builder()
+                .registeredClient(referenceClient)
+                .principal(UsernamePasswordAuthenticationToken.authenticated("testClientId", null,
+                        AuthorityUtils.NO_AUTHORITIES))
+                .authorizedScopes(Set.of("read"))
+                .tokenType(OAuth2TokenType.ACCESS_TOKEN)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .build();
+
+        // Act
+        OAuth2AccessToken generated = new OAuth2AccessTokenGenerator().generate(context);
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(generated.getTokenType(), generated.getTokenValue(),
+                generated.getIssuedAt(), generated.getExpiresAt(), generated.getScopes());
+        OAuth2Authorization authorization = OAuth2Authorization.withRegisteredClient(referenceClient)
+                .id("authId")
+                .principalName("testClientId")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .authorizedScopes(Set.of("read"))
+                .token(accessToken, metadata -> metadata.put(OAuth2Authorization.Token.CLAIMS_METADATA_NAME,
+                        ((ClaimAccessor) generated).getClaims()))
+                .build();
+        authorizationService.save(authorization);
+        OAuth2Authorization found = authorizationService.findByToken(generated.getTokenValue(),
+                OAuth2TokenType.ACCESS_TOKEN);
+
+        // Assert
+        assertFalse(generated.getTokenValue().contains("."));
+        assertEquals(authorization, found);
+        assertEquals("testClientId", found.getAccessToken().getClaims().get(OAuth2TokenIntrospectionClaimNames.SUB));
+        verifyNoInteractions(authorizationRepository);
+    }
+
+    private OAuth2Authorization.Builder clientCredentials(String id, String tokenValue, Instant expiresAt) {
+        return OAuth2Authorization.withRegisteredClient(registeredClient)
+                .id(id)
+                .principalName("testClientId")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .authorizedScopes(Set.of("read"))
+                .token(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue,
+                        expiresAt.minusSeconds(300), expiresAt, Set.of("read")));
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.userservice.security.services;
+
+import com.ecommerce.userservice.security.TokenDigests;
+import com.ecommerce.userservice.security.service.OffHeapTokenStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for {@link OffHeapTokenStore}.
+ * This class tests storing, replacing, removing and expiring entries of the memory-mapped table.
+ *
+ * @author mahip.bhatt
+ */
+class OffHeapTokenStoreTest {
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    @TempDir
+    Path tempDir;
+
+    private OffHeapTokenStore tokenStore;
+
+    /**
+     * Closes the store under test.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        if (tokenStore != null) {
+            tokenStore.close();
+        }
+    }
+
+    /**
+     * Tests that the file is readable by its owner only and deleted when the store is closed.
+     */
+    @Test
+    void testFileIsOwnerOnlyAndDeletedOnClose() throws IOException {
+        // Arrange
+        Path location = tempDir.resolve("store.bin");
+        assumeTrue(location.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        // Act
+        OffHeapTokenStore store = new OffHeapTokenStore(location, 64, 128, 4);
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(location);
+        store.close();
+
+        // Assert
+        assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE), permissions);
+        assertFalse(Files.exists(location));
+    }
+
+    /**
+     * Tests that values are stored, replaced and removed by key.
+     */
+    @Test
+    void testPutGetReplaceAndRemove() throws IOException {
+        // Arrange
+        tokenStore = new OffHeapTokenStore(tempDir.resolve("store.bin"), 64, 128, 4);
+        byte[] key = TokenDigests.sha256("token");
+
+        // Act
+        boolean stored = tokenStore.put(key, NEVER, bytes("first"));
+        boolean replaced = tokenStore.put(key, NEVER, bytes("second"));
+        byte[] value = tokenStore.get(key, System.currentTimeMillis());
+        boolean removed = tokenStore.remove(key);
+
+        // Assert
+        assertTrue(stored);
+        assertTrue(replaced);
+        assertArrayEquals(bytes("second"), value);
+        assertTrue(removed);
+        assertNull(tokenStore.get(key, System.currentTimeMillis()));
+        assertFalse(tokenStore.remove(key));
+        assertEquals(0, tokenStore.size());
+    }
+
+    /**
+     * Tests that every remaining entry is still found after removals in a single, crowded stripe, where most
+     * entries sit away from their home slot.
+     */
+    @Test
+    void testRemoveKeepsProbeRunsIntact() throws IOException {
+        // Arrange
+        tokenStore = new OffHeapTokenStore(tempDir.resolve("store.bin"), 64, 64, 1);
+        for (int i = 0; i < 48; i++) {
+            assertTrue(tokenStore.put(TokenDigests.sha256("token-" + i), NEVER, bytes("value-" + i)));
+        }
+
+        // Act
+        for (int i = 0; i < 48; i += 2) {
+            assertTrue(tokenStore.remove(TokenDigests.sha256("token-" + i)));
+        }
+
+        // Assert
+        for (int i = 0; i < 48; i++) {
+            byte[] value = tokenStore.get(TokenDigests.sha256("token-" + i), System.currentTimeMillis());
+            if (i % 2 == 0) {
+                assertNull(value);
+            } else {
+                assertArrayEquals(bytes("value-" + i), value);
+            }
+        }
+        assertEquals(24, tokenStore.size());
+    }
+
+    /**
+     * Tests that expired entries are hidden, and evicted to make room when the stripe is full.
+     */
+    @Test
+    void testExpiredEntriesAreEvictedWhenFull() throws IOException {
+        // Arrange
+        tokenStore = new OffHeapTokenStore(tempDir.resolve("store.bin"), 16, 64, 1);
+        long past = System.currentTimeMillis() - 1_000;
+        for (int i = 0; i < 12; i++) {
+            assertTrue(tokenStore.put(TokenDigests.sha256("expired-" + i), past, bytes("value")));
+        }
+
+        // Act
+        boolean stored = tokenStore.put(TokenDigests.sha256("live"), NEVER, bytes("value"));
+
+        // Assert
+        assertTrue(stored);
+        assertNull(tokenStore.get(TokenDigests.sha256("expired-0"), System.currentTimeMillis()));
+        assertArrayEquals(bytes("value"), tokenStore.get(TokenDigests.sha256("live"), System.currentTimeMillis()));
+        assertEquals(1, tokenStore.size());
+    }
+
+    /**
+     * Tests that a value is rejected when it is too long for a slot or its stripe is full of live entries.
+     */
+    @Test
+    void testPutRejectsWhenNoRoom() throws IOException {
+        // Arrange
+        tokenStore = new OffHeapTokenStore(tempDir.resolve("store.bin"), 16, 64, 1);
+        for (int i = 0; i < 12; i++) {
+            assertTrue(tokenStore.put(TokenDigests.sha256("live-" + i), NEVER, bytes("value")));
+        }
+
+        // Act
+        boolean full = tokenStore.put(TokenDigests.sha256("one-more"), NEVER, bytes("value"));
+        boolean tooLong = tokenStore.put(TokenDigests.sha256("live-0"), NEVER,
+                new byte[tokenStore.maxValueLength() + 1]);
+
+        // Assert
+        assertFalse(full);
+        assertFalse(tooLong);
+        assertEquals(12, tokenStore.size());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,21 +1,40 @@
 package com.ecommerce.userservice.services;
 
 import com.ecommerce.userservice.dtos.UserDto;
+import com.ecommerce.userservice.models.Role;
 import com.ecommerce.userservice.models.Session;
 import com.ecommerce.userservice.models.SessionStatus;
 import com.ecommerce.userservice.models.User;
 import com.ecommerce.userservice.repositories.SessionRepository;
 import com.ecommerce.userservice.repositories.UserRepository;
+import com.ecommerce.userservice.security.JwtProperties;
+import com.ecommerce.userservice.security.LoginExecutorProperties;
+import com.ecommerce.userservice.security.RevocationProperties;
+import com.ecommerce.userservice.security.SessionPersistenceProperties;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
+import static com.ecommerce.userservice.security.TokenDigests.sha256;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -28,7 +47,12 @@ class AuthServiceTest {
 
     private UserRepository userRepository;
     private SessionRepository sessionRepository;
+    private SessionWriteBuffer sessionWriteBuffer;
+    private SessionStore sessionStore;
     private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private JwtProperties jwtProperties;
+    private ApplicationEventPublisher eventPublisher;
+    private SecretKey signingKey;
     private AuthService authService;
 
     /**
@@ -39,7 +63,19 @@ class AuthServiceTest {
         userRepository = mock(UserRepository.class);
         sessionRepository = mock(SessionRepository.class);
         bCryptPasswordEncoder = mock(BCryptPasswordEncoder.class);
-        authService = new AuthService(userRepository, sessionRepository, bCryptPasswordEncoder);
+        jwtProperties = new JwtProperties();
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        signingKey = Jwts.SIG.HS256.key().build();
+        sessionWriteBuffer = new SessionWriteBuffer(sessionRepository, new SessionPersistenceProperties(),
+                new SimpleMeterRegistry());
+        sessionStore = new JpaSessionStore(sessionRepository, sessionWriteBuffer);
+        RevokedTokenFilter revokedTokenFilter = new RevokedTokenFilter(sessionStore, new RevocationProperties());
+        LoginExecutorProperties loginExecutorProperties = new LoginExecutorProperties();
+        PasswordVerificationExecutor passwordVerificationExecutor =
+                new PasswordVerificationExecutor(loginExecutorProperties, new SimpleMeterRegistry());
+        authService = new AuthService(userRepository, sessionStore, bCryptPasswordEncoder,
+                signingKey, jwtProperties, revokedTokenFilter, passwordVerificationExecutor, loginExecutorProperties,
+                eventPublisher);
     }
 
     /**
@@ -59,7 +95,7 @@ class AuthServiceTest {
         when(bCryptPasswordEncoder.matches(password, user.getPassword())).thenReturn(true);
 
         // Act
-        ResponseEntity<UserDto> response = authService.login(email, password);
+        ResponseEntity<UserDto> response = authService.login(email, password).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -68,6 +104,62 @@ class AuthServiceTest {
         verify(sessionRepository, times(1)).save(any(Session.class));
     }
 
+    /**
+     * Tests that a successful login re-encodes a password hash created under an outdated policy.
+     */
+    @Test
+    void testLoginRehashesOutdatedPassword() {
+        // Arrange
+        String email = "test@example.com";
+        String password = "password";
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(email);
+        user.setPassword("outdatedHash");
+
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        when(bCryptPasswordEncoder.matches(password, "outdatedHash")).thenReturn(true);
+        when(bCryptPasswordEncoder.upgradeEncoding("outdatedHash")).thenReturn(true);
+        when(bCryptPasswordEncoder.encode(password)).thenReturn("currentHash");
+
+        // Act
+        ResponseEntity<UserDto> response = authService.login(email, password).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("currentHash", user.getPassword());
+        verify(userRepository, times(1)).save(user);
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    /**
+     * Tests that a login is rejected with 429 and a Retry-After header when the verification queue is full.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoginRejectedWhenVerificationQueueFull() {
+        // Arrange
+        User user = new User();
+        user.setEmail("test@example.com");
+        user.setPassword("encodedPassword");
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        PasswordVerificationExecutor saturatedExecutor = mock(PasswordVerificationExecutor.class);
+        when(saturatedExecutor.submit(any(Supplier.class))).thenThrow(new RejectedExecutionException());
+        LoginExecutorProperties loginExecutorProperties = new LoginExecutorProperties();
+        AuthService saturatedAuthService = new AuthService(userRepository, sessionStore,
+                bCryptPasswordEncoder, Jwts.SIG.HS256.key().build(), jwtProperties, mock(RevokedTokenFilter.class),
+                saturatedExecutor, loginExecutorProperties, eventPublisher);
+
+        // Act
+        ResponseEntity<UserDto> response = saturatedAuthService.login(user.getEmail(), "password").join();
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(bCryptPasswordEncoder, never()).matches(anyString(), anyString());
+        verify(sessionRepository, never()).save(any(Session.class));
+    }
+
     /**
      * Tests the login functionality for invalid credentials.
      */
@@ -84,7 +176,7 @@ class AuthServiceTest {
         when(bCryptPasswordEncoder.matches(password, user.getPassword())).thenReturn(false);
 
         // Act
-        ResponseEntity<UserDto> response = authService.login(email, password);
+        ResponseEntity<UserDto> response = authService.login(email, password).join();
 
         // Assert
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -103,7 +195,7 @@ class AuthServiceTest {
         when(userRepository.findByEmail(email)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<UserDto> response = authService.login(email, password);
+        ResponseEntity<UserDto> response = authService.login(email, password).join();
 
         // Assert
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -121,7 +213,7 @@ class AuthServiceTest {
         Session session = new Session();
         session.setSessionStatus(SessionStatus.ACTIVE);
 
-        when(sessionRepository.findByTokenAndUser_Id(token, userId)).thenReturn(Optional.of(session));
+        when(sessionRepository.findByTokenHashAndUser_Id(aryEq(sha256(token)), eq(userId))).thenReturn(Optional.of(session));
 
         // Act
         ResponseEntity<Void> response = authService.logout(token, userId);
@@ -140,7 +232,7 @@ class AuthServiceTest {
         String token = "invalidToken";
         Long userId = 1L;
 
-        when(sessionRepository.findByTokenAndUser_Id(token, userId)).thenReturn(Optional.empty());
+        when(sessionRepository.findByTokenHashAndUser_Id(aryEq(sha256(token)), eq(userId))).thenReturn(Optional.empty());
 
         // Act
         ResponseEntity<Void> response = authService.logout(token, userId);
@@ -172,6 +264,7 @@ class AuthServiceTest {
         assertNotNull(userDto);
         assertEquals(email, userDto.getEmail());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
     }
 
     /**
@@ -183,7 +276,7 @@ class AuthServiceTest {
         String token = "invalidToken";
         Long userId = 1L;
 
-        when(sessionRepository.findByTokenAndUser_Id(token, userId)).thenReturn(Optional.empty());
+        when(sessionRepository.findByTokenHashAndUser_Id(aryEq(sha256(token)), eq(userId))).thenReturn(Optional.empty());
 
         // Act
         SessionStatus status = authService.validate(token, userId);
@@ -191,4 +284,164 @@ class AuthServiceTest {
         // Assert
         assertNull(status);
     }
+
+    /**
+     * Tests that a token issued by login validates against the stored session.
+     */
+    @Test
+    void testValidateTokenIssuedByLogin() {
+        // Arrange
+        String token = loginAndGetToken(1L);
+        Session session = new Session();
+        session.setSessionStatus(SessionStatus.ACTIVE);
+        when(sessionRepository.findByTokenHashAndUser_Id(aryEq(sha256(token)), eq(1L))).thenReturn(Optional.of(session));
+
+        // Act
+        SessionStatus status = authService.validate(token, 1L);
+
+        // Assert
+        assertEquals(SessionStatus.ACTIVE, status);
+    }
+
+    /**
+     * Tests that stateless validation accepts a genuine token without touching the session table.
+     */
+    @Test
+    void testValidateTokenStatelessSkipsSessionLookup() {
+        // Arrange
+        jwtProperties.setStatelessValidation(true);
+        String token = loginAndGetToken(1L);
+
+        // Act
+        SessionStatus status = authService.validate(token, 1L);
+
+        // Assert
+        assertEquals(SessionStatus.ACTIVE, status);
+        verify(sessionRepository, never()).findByTokenHashAndUser_Id(any(), anyLong());
+    }
+
+    /**
+     * Tests that stateless validation rejects a token after logout by confirming against the session table.
+     */
+    @Test
+    void testValidateTokenStatelessRejectsLoggedOutToken() {
+        // Arrange
+        jwtProperties.setStatelessValidation(true);
+        String token = loginAndGetToken(1L);
+        Session session = new Session();
+        session.setSessionStatus(SessionStatus.ACTIVE);
+        when(sessionRepository.findByTokenHashAndUser_Id(aryEq(sha256(token)), eq(1L))).thenReturn(Optional.of(session));
+        authService.logout(token, 1L);
+
+        // Act
+        SessionStatus status = authService.validate(token, 1L);
+
+        // Assert
+        assertEquals(SessionStatus.ENDED, status);
+        verify(sessionRepository, times(2)).findByTokenHashAndUser_Id(aryEq(sha256(token)), eq(1L));
+    }
+
+    /**
+     * Tests that ending all sessions of a user revokes their tokens for stateless validation on this node.
+     */
+    @Test
+    void testEndAllSessionsRevokesTokens() {
+        // Arrange
+        jwtProperties.setStatelessValidation(true);
+        String token = loginAndGetToken(1L);
+        Session session = new Session();
+        session.setSessionStatus(SessionStatus.ENDED);
+        when(sessionRepository.findTokenHashesByUserIdAndSessionStatus(eq(1L), eq(SessionStatus.ENDED), any(Date.class)))
+                .thenReturn(List.of(sha256(token)));
+        when(sessionRepository.findByTokenHashAndUser_Id(aryEq(sha256(token)), eq(1L))).thenReturn(Optional.of(session));
+
+        // Act
+        int ended = authService.endAllSessions(1L);
+
+        // Assert
+        assertEquals(1, ended);
+        verify(sessionRepository, times(1)).updateSessionStatusByUserId(1L, SessionStatus.ACTIVE, SessionStatus.ENDED);
+        assertEquals(SessionStatus.ENDED, authService.validate(token, 1L));
+    }
+
+    /**
+     * Tests that users may manage only their own sessions, administrators anyone's, and anonymous callers none.
+     */
+    @Test
+    void testCanManageSessions() {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Authentication owner = UsernamePasswordAuthenticationToken.authenticated(
+                "test@example.com", null, AuthorityUtils.NO_AUTHORITIES);
+        Authentication other = UsernamePasswordAuthenticationToken.authenticated(
+                "other@example.com", null, AuthorityUtils.NO_AUTHORITIES);
+        Authentication admin = UsernamePasswordAuthenticationToken.authenticated(
+                "admin@example.com", null, AuthorityUtils.createAuthorityList("ADMIN"));
+
+        // Act & Assert
+        assertTrue(authService.canManageSessions(owner, 1L));
+        assertFalse(authService.canManageSessions(other, 1L));
+        assertFalse(authService.canManageSessions(owner, 2L));
+        assertTrue(authService.canManageSessions(admin, 2L));
+        assertFalse(authService.canManageSessions(null, 1L));
+    }
+
+    /**
+     * Tests that a token is rejected for a different user ID or when it has been tampered with.
+     */
+    @Test
+    void testValidateTokenRejectsWrongUserAndForgedToken() {
+        // Arrange
+        jwtProperties.setStatelessValidation(true);
+        String token = loginAndGetToken(1L);
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertNull(authService.validate(token, 2L));
+        assertNull(authService.validate(forged, 1L));
+        verify(sessionRepository, never()).findByTokenHashAndUser_Id(any(), anyLong());
+    }
+
+    /**
+     * Tests that issued tokens carry the user's actual roles.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGenerateTokenIncludesUserRoles() {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        user.setRoles(Set.of(new Role("ADMIN")));
+
+        // Act
+        String token = authService.generateToken(user, new Date(System.currentTimeMillis() + 60_000));
+
+        // Assert
+        List<String> roles = Jwts.parser().verifyWith(signingKey).build()
+                .parseSignedClaims(token).getPayload().get("roles", List.class);
+        assertEquals(List.of("ADMIN"), roles);
+    }
+
+    /**
+     * Logs a user in and extracts the issued token from the response cookie.
+     *
+     * @param userId the ID of the user to log in
+     * @return the issued token
+     */
+    private String loginAndGetToken(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setEmail("test@example.com");
+        user.setPassword("encodedPassword");
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(bCryptPasswordEncoder.matches("password", user.getPassword())).thenReturn(true);
+
+        ResponseEntity<UserDto> response = authService.login(user.getEmail(), "password").join();
+        String cookie = response.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        return cookie.substring("auth-token:".length());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.SnowflakeIdAllocatorTestConfiguration;
+import com.ecommerce.userservice.dtos.UserRolesResultDto;
+import com.ecommerce.userservice.models.Role;
+import com.ecommerce.userservice.models.User;
+import com.ecommerce.userservice.repositories.RoleRepository;
+import com.ecommerce.userservice.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Database tests for {@link BulkUserRoleService}.
+ * This class runs the service's hand-written SQL against the schema Hibernate generates for the entities, on an
+ * in-memory database in MySQL mode.
+ *
+ * @author mahip.bhatt
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({SnowflakeIdAllocatorTestConfiguration.class, BulkUserRoleService.class})
+class BulkUserRoleServiceDatabaseTest {
+
+    @Autowired
+    private BulkUserRoleService bulkUserRoleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Tests that the join table ends up with exactly the requested roles, and that unknown users are reported.
+     */
+    @Test
+    void testSetUserRolesUpdatesJoinTable() {
+        // Arrange
+        Role admin = roleRepository.saveAndFlush(role("ADMIN"));
+        Role editor = roleRepository.saveAndFlush(role("EDITOR"));
+        Role viewer = roleRepository.saveAndFlush(role("VIEWER"));
+        User one = user("one@example.com", admin, viewer);
+        User two = user("two@example.com", editor);
+        Map<Long, List<Long>> roleIdsByUserId = new LinkedHashMap<>();
+        roleIdsByUserId.put(one.getId(), List.of(admin.getId(), editor.getId()));
+        roleIdsByUserId.put(two.getId(), List.of(editor.getId()));
+        roleIdsByUserId.put(-1L, List.of(admin.getId()));
+
+        // Act
+        List<UserRolesResultDto> results = bulkUserRoleService.setUserRoles(roleIdsByUserId);
+
+        // Assert
+        assertEquals(List.of(UserRolesResultDto.Status.UPDATED, UserRolesResultDto.Status.UNCHANGED,
+                UserRolesResultDto.Status.USER_NOT_FOUND), results.stream().map(UserRolesResultDto::getStatus).toList());
+        assertEquals(1, results.get(0).getRolesAdded());
+        assertEquals(1, results.get(0).getRolesRemoved());
+        assertEquals(Set.of(admin.getId(), editor.getId()), roleIds(one));
+        assertEquals(Set.of(editor.getId()), roleIds(two));
+    }
+
+    private Role role(String name) {
+        Role role = new Role();
+        role.setRole(name);
+        return role;
+    }
+
+    private User user(String email, Role... roles) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRoles(Set.of(roles));
+        return userRepository.saveAndFlush(user);
+    }
+
+    private Set<Long> roleIds(User user) {
+        return Set.copyOf(jdbcTemplate.queryForList(
+                "select roles_id from user_roles where user_id = ?", Long.class, user.getId()));
+    }
+}
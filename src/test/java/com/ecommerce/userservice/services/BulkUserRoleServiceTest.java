@@ -0,0 +1,147 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.dtos.UserRolesResultDto;
+import com.ecommerce.userservice.models.Role;
+import com.ecommerce.userservice.repositories.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BulkUserRoleService}.
+ * This class tests the functionality of the BulkUserRoleService methods using mocked dependencies.
+ *
+ * @author mahip.bhatt
+ */
+class BulkUserRoleServiceTest {
+
+    private RoleRepository roleRepository;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private JdbcOperations jdbcOperations;
+    private ApplicationEventPublisher eventPublisher;
+    private BulkUserRoleService bulkUserRoleService;
+
+    /**
+     * Sets up the test environment by initializing mocked dependencies.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        roleRepository = mock(RoleRepository.class);
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        jdbcOperations = mock(JdbcOperations.class);
+        when(jdbcTemplate.getJdbcOperations()).thenReturn(jdbcOperations);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        bulkUserRoleService = new BulkUserRoleService(roleRepository, jdbcTemplate, transactionTemplate, eventPublisher);
+    }
+
+    /**
+     * Tests that only the changed join table rows are written and that each user gets a result.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSetUserRolesWritesOnlyDifferences() throws Exception {
+        // Arrange
+        Map<Long, List<Long>> roleIdsByUserId = new LinkedHashMap<>();
+        roleIdsByUserId.put(1L, List.of(10L, 20L, 99L));
+        roleIdsByUserId.put(2L, List.of(10L));
+        roleIdsByUserId.put(3L, List.of(10L));
+        when(roleRepository.findAllByIdIn(anyList())).thenReturn(List.of(role(10L), role(20L)));
+        stubRows(BulkUserRoleService.SELECT_USER_EMAILS,
+                row(Map.of("id", 1L), Map.of("email", "one@example.com")),
+                row(Map.of("id", 2L), Map.of("email", "two@example.com")));
+        stubRows(BulkUserRoleService.SELECT_USER_ROLES,
+                row(Map.of("user_id", 1L, "roles_id", 30L), Map.of()),
+                row(Map.of("user_id", 1L, "roles_id", 10L), Map.of()),
+                row(Map.of("user_id", 2L, "roles_id", 10L), Map.of()));
+
+        // Act
+        List<UserRolesResultDto> results = bulkUserRoleService.setUserRoles(roleIdsByUserId);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(UserRolesResultDto.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(1, results.get(0).getRolesAdded());
+        assertEquals(1, results.get(0).getRolesRemoved());
+        assertEquals(UserRolesResultDto.Status.UNCHANGED, results.get(1).getStatus());
+        assertEquals(UserRolesResultDto.Status.USER_NOT_FOUND, results.get(2).getStatus());
+
+        ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcOperations).batchUpdate(eq(BulkUserRoleService.INSERT_USER_ROLE), inserts.capture());
+        assertEquals(1, inserts.getValue().size());
+        assertArrayEquals(new Object[]{1L, 20L}, inserts.getValue().get(0));
+        ArgumentCaptor<List<Object[]>> deletes = ArgumentCaptor.forClass(List.class);
+        verify(jdbcOperations).batchUpdate(eq(BulkUserRoleService.DELETE_USER_ROLE), deletes.capture());
+        assertArrayEquals(new Object[]{1L, 30L}, deletes.getValue().get(0));
+        verify(roleRepository, times(1)).findAllByIdIn(anyList());
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    /**
+     * Stubs a query to feed the given rows to its row mapper.
+     *
+     * @param sql  the query
+     * @param rows the result set rows
+     */
+    @SuppressWarnings("unchecked")
+    private void stubRows(String sql, ResultSet... rows) {
+        when(jdbcTemplate.query(eq(sql), anyMap(), any(RowMapper.class))).thenAnswer(invocation -> {
+            RowMapper<Object> rowMapper = invocation.getArgument(2);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < rows.length; i++) {
+                mapped.add(rowMapper.mapRow(rows[i], i));
+            }
+            return mapped;
+        });
+    }
+
+    /**
+     * Creates a result set positioned on a single row.
+     *
+     * @param longs   the numeric columns
+     * @param strings the text columns
+     * @return the result set
+     */
+    private static ResultSet row(Map<String, Long> longs, Map<String, String> strings) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        for (Map.Entry<String, Long> column : longs.entrySet()) {
+            when(resultSet.getLong(column.getKey())).thenReturn(column.getValue());
+        }
+        for (Map.Entry<String, String> column : strings.entrySet()) {
+            when(resultSet.getString(column.getKey())).thenReturn(column.getValue());
+        }
+        return resultSet;
+    }
+
+    /**
+     * Creates a role with the given ID.
+     *
+     * @param id the role ID
+     * @return the role
+     */
+    private static Role role(Long id) {
+        Role role = new Role("ROLE_" + id);
+        role.setId(id);
+        return role;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.security.ReaperProperties;
+import com.ecommerce.userservice.security.repositories.AuthorizationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ExpiredTokenReaper}.
+ * This class tests the functionality of the ExpiredTokenReaper methods using mocked dependencies.
+ *
+ * @author mahip.bhatt
+ */
+class ExpiredTokenReaperTest {
+
+    private AuthorizationRepository authorizationRepository;
+    private SessionStore sessionStore;
+    private SimpleMeterRegistry meterRegistry;
+    private ExpiredTokenReaper expiredTokenReaper;
+
+    /**
+     * Sets up the test environment by initializing mocked dependencies.
+     */
+    @BeforeEach
+    void setUp() {
+        authorizationRepository = mock(AuthorizationRepository.class);
+        sessionStore = mock(SessionStore.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ReaperProperties reaperProperties = new ReaperProperties();
+        reaperProperties.setBatchSize(2);
+        reaperProperties.setBatchPause(Duration.ZERO);
+        reaperProperties.setMaxBatchesPerRun(3);
+        expiredTokenReaper = new ExpiredTokenReaper(authorizationRepository, sessionStore, reaperProperties,
+                meterRegistry);
+    }
+
+    /**
+     * Tests that expired rows are deleted batch by batch until a short batch is found, and that the metrics are updated.
+     */
+    @Test
+    void testReapDeletesInBatches() {
+        // Arrange
+        when(authorizationRepository.findExpiredIds(any(Instant.class), any()))
+                .thenReturn(List.of("a1", "a2"))
+                .thenReturn(List.of("a3"));
+        when(authorizationRepository.deleteAllByIdIn(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        when(sessionStore.expire(any(Instant.class), anyInt())).thenReturn(0);
+
+        // Act
+        expiredTokenReaper.reap();
+
+        // Assert
+        verify(authorizationRepository, times(2)).findExpiredIds(any(Instant.class), any());
+        verify(authorizationRepository).deleteAllByIdIn(List.of("a1", "a2"));
+        verify(authorizationRepository).deleteAllByIdIn(List.of("a3"));
+        verify(sessionStore, times(1)).expire(any(Instant.class), eq(2));
+        assertEquals(3.0, meterRegistry.get("auth.reaper.rows.deleted").tag("table", "authorization").counter().count());
+        assertEquals(3.0, meterRegistry.get("auth.reaper.rows.scanned").tag("table", "authorization").counter().count());
+        assertEquals(2, meterRegistry.get("auth.reaper.batch").tag("table", "authorization").timer().count());
+    }
+
+    /**
+     * Tests that a run stops after the configured number of batches even if more rows remain.
+     */
+    @Test
+    void testReapStopsAtMaxBatchesPerRun() {
+        // Arrange
+        when(authorizationRepository.findExpiredIds(any(Instant.class), any())).thenReturn(List.of());
+        when(sessionStore.expire(any(Instant.class), anyInt())).thenReturn(2);
+
+        // Act
+        expiredTokenReaper.reap();
+
+        // Assert
+        verify(sessionStore, times(3)).expire(any(Instant.class), eq(2));
+        assertEquals(6.0, meterRegistry.get("auth.reaper.rows.deleted").tag("table", "session").counter().count());
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.models.SessionStatus;
+import com.ecommerce.userservice.models.User;
+import com.ecommerce.userservice.security.SessionPersistenceProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static com.ecommerce.userservice.security.TokenDigests.sha256;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link InMemorySessionStore}.
+ * This class tests the session lifecycle and expiry of the in-memory store.
+ *
+ * @author mahip.bhatt
+ */
+class InMemorySessionStoreTest {
+
+    private InMemorySessionStore sessionStore;
+
+    /**
+     * Sets up the test environment with a small number of stripes, so that stripes hold many users.
+     */
+    @BeforeEach
+    void setUp() {
+        SessionPersistenceProperties sessionPersistenceProperties = new SessionPersistenceProperties();
+        sessionPersistenceProperties.setMemoryStripes(3);
+        sessionStore = new InMemorySessionStore(sessionPersistenceProperties);
+    }
+
+    /**
+     * Tests that a created session can be found by its token and user, and is reported as ended after logout.
+     */
+    @Test
+    void testCreateFindAndEnd() {
+        // Arrange
+        Session session = session("token-1", 1L, 60_000);
+        sessionStore.create(session);
+
+        // Act & Assert
+        assertSame(session, sessionStore.find(sha256("token-1"), 1L).orElseThrow());
+        assertTrue(sessionStore.find(sha256("token-1"), 2L).isEmpty());
+        assertTrue(sessionStore.find(sha256("token-2"), 1L).isEmpty());
+
+        assertTrue(sessionStore.end(sha256("token-1"), 1L));
+        assertFalse(sessionStore.end(sha256("token-2"), 1L));
+        assertEquals(SessionStatus.ENDED, sessionStore.find(sha256("token-1"), 1L).orElseThrow().getSessionStatus());
+        assertArrayEquals(sha256("token-1"), sessionStore.findEndedTokenHashes(Instant.now()).get(0));
+    }
+
+    /**
+     * Tests that expired sessions are invisible and removed by expire, while live sessions of many users survive.
+     */
+    @Test
+    void testExpireRemovesOnlyExpiredSessions() {
+        // Arrange
+        for (long userId = 0; userId < 1_000; userId++) {
+            sessionStore.create(session("live-" + userId, userId, 60_000));
+            if (userId % 2 == 0) {
+                sessionStore.create(session("expired-" + userId, userId, -1_000));
+            }
+        }
+        for (long userId = 1_000; userId < 2_000; userId++) {
+            sessionStore.create(session("expired-" + userId, userId, -1_000));
+        }
+
+        // Act
+        int removed = sessionStore.expire(Instant.now(), Integer.MAX_VALUE);
+
+        // Assert
+        assertEquals(1_500, removed);
+        assertTrue(sessionStore.find(sha256("expired-1000"), 1_000L).isEmpty());
+        for (long userId = 0; userId < 1_000; userId++) {
+            assertTrue(sessionStore.find(sha256("live-" + userId), userId).isPresent(), "user " + userId);
+        }
+        assertEquals(0, sessionStore.expire(Instant.now(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Tests that ending all sessions of a user ends only that user's unexpired sessions.
+     */
+    @Test
+    void testFindActiveAndEndAll() {
+        // Arrange
+        sessionStore.create(session("token-1", 1L, 60_000));
+        sessionStore.create(session("token-2", 1L, 60_000));
+        sessionStore.create(session("token-3", 1L, -1_000));
+        sessionStore.create(session("token-4", 2L, 60_000));
+        sessionStore.end(sha256("token-2"), 1L);
+
+        // Act & Assert
+        List<Session> active = sessionStore.findActive(1L, Instant.now());
+        assertEquals(1, active.size());
+        assertArrayEquals(sha256("token-1"), active.get(0).getTokenHash());
+        List<byte[]> ended = sessionStore.endAll(1L, Instant.now());
+        assertEquals(2, ended.size());
+        assertArrayEquals(sha256("token-2"), ended.get(1));
+        assertTrue(sessionStore.findActive(1L, Instant.now()).isEmpty());
+        assertEquals(1, sessionStore.findActive(2L, Instant.now()).size());
+    }
+
+    /**
+     * Creates an active session that expires after the given number of milliseconds.
+     *
+     * @param token     the session token
+     * @param userId    the user ID
+     * @param ttlMillis the time to expiry, negative for an already expired session
+     * @return the session
+     */
+    private static Session session(String token, Long userId, long ttlMillis) {
+        User user = new User();
+        user.setId(userId);
+        return new Session(sha256(token), new Date(System.currentTimeMillis() + ttlMillis), user, SessionStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.security.LoginExecutorProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link PasswordVerificationExecutor}.
+ * This class tests the admission control and metrics of the PasswordVerificationExecutor.
+ *
+ * @author mahip.bhatt
+ */
+class PasswordVerificationExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordVerificationExecutor passwordVerificationExecutor;
+
+    /**
+     * Sets up an executor with one thread and room for one queued task.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        LoginExecutorProperties loginExecutorProperties = new LoginExecutorProperties();
+        loginExecutorProperties.setThreads(1);
+        loginExecutorProperties.setQueueCapacity(1);
+        passwordVerificationExecutor = new PasswordVerificationExecutor(loginExecutorProperties, meterRegistry);
+    }
+
+    /**
+     * Shuts the executor down after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        passwordVerificationExecutor.shutdown();
+    }
+
+    /**
+     * Tests that submitted tasks complete and record their queue wait time.
+     */
+    @Test
+    void testSubmitCompletes() {
+        // Act
+        String result = passwordVerificationExecutor.submit(() -> "verified").join();
+
+        // Assert
+        assertEquals("verified", result);
+        assertEquals(1, meterRegistry.get("auth.login.queue.wait").timer().count());
+    }
+
+    /**
+     * Tests that tasks are rejected once the thread is busy and the queue is full.
+     */
+    @Test
+    void testSubmitRejectsWhenQueueFull() throws InterruptedException {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = passwordVerificationExecutor.submit(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return true;
+        });
+        started.await();
+        CompletableFuture<Boolean> queued = passwordVerificationExecutor.submit(() -> true);
+
+        // Act & Assert
+        assertEquals(1.0, meterRegistry.get("auth.login.queue.depth").gauge().value());
+        assertThrows(RejectedExecutionException.class, () -> passwordVerificationExecutor.submit(() -> true));
+        assertEquals(1.0, meterRegistry.get("auth.login.rejected").counter().count());
+
+        release.countDown();
+        running.join();
+        queued.join();
+    }
+
+    /**
+     * Waits for a latch, ignoring interrupts.
+     *
+     * @param latch the latch
+     */
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.security.RevocationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.ecommerce.userservice.security.TokenDigests.sha256;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link RevokedTokenFilter}.
+ * This class tests the functionality of the RevokedTokenFilter methods using mocked dependencies.
+ *
+ * @author mahip.bhatt
+ */
+class RevokedTokenFilterTest {
+
+    private SessionStore sessionStore;
+    private RevokedTokenFilter revokedTokenFilter;
+
+    /**
+     * Sets up the test environment by initializing mocked dependencies.
+     */
+    @BeforeEach
+    void setUp() {
+        sessionStore = mock(SessionStore.class);
+        RevocationProperties revocationProperties = new RevocationProperties();
+        revocationProperties.setExpectedInsertions(1_000);
+        revokedTokenFilter = new RevokedTokenFilter(sessionStore, revocationProperties);
+    }
+
+    /**
+     * Tests that added tokens are always reported while unrelated tokens are not.
+     */
+    @Test
+    void testAddAndMightContain() {
+        // Act
+        revokedTokenFilter.add(sha256("revokedToken"));
+
+        // Assert
+        assertTrue(revokedTokenFilter.mightContain(sha256("revokedToken")));
+        assertFalse(revokedTokenFilter.mightContain(sha256("liveToken")));
+    }
+
+    /**
+     * Tests that the false-positive rate stays close to the configured target at the expected size.
+     */
+    @Test
+    void testFalsePositiveRate() {
+        // Arrange
+        for (int i = 0; i < 1_000; i++) {
+            revokedTokenFilter.add(sha256("revoked-" + i));
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (revokedTokenFilter.mightContain(sha256("live-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    /**
+     * Tests that a rebuild replaces the filter contents with the ended sessions from the store.
+     */
+    @Test
+    void testRebuildFromSessionTable() {
+        // Arrange
+        revokedTokenFilter.add(sha256("expiredToken"));
+        when(sessionStore.findEndedTokenHashes(any(Instant.class)))
+                .thenReturn(List.of(sha256("endedElsewhere")));
+
+        // Act
+        revokedTokenFilter.rebuild();
+
+        // Assert
+        assertTrue(revokedTokenFilter.mightContain(sha256("endedElsewhere")));
+        assertFalse(revokedTokenFilter.mightContain(sha256("expiredToken")));
+    }
+
+    /**
+     * Tests that a token revoked while a rebuild is reading the store survives the rebuild, even though the store
+     * snapshot the rebuild read does not contain it.
+     */
+    @Test
+    void testAddDuringRebuildIsKept() {
+        // Arrange
+        when(sessionStore.findEndedTokenHashes(any(Instant.class))).thenAnswer(invocation -> {
+            revokedTokenFilter.add(sha256("revokedDuringRebuild"));
+            return List.of();
+        });
+
+        // Act
+        revokedTokenFilter.rebuild();
+
+        // Assert
+        assertTrue(revokedTokenFilter.mightContain(sha256("revokedDuringRebuild")));
+    }
+}
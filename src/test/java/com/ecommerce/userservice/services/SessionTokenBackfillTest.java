@@ -0,0 +1,67 @@
+package com.ecommerce.userservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SessionTokenBackfill}.
+ * This class tests that session token digests are backfilled batch by batch until none are left.
+ *
+ * @author mahip.bhatt
+ */
+class SessionTokenBackfillTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SessionTokenBackfill sessionTokenBackfill;
+
+    /**
+     * Sets up the backfill over a mocked JDBC template.
+     */
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        sessionTokenBackfill = new SessionTokenBackfill(jdbcTemplate);
+    }
+
+    /**
+     * Tests that batches are run until one updates fewer rows than the batch size.
+     */
+    @Test
+    void testBackfillRunsUntilShortBatch() {
+        // Arrange
+        when(jdbcTemplate.update(eq(SessionTokenBackfill.BACKFILL_SQL), eq(SessionTokenBackfill.BATCH_SIZE)))
+                .thenReturn(SessionTokenBackfill.BATCH_SIZE)
+                .thenReturn(7);
+
+        // Act
+        long updated = sessionTokenBackfill.backfill();
+
+        // Assert
+        assertEquals(SessionTokenBackfill.BATCH_SIZE + 7, updated);
+        verify(jdbcTemplate, times(2))
+                .update(eq(SessionTokenBackfill.BACKFILL_SQL), eq(SessionTokenBackfill.BATCH_SIZE));
+    }
+
+    /**
+     * Tests that a failing batch stops the backfill and reports the rows updated so far.
+     */
+    @Test
+    void testBackfillStopsOnFailure() {
+        // Arrange
+        when(jdbcTemplate.update(eq(SessionTokenBackfill.BACKFILL_SQL), eq(SessionTokenBackfill.BATCH_SIZE)))
+                .thenReturn(SessionTokenBackfill.BATCH_SIZE)
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        // Act
+        long updated = sessionTokenBackfill.backfill();
+
+        // Assert
+        assertEquals(SessionTokenBackfill.BATCH_SIZE, updated);
+    }
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.models.Session;
+import com.ecommerce.userservice.models.SessionStatus;
+import com.ecommerce.userservice.models.User;
+import com.ecommerce.userservice.repositories.SessionRepository;
+import com.ecommerce.userservice.security.SessionPersistenceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static com.ecommerce.userservice.security.TokenDigests.sha256;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SessionWriteBuffer}.
+ * This class tests the functionality of the SessionWriteBuffer methods using mocked dependencies.
+ *
+ * @author mahip.bhatt
+ */
+class SessionWriteBufferTest {
+
+    private SessionRepository sessionRepository;
+    private SessionPersistenceProperties sessionPersistenceProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private SessionWriteBuffer sessionWriteBuffer;
+
+    /**
+     * Sets up the test environment with a write-behind buffer that only flushes when asked to.
+     */
+    @BeforeEach
+    void setUp() {
+        sessionRepository = mock(SessionRepository.class);
+        sessionPersistenceProperties = new SessionPersistenceProperties();
+        sessionPersistenceProperties.setDurability(SessionPersistenceProperties.Durability.WRITE_BEHIND);
+        sessionPersistenceProperties.setFlushInterval(Duration.ofHours(1));
+        sessionPersistenceProperties.setQueueCapacity(2);
+        meterRegistry = new SimpleMeterRegistry();
+        sessionWriteBuffer = new SessionWriteBuffer(sessionRepository, sessionPersistenceProperties, meterRegistry);
+    }
+
+    /**
+     * Stops the background flusher.
+     */
+    @AfterEach
+    void tearDown() {
+        sessionWriteBuffer.shutdown();
+    }
+
+    /**
+     * Tests that a queued session is visible before the flush and written in one batch by it.
+     */
+    @Test
+    void testWriteBehindSessionVisibleUntilFlushed() {
+        // Arrange
+        Session first = session("token-1", 1L);
+        Session second = session("token-2", 2L);
+
+        // Act
+        sessionWriteBuffer.save(first);
+        sessionWriteBuffer.save(second);
+
+        // Assert
+        verifyNoInteractions(sessionRepository);
+        assertSame(first, sessionWriteBuffer.findPending(sha256("token-1"), 1L).orElseThrow());
+        assertTrue(sessionWriteBuffer.findPending(sha256("token-1"), 2L).isEmpty());
+
+        // Act
+        sessionWriteBuffer.flush();
+
+        // Assert
+        verify(sessionRepository, times(1)).saveAll(List.of(first, second));
+        assertTrue(sessionWriteBuffer.findPending(sha256("token-1"), 1L).isEmpty());
+        assertEquals(1, meterRegistry.get("auth.session.writebehind.flush").timer().count());
+    }
+
+    /**
+     * Tests that a session is saved synchronously when the queue is full.
+     */
+    @Test
+    void testWriteBehindFallsBackToSyncWhenQueueFull() {
+        // Arrange
+        Session overflow = session("token-3", 3L);
+        sessionWriteBuffer.save(session("token-1", 1L));
+        sessionWriteBuffer.save(session("token-2", 2L));
+
+        // Act
+        sessionWriteBuffer.save(overflow);
+
+        // Assert
+        verify(sessionRepository, times(1)).save(overflow);
+        assertTrue(sessionWriteBuffer.findPending(sha256("token-3"), 3L).isEmpty());
+        assertEquals(1.0, meterRegistry.get("auth.session.writebehind.overflowed").counter().count());
+    }
+
+    /**
+     * Tests that a failed batch is dropped from the pending index and counted.
+     */
+    @Test
+    void testWriteBehindFailedBatchIsDropped() {
+        // Arrange
+        when(sessionRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database down"));
+        sessionWriteBuffer.save(session("token-1", 1L));
+
+        // Act
+        sessionWriteBuffer.flush();
+
+        // Assert
+        assertTrue(sessionWriteBuffer.findPending(sha256("token-1"), 1L).isEmpty());
+        assertEquals(1.0, meterRegistry.get("auth.session.writebehind.dropped").counter().count());
+    }
+
+    /**
+     * Tests that the sessions of a failed batch are retried one at a time and only the failing one is dropped.
+     */
+    @Test
+    void testWriteBehindFailedBatchIsRetriedPerSession() {
+        // Arrange
+        Session first = session("token-1", 1L);
+        Session second = session("token-2", 2L);
+        when(sessionRepository.saveAll(anyList())).thenThrow(new IllegalStateException("duplicate key"));
+        when(sessionRepository.save(second)).thenThrow(new IllegalStateException("duplicate key"));
+        sessionWriteBuffer.save(first);
+        sessionWriteBuffer.save(second);
+
+        // Act
+        sessionWriteBuffer.flush();
+
+        // Assert
+        verify(sessionRepository, times(1)).save(first);
+        verify(sessionRepository, times(1)).save(second);
+        assertTrue(sessionWriteBuffer.findPending(sha256("token-1"), 1L).isEmpty());
+        assertTrue(sessionWriteBuffer.findPending(sha256("token-2"), 2L).isEmpty());
+        assertEquals(1.0, meterRegistry.get("auth.session.writebehind.dropped").counter().count());
+    }
+
+    /**
+     * Tests that synchronous durability saves the session immediately and keeps nothing in memory.
+     */
+    @Test
+    void testSyncSavesImmediately() {
+        // Arrange
+        SessionWriteBuffer syncBuffer = new SessionWriteBuffer(sessionRepository, new SessionPersistenceProperties(),
+                new SimpleMeterRegistry());
+        Session session = session("token-1", 1L);
+
+        // Act
+        syncBuffer.save(session);
+
+        // Assert
+        verify(sessionRepository, times(1)).save(session);
+        assertTrue(syncBuffer.findPending(sha256("token-1"), 1L).isEmpty());
+    }
+
+    /**
+     * Creates an active session for the given token and user.
+     *
+     * @param token  the session token
+     * @param userId the user ID
+     * @return the session
+     */
+    private static Session session(String token, Long userId) {
+        User user = new User();
+        user.setId(userId);
+        return new Session(sha256(token), new Date(System.currentTimeMillis() + 60_000), user, SessionStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecommerce.userservice.services;
+
+import com.ecommerce.userservice.dtos.UserImportResultDto;
+import com.ecommerce.userservice.models.SnowflakeIdAllocator;
+import com.ecommerce.userservice.security.UserImportProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link UserImportService}.
+ * This class tests the functionality of the UserImportService methods using mocked dependencies.
+ *
+ * @author mahip.bhatt
+ */
+class UserImportServiceTest {
+
+    private static final String EXISTING_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private JdbcOperations jdbcOperations;
+    private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private UserImportProperties userImportProperties;
+    private UserImportService userImportService;
+
+    /**
+     * Sets up the test environment by initializing mocked dependencies.
+     */
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        jdbcOperations = mock(JdbcOperations.class);
+        when(jdbcTemplate.getJdbcOperations()).thenReturn(jdbcOperations);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        bCryptPasswordEncoder = new BCryptPasswordEncoder(4);
+        userImportProperties = new UserImportProperties();
+        userImportProperties.setParallelism(2);
+        userImportService = new UserImportService(bCryptPasswordEncoder, jdbcTemplate, transactionTemplate,
+                new SnowflakeIdAllocator(1), new ObjectMapper(), userImportProperties);
+    }
+
+    /**
+     * Shuts down the hashing pool.
+     */
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    /**
+     * Tests that NDJSON records are hashed or passed through, and that invalid and existing users are left out.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportNdjson() throws Exception {
+        // Arrange
+        String input = """
+                {"email": "plain@example.com", "password": "secret"}
+                {"email": "hashed@example.com", "passwordHash": "%s"}
+
+                {"email": "bad-hash@example.com", "passwordHash": "not-a-hash"}
+                {"email": "no-password@example.com"}
+                not json
+                {"email": "existing@example.com", "password": "secret"}
+                {"email": "PLAIN@example.com", "password": "other"}
+                """.formatted(EXISTING_HASH);
+        when(jdbcTemplate.queryForList(eq(UserImportService.SELECT_EXISTING_EMAILS), anyMap(), eq(String.class)))
+                .thenReturn(List.of("existing@example.com"));
+
+        // Act
+        UserImportResultDto result = userImportService.importUsers(stream(input), UserImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getSkipped());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of("line 4: password hash is not a BCrypt hash", "line 5: missing password",
+                "line 6: malformed JSON"), result.getErrors());
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcOperations).batchUpdate(eq(UserImportService.INSERT_USER), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertEquals("plain@example.com", rows.getValue().get(0)[1]);
+        assertTrue(bCryptPasswordEncoder.matches("secret", (String) rows.getValue().get(0)[2]));
+        assertEquals("hashed@example.com", rows.getValue().get(1)[1]);
+        assertEquals(EXISTING_HASH, rows.getValue().get(1)[2]);
+        assertTrue((Long) rows.getValue().get(0)[0] < (Long) rows.getValue().get(1)[0]);
+    }
+
+    /**
+     * Tests that CSV records with quoted fields are parsed and written one JDBC batch per configured batch size.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportCsvInBatches() throws Exception {
+        // Arrange
+        userImportProperties.setBatchSize(2);
+        String input = "email,password,password_hash\n"
+                + "one@example.com,\"pa,ss \"\"word\"\"\",\n"
+                + "two@example.com,," + EXISTING_HASH + "\n"
+                + "three@example.com,secret,\n";
+        when(jdbcTemplate.queryForList(eq(UserImportService.SELECT_EXISTING_EMAILS), anyMap(), eq(String.class)))
+                .thenReturn(List.of());
+
+        // Act
+        UserImportResultDto result = userImportService.importUsers(stream(input), UserImportService.Format.CSV);
+
+        // Assert
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getRejected());
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcOperations, times(2)).batchUpdate(eq(UserImportService.INSERT_USER), rows.capture());
+        List<Object[]> firstBatch = rows.getAllValues().get(0);
+        assertEquals(2, firstBatch.size());
+        assertTrue(bCryptPasswordEncoder.matches("pa,ss \"word\"", (String) firstBatch.get(0)[2]));
+        assertEquals(EXISTING_HASH, firstBatch.get(1)[2]);
+        assertEquals("three@example.com", rows.getAllValues().get(1).get(0)[1]);
+    }
+
+    /**
+     * Tests that a CSV input without an email column is refused before anything is written.
+     */
+    @Test
+    void testImportCsvWithoutEmailColumn() {
+        // Arrange
+        String input = "username,password\nuser,secret\n";
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> userImportService.importUsers(stream(input), UserImportService.Format.CSV));
+        verifyNoInteractions(jdbcOperations);
+    }
+
+    /**
+     * Tests that a batch colliding with a concurrently inserted email is retried without that email.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportRetriesBatchAfterDuplicateKey() throws Exception {
+        // Arrange
+        String input = "email,password\none@example.com,secret\ntwo@example.com,secret\n";
+        when(jdbcTemplate.queryForList(eq(UserImportService.SELECT_EXISTING_EMAILS), anyMap(), eq(String.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of("two@example.com"));
+        when(jdbcOperations.batchUpdate(eq(UserImportService.INSERT_USER), anyList()))
+                .thenThrow(new DuplicateKeyException("uk_user_email"))
+                .thenReturn(new int[]{1});
+
+        // Act
+        UserImportResultDto result = userImportService.importUsers(stream(input), UserImportService.Format.CSV);
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getSkipped());
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcOperations, times(2)).batchUpdate(eq(UserImportService.INSERT_USER), rows.capture());
+        assertEquals(1, rows.getAllValues().get(1).size());
+        assertEquals("one@example.com", rows.getAllValues().get(1).get(0)[1]);
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
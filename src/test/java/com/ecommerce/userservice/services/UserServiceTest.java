@@ -7,9 +7,13 @@ import com.ecommerce.userservice.repositories.RoleRepository;
 import com.ecommerce.userservice.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +28,7 @@ class UserServiceTest {
 
     private UserRepository userRepository;
     private RoleRepository roleRepository;
+    private ApplicationEventPublisher eventPublisher;
     private UserService userService;
 
     /**
@@ -33,7 +38,8 @@ class UserServiceTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
         roleRepository = mock(RoleRepository.class);
-        userService = new UserService(userRepository, roleRepository);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        userService = new UserService(userRepository, roleRepository, eventPublisher);
     }
 
     /**
@@ -84,6 +90,7 @@ class UserServiceTest {
         List<Long> roleIds = List.of(1L, 2L);
         User user = new User();
         user.setId(userId);
+        user.setEmail("test@example.com");
         Role role1 = new Role();
         role1.setId(1L);
         role1.setRole("ADMIN");
@@ -105,6 +112,9 @@ class UserServiceTest {
         verify(userRepository, times(1)).findById(userId);
         verify(roleRepository, times(1)).findAllByIdIn(roleIds);
         verify(userRepository, times(1)).save(user);
+        ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals("test@example.com", event.getValue().getEmail());
     }
 
     /**
@@ -126,4 +136,38 @@ class UserServiceTest {
         verify(roleRepository, never()).findAllByIdIn(roleIds);
         verify(userRepository, never()).save(any(User.class));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that bulk lookups deduplicate IDs, query in chunks and return users in request order.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testForEachUserDetailsChunksAndKeepsOrder() {
+        // Arrange
+        List<Long> userIds = new ArrayList<>(LongStream.rangeClosed(1, 1_500).boxed().toList());
+        userIds.add(0, 1_500L);
+        userIds.add(42L);
+        when(userRepository.findAllWithRolesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            List<User> users = new ArrayList<>();
+            for (Long id : (List<Long>) invocation.getArgument(0)) {
+                if (id % 2 == 0) {
+                    User user = new User();
+                    user.setId(id);
+                    users.add(0, user);
+                }
+            }
+            return users;
+        });
+        List<Long> resolvedIds = new ArrayList<>();
+
+        // Act
+        userService.forEachUserDetails(userIds, userDto -> resolvedIds.add(userDto.getId()));
+
+        // Assert
+        verify(userRepository, times(2)).findAllWithRolesByIdIn(anyCollection());
+        assertEquals(750, resolvedIds.size());
+        assertEquals(1_500L, resolvedIds.get(0));
+        assertEquals(2L, resolvedIds.get(1));
+        assertEquals(1_498L, resolvedIds.get(749));
+    }
+}